@@ -0,0 +1,30 @@
+package com.dreamgames.backendengineeringcasestudy.actuator;
+
+import com.dreamgames.backendengineeringcasestudy.model.redis.KeyspaceReport;
+import com.dreamgames.backendengineeringcasestudy.service.RedisKeyspaceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint at /actuator/rediskeys that reports the number of Redis keys and their memory usage per key family.
+ */
+@Component
+@Endpoint(id = "rediskeys")
+@RequiredArgsConstructor
+public class RedisKeyspaceEndpoint {
+
+    private final RedisKeyspaceService redisKeyspaceService;
+
+    /**
+     * Scans the keyspace and reports it. The scan is incremental and does not block Redis, but it visits every key,
+     * so the endpoint is meant for operators rather than for frequent polling.
+     *
+     * @return the key counts and memory usage per key family.
+     */
+    @ReadOperation
+    public KeyspaceReport keyspace() {
+        return redisKeyspaceService.describeKeyspace();
+    }
+}
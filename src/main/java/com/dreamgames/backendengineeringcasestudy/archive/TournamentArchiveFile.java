@@ -0,0 +1,203 @@
+package com.dreamgames.backendengineeringcasestudy.archive;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentHistoryEntry;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupScore;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Binary layout of the final standings of an archived tournament.
+ * <p>
+ * The file starts with a header and the country leaderboard, followed by two tables of fixed-size records:
+ * <ul>
+ *     <li>group records of (groupId, userId, score), sorted by group and, within a group, by rank;</li>
+ *     <li>user records of (userId, index of the user's group record), sorted by user.</li>
+ * </ul>
+ * A group leaderboard is a contiguous run of group records and a user is found with a binary search over the user
+ * records, so lookups read a few pages of the file no matter how many players took part. All reads use absolute
+ * positions and are safe to share between threads.
+ */
+public final class TournamentArchiveFile {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x54415243;
+    private static final int GROUP_RECORD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int USER_RECORD_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final Long tournamentId;
+    private final List<CountryLeaderBoard> countryLeaderBoard;
+    private final int playerCount;
+    private final int groupRecordsOffset;
+    private final int userRecordsOffset;
+
+    private TournamentArchiveFile(ByteBuffer buffer) {
+        this.buffer = buffer;
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            throw new IllegalStateException("Not a tournament archive of format version " + FORMAT_VERSION);
+        }
+        tournamentId = header.getLong();
+        int countryCount = header.getInt();
+        List<CountryLeaderBoard> countries = new ArrayList<>(countryCount);
+        for (int i = 0; i < countryCount; i++) {
+            byte[] name = new byte[header.getShort()];
+            header.get(name);
+            countries.add(new CountryLeaderBoard(new String(name, StandardCharsets.UTF_8), header.getInt()));
+        }
+        countryLeaderBoard = List.copyOf(countries);
+        playerCount = header.getInt();
+        groupRecordsOffset = header.position();
+        userRecordsOffset = groupRecordsOffset + playerCount * GROUP_RECORD_SIZE;
+    }
+
+    /**
+     * Reads an archive from the given buffer, typically a memory-mapped file.
+     *
+     * @param buffer the uncompressed archive.
+     * @return the archive backed by the buffer.
+     * @throws IllegalStateException if the buffer does not hold an archive of the current format.
+     */
+    public static TournamentArchiveFile read(ByteBuffer buffer) {
+        return new TournamentArchiveFile(buffer);
+    }
+
+    /**
+     * Writes the final standings of a tournament.
+     *
+     * @param out the stream to write the uncompressed archive to.
+     * @param tournamentId the ID of the tournament.
+     * @param countryLeaderBoard the country leaderboard, from the highest score to the lowest.
+     * @param standings the scores of all players, ordered by rank within each group.
+     * @throws IOException if the stream cannot be written.
+     */
+    public static void write(OutputStream out, Long tournamentId, List<CountryLeaderBoard> countryLeaderBoard,
+                             List<GroupScore> standings) throws IOException {
+        List<GroupScore> groupRecords = new ArrayList<>(standings);
+        // Stable sort: players keep their rank order within a group
+        groupRecords.sort(Comparator.comparing(GroupScore::getGroupId));
+        Integer[] userRecords = new Integer[groupRecords.size()];
+        for (int i = 0; i < userRecords.length; i++) {
+            userRecords[i] = i;
+        }
+        Arrays.sort(userRecords, Comparator.comparing(index -> groupRecords.get(index).getUserId()));
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeLong(tournamentId);
+        data.writeInt(countryLeaderBoard.size());
+        for (CountryLeaderBoard country : countryLeaderBoard) {
+            byte[] name = country.getCountryName().getBytes(StandardCharsets.UTF_8);
+            data.writeShort(name.length);
+            data.write(name);
+            data.writeInt(country.getScore());
+        }
+        data.writeInt(groupRecords.size());
+        for (GroupScore record : groupRecords) {
+            data.writeLong(record.getGroupId());
+            data.writeLong(record.getUserId());
+            data.writeInt(record.getScore());
+        }
+        for (Integer index : userRecords) {
+            data.writeLong(groupRecords.get(index).getUserId());
+            data.writeInt(index);
+        }
+        data.flush();
+    }
+
+    public Long getTournamentId() {
+        return tournamentId;
+    }
+
+    public List<CountryLeaderBoard> getCountryLeaderBoard() {
+        return countryLeaderBoard;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Returns the final leaderboard of a group.
+     *
+     * @param groupId the ID of the group.
+     * @return the scores of the group's players from the highest to the lowest, or an empty list if the group is unknown.
+     */
+    public List<GroupScore> getGroupStandings(Long groupId) {
+        List<GroupScore> standings = new ArrayList<>();
+        for (int index = firstGroupRecord(groupId); index < playerCount && groupIdAt(index) == groupId; index++) {
+            int position = groupRecordsOffset + index * GROUP_RECORD_SIZE;
+            standings.add(new GroupScore(groupId, buffer.getLong(position + Long.BYTES), buffer.getInt(position + 2 * Long.BYTES)));
+        }
+        return standings;
+    }
+
+    /**
+     * Returns the final standing of a player.
+     *
+     * @param userId the ID of the user.
+     * @return the group, rank and score of the user, or null if the user did not take part in the tournament.
+     */
+    public TournamentHistoryEntry findStanding(Long userId) {
+        int low = 0;
+        int high = playerCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = userRecordsOffset + middle * USER_RECORD_SIZE;
+            long middleUserId = buffer.getLong(position);
+            if (middleUserId < userId) {
+                low = middle + 1;
+            } else if (middleUserId > userId) {
+                high = middle - 1;
+            } else {
+                return toStanding(buffer.getInt(position + Long.BYTES));
+            }
+        }
+        return null;
+    }
+
+    private TournamentHistoryEntry toStanding(int groupRecord) {
+        long groupId = groupIdAt(groupRecord);
+        int first = firstGroupRecord(groupId);
+        int end = first;
+        while (end < playerCount && groupIdAt(end) == groupId) {
+            end++;
+        }
+        return TournamentHistoryEntry.builder()
+                .tournamentId(tournamentId)
+                .groupId(groupId)
+                .rank(groupRecord - first + 1)
+                .score(buffer.getInt(groupRecordsOffset + groupRecord * GROUP_RECORD_SIZE + 2 * Long.BYTES))
+                .groupSize(end - first)
+                .build();
+    }
+
+    private int firstGroupRecord(long groupId) {
+        int low = 0;
+        int high = playerCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (groupIdAt(middle) < groupId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long groupIdAt(int index) {
+        return buffer.getLong(groupRecordsOffset + index * GROUP_RECORD_SIZE);
+    }
+}
@@ -0,0 +1,114 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process copy of the active tournament epoch record.
+ * <p>
+ * The record is stored in Redis as one hash that is replaced atomically whenever a tournament is opened or closed, and
+ * every switch is announced on the {@link #CHANNEL} channel. Each node keeps the last record in memory and reloads it
+ * when it hears about a newer epoch, so hot paths read the tournament state without any network call. Pub/sub
+ * delivery is not guaranteed, therefore the record is also reloaded on a fixed interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveTournamentCache implements MessageListener {
+
+    public static final String CHANNEL = "activeTournamentChanged";
+    public static final String EPOCH_KEY = "activeTournamentEpoch";
+    public static final String RECORD_KEY = "activeTournament";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile ActiveTournament current = ActiveTournament.NONE;
+
+    @PostConstruct
+    public void start() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        refresh();
+    }
+
+    /**
+     * Returns the cached active tournament record.
+     *
+     * @return the last known record, {@link ActiveTournament#NONE} if no tournament was ever opened.
+     */
+    public ActiveTournament get() {
+        return current;
+    }
+
+    /**
+     * Reloads the record from Redis. Reloads are serialized, so a slower reload can never overwrite a newer record.
+     *
+     * @return the reloaded record.
+     */
+    @Scheduled(fixedDelayString = "${tournament.active-cache.refresh-interval-ms:30000}")
+    public synchronized ActiveTournament refresh() {
+        try {
+            current = load();
+        } catch (RuntimeException exception) {
+            log.warn("[ACTIVE TOURNAMENT CACHE] Could not reload the active tournament, keeping epoch {}", current.getEpoch(), exception);
+        }
+        return current;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        long epoch = Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (epoch != current.getEpoch()) {
+            ActiveTournament reloaded = refresh();
+            log.info("[ACTIVE TOURNAMENT CACHE] Switched to epoch {} (tournament {}, status {})",
+                    reloaded.getEpoch(), reloaded.getTournamentId(), reloaded.getStatus());
+        }
+    }
+
+    private ActiveTournament load() {
+        Map<Object, Object> record = redisTemplate.opsForHash().entries(RECORD_KEY);
+        if (record.isEmpty()) {
+            return loadLegacyKeys();
+        }
+        return ActiveTournament.builder()
+                .epoch(Long.parseLong((String) record.get("epoch")))
+                .tournamentId(parseLong((String) record.get("tournamentId")))
+                .startTime(parseTime((String) record.get("startTime")))
+                .endTime(parseTime((String) record.get("endTime")))
+                .status((String) record.get("status"))
+                .build();
+    }
+
+    /**
+     * Falls back to the keys written before the epoch record existed, e.g. right after a deployment mid-tournament.
+     */
+    private ActiveTournament loadLegacyKeys() {
+        List<String> values = redisTemplate.opsForValue().multiGet(List.of("hasActiveTournament", "activeTournamentId"));
+        if (values == null || !Boolean.parseBoolean(values.get(0)) || values.get(1) == null) {
+            return ActiveTournament.NONE;
+        }
+        return new ActiveTournament(0L, Long.parseLong(values.get(1)), null, null, ActiveTournament.ACTIVE);
+    }
+
+    private static Long parseLong(String value) {
+        return value == null || value.isEmpty() ? null : Long.parseLong(value);
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        return value == null || value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+}
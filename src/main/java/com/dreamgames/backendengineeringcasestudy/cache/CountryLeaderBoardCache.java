@@ -0,0 +1,134 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoardSnapshot;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Broadcast copy of the country leaderboard of the active tournament.
+ * <p>
+ * On every tick one node, chosen through a short-lived SET NX lock, reads the country leaderboard from Redis and
+ * publishes it on the {@link #CHANNEL} channel. Every node keeps the last snapshot it received, with the body already
+ * serialized, so the country leaderboard endpoint is answered without any I/O. A snapshot is at most one tick plus the
+ * country score flush interval old, and carries its generation time so that responses can expose their age.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CountryLeaderBoardCache implements MessageListener {
+
+    public static final String CHANNEL = "countryLeaderBoardBroadcast";
+    public static final String LOCK_KEY = "countryLeaderBoardBroadcastLock";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ActiveTournamentCache activeTournamentCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tournament.country-leaderboard.broadcast-interval-ms:1000}")
+    private long broadcastIntervalMs;
+
+    private volatile CountryLeaderBoardSnapshot current;
+
+    @PostConstruct
+    public void start() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Returns the last snapshot received by this node.
+     *
+     * @return the last snapshot, or null if none was received yet.
+     */
+    public CountryLeaderBoardSnapshot get() {
+        return current;
+    }
+
+    /**
+     * Renders a country leaderboard into a snapshot generated now, e.g. when no broadcast snapshot is available yet.
+     *
+     * @param tournamentId the ID of the tournament the leaderboard belongs to.
+     * @param leaderBoard the country leaderboard.
+     * @return the snapshot with its serialized body.
+     */
+    public CountryLeaderBoardSnapshot render(Long tournamentId, List<CountryLeaderBoard> leaderBoard) {
+        try {
+            return new CountryLeaderBoardSnapshot(tournamentId, Instant.now(), broadcastIntervalMs,
+                    objectMapper.writeValueAsBytes(leaderBoard));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Country leaderboard could not be serialized", exception);
+        }
+    }
+
+    /**
+     * Publishes the country leaderboard of the active tournament to every node, if no other node did so during the
+     * current tick.
+     */
+    @Scheduled(fixedRateString = "${tournament.country-leaderboard.broadcast-interval-ms:1000}")
+    public void broadcast() {
+        ActiveTournament activeTournament = activeTournamentCache.get();
+        if (!activeTournament.isActive()) {
+            return;
+        }
+        try {
+            // The lock outlives most of the tick, so each tick is published once while a crashed publisher is
+            // replaced by another node at the next tick
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(LOCK_KEY, "locked", Duration.ofMillis(broadcastIntervalMs * 9 / 10));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return;
+            }
+            Long tournamentId = activeTournament.getTournamentId();
+            Set<ZSetOperations.TypedTuple<String>> rawScores =
+                    redisTemplate.opsForZSet().reverseRangeWithScores("countryLeaderBoard:" + tournamentId, 0, -1);
+            List<CountryLeaderBoard> leaderBoard = rawScores == null ? List.of() : rawScores.stream()
+                    .map(scoreEntry -> new CountryLeaderBoard(scoreEntry.getValue(),
+                            scoreEntry.getScore() != null ? scoreEntry.getScore().intValue() : 0))
+                    .toList();
+
+            ObjectNode message = objectMapper.createObjectNode()
+                    .put("tournamentId", tournamentId)
+                    .put("generatedAt", Instant.now().toEpochMilli());
+            message.set("leaderBoard", objectMapper.valueToTree(leaderBoard));
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | RuntimeException exception) {
+            log.warn("[COUNTRY LEADERBOARD CACHE] Could not broadcast the country leaderboard", exception);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JsonNode snapshot = objectMapper.readTree(message.getBody());
+            current = new CountryLeaderBoardSnapshot(
+                    snapshot.get("tournamentId").asLong(),
+                    Instant.ofEpochMilli(snapshot.get("generatedAt").asLong()),
+                    broadcastIntervalMs,
+                    objectMapper.writeValueAsBytes(snapshot.get("leaderBoard")));
+        } catch (IOException | RuntimeException exception) {
+            log.warn("[COUNTRY LEADERBOARD CACHE] Ignoring malformed country leaderboard broadcast", exception);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process near-cache of rendered group leaderboards.
+ * <p>
+ * Every change to a group leaderboard (score increments, joins and group registrations) bumps the group's version
+ * counter in Redis in the same script and publishes "groupId:version" on the {@link #CHANNEL} channel. Each node drops
+ * its cached copy of the group when it hears about a change, so repeated reads between two changes are served from
+ * memory without any Redis or SQL call. Pub/sub delivery is not guaranteed, therefore entries also expire after a
+ * bounded age. The groups that users were placed in never change within a tournament and are cached alongside.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GroupLeaderBoardCache implements MessageListener {
+
+    public static final String CHANNEL = "groupLeaderBoardChanged";
+    public static final String VERSION_KEY_PREFIX = "groupLeaderBoardVersion:";
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tournament.group-leaderboard-cache.max-size:100000}")
+    private long maxSize;
+    @Value("${tournament.group-leaderboard-cache.max-age-ms:10000}")
+    private long maxAgeMs;
+
+    /**
+     * Counts the invalidations per stripe of group IDs. A reload only stores its result if no invalidation of its
+     * stripe happened meanwhile, so a change announced while a reload was reading Redis is never hidden by the reload.
+     */
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private Cache<Long, List<GroupLeaderBoard>> leaderBoards;
+    private Cache<MemberKey, Long> memberGroups;
+
+    @PostConstruct
+    public void start() {
+        leaderBoards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(maxAgeMs))
+                .recordStats()
+                .build();
+        memberGroups = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, leaderBoards, "groupLeaderBoard");
+        CaffeineCacheMetrics.monitor(meterRegistry, memberGroups, "groupLeaderBoardMembers");
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Returns the cached leaderboard of a group, rendering it with the given loader on a miss.
+     *
+     * @param groupId the ID of the group.
+     * @param loader renders the leaderboard of the group from Redis and the database.
+     * @return the leaderboard of the group, which must not be modified.
+     */
+    public List<GroupLeaderBoard> getLeaderBoard(Long groupId, Function<Long, List<GroupLeaderBoard>> loader) {
+        List<GroupLeaderBoard> cached = leaderBoards.getIfPresent(groupId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(groupId);
+        long stamp = invalidations.get(stripe);
+        List<GroupLeaderBoard> leaderBoard = List.copyOf(loader.apply(groupId));
+        if (invalidations.get(stripe) == stamp) {
+            leaderBoards.put(groupId, leaderBoard);
+            if (invalidations.get(stripe) != stamp) {
+                leaderBoards.invalidate(groupId);
+            }
+        }
+        return leaderBoard;
+    }
+
+    /**
+     * Returns the cached leaderboard of a group without loading it on a miss.
+     *
+     * @param groupId the ID of the group.
+     * @return the cached leaderboard of the group, or null if this node holds no current copy.
+     */
+    public List<GroupLeaderBoard> peekLeaderBoard(Long groupId) {
+        return leaderBoards.getIfPresent(groupId);
+    }
+
+    /**
+     * Returns the cached group of a user in a tournament without looking it up on a miss.
+     *
+     * @param tournamentId the ID of the tournament.
+     * @param userId the ID of the user.
+     * @return the ID of the user's group, or null if this node has not cached it.
+     */
+    public Long peekMemberGroupId(Long tournamentId, Long userId) {
+        return memberGroups.getIfPresent(new MemberKey(tournamentId, userId));
+    }
+
+    /**
+     * Returns the cached group of a user in a tournament, looking it up with the given loader on a miss.
+     * Users who have not entered the tournament are not cached.
+     *
+     * @param tournamentId the ID of the tournament.
+     * @param userId the ID of the user.
+     * @param loader looks up the group of the user, returning null if the user has not entered the tournament.
+     * @return the ID of the user's group, or null if the user has not entered the tournament.
+     */
+    public Long getMemberGroupId(Long tournamentId, Long userId, Supplier<Long> loader) {
+        MemberKey key = new MemberKey(tournamentId, userId);
+        Long groupId = memberGroups.getIfPresent(key);
+        if (groupId == null) {
+            groupId = loader.get();
+            if (groupId != null) {
+                memberGroups.put(key, groupId);
+            }
+        }
+        return groupId;
+    }
+
+    /**
+     * Drops the cached leaderboard of a group on this node.
+     *
+     * @param groupId the ID of the group that changed.
+     */
+    public void invalidate(Long groupId) {
+        invalidations.incrementAndGet(stripe(groupId));
+        leaderBoards.invalidate(groupId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            invalidate(Long.parseLong(body.substring(0, body.indexOf(':'))));
+        } catch (RuntimeException exception) {
+            log.warn("[GROUP LEADERBOARD CACHE] Ignoring malformed invalidation {}", body, exception);
+        }
+    }
+
+    private static int stripe(Long groupId) {
+        return (int) Math.floorMod(groupId, (long) INVALIDATION_STRIPES);
+    }
+
+    private record MemberKey(Long tournamentId, Long userId) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.ScoreQuantiles;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process sample of the score distribution of the active tournament.
+ * <p>
+ * The tournament leaderboard is sampled at evenly spaced ranks on a fixed interval, and approximate percentile
+ * queries rank a user's score from the group leaderboard near-cache against the sample without any Redis call. The
+ * estimate is off by at most one bucket of participants plus the score changes since the last refresh.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TournamentQuantileCache {
+
+    private final RedisService redisService;
+    private final ActiveTournamentCache activeTournamentCache;
+
+    @Value("${tournament.percentile.quantile-buckets:200}")
+    private int buckets;
+
+    private volatile Sample current = new Sample(null, ScoreQuantiles.EMPTY);
+
+    /**
+     * Returns the last sample of a tournament's score distribution.
+     *
+     * @param tournamentId the ID of the tournament.
+     * @return the sample, or null if the tournament has not been sampled yet.
+     */
+    public ScoreQuantiles get(Long tournamentId) {
+        Sample sample = current;
+        return tournamentId != null && tournamentId.equals(sample.tournamentId()) ? sample.quantiles() : null;
+    }
+
+    /**
+     * Samples the score distribution of the active tournament again.
+     */
+    @Scheduled(fixedDelayString = "${tournament.percentile.refresh-interval-ms:5000}")
+    public void refresh() {
+        ActiveTournament activeTournament = activeTournamentCache.get();
+        if (!activeTournament.isActive()) {
+            return;
+        }
+        Long tournamentId = activeTournament.getTournamentId();
+        try {
+            current = new Sample(tournamentId,
+                    redisService.getLeaderBoardQuantiles("tournamentLeaderBoard:" + tournamentId, buckets));
+        } catch (RuntimeException exception) {
+            log.warn("[TOURNAMENT QUANTILE CACHE] Could not sample the scores of tournament {}", tournamentId, exception);
+        }
+    }
+
+    private record Sample(Long tournamentId, ScoreQuantiles quantiles) {
+    }
+}
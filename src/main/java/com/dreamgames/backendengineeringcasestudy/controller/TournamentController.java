@@ -1,17 +1,35 @@
 package com.dreamgames.backendengineeringcasestudy.controller;
 
+import com.dreamgames.backendengineeringcasestudy.domain.Tournament;
+import com.dreamgames.backendengineeringcasestudy.enums.AdmissionStatus;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoardSnapshot;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardPage;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentHistoryEntry;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentPercentile;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.UserGroupRank;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.AdmissionTicket;
+import com.dreamgames.backendengineeringcasestudy.service.AdmissionService;
 import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
+import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardStreamService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.ScoreSnapshotService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentArchiveService;
 import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @Slf4j
@@ -22,23 +40,51 @@ public class TournamentController {
     private final TournamentService tournamentService;
     private final RedisService redisService;
     private final LeaderBoardService leaderBoardService;
+    private final LeaderBoardStreamService leaderBoardStreamService;
+    private final AdmissionService admissionService;
+    private final ScoreSnapshotService scoreSnapshotService;
+    private final TournamentArchiveService tournamentArchiveService;
 
 
     /**
      * Allows a user to enter an active tournament and returns the current group leaderboard.
      * This method checks the user's eligibility, assigns them to a tournament group, and retrieves the group's leaderboard.
+     * When async admission is enabled, the entry is queued instead and an {@link AdmissionTicket} is returned right away;
+     * the result can then be polled with {@link #getAdmissionTicket(String, long)}.
      *
      * @param userId the ID of the user who is attempting to enter the tournament.
      * @return a ResponseEntity containing a list of {@link GroupLeaderBoard} detailing the current group leaderboard and HTTP status code.
      *         Returns HttpStatus.OK if the user successfully enters the tournament.
+     *         Returns HttpStatus.ACCEPTED with a pending ticket if async admission is enabled.
      *         Returns an error status if the user cannot enter the tournament due to various eligibility checks.
      */
     @PostMapping("/enter/{userId}")
-    public ResponseEntity<List<GroupLeaderBoard>> enterTournament(@PathVariable Long userId) {
+    public ResponseEntity<?> enterTournament(@PathVariable Long userId) {
+        if (admissionService.isAsyncAdmissionEnabled()) {
+            AdmissionTicket ticket = admissionService.submit(userId);
+            return new ResponseEntity<>(ticket, HttpStatus.ACCEPTED);
+        }
         List<GroupLeaderBoard> leaderBoard =  tournamentService.enterTournament(userId);
         return new ResponseEntity<>(leaderBoard, HttpStatus.OK);
     }
 
+    /**
+     * Long-polls the state of an admission ticket issued by {@link #enterTournament(Long)}.
+     * The request is answered as soon as the ticket is processed, or when the wait time has elapsed.
+     * The servlet thread is released while waiting.
+     *
+     * @param ticketId the ID of the admission ticket.
+     * @param waitMs how long to wait for the ticket to be processed, in milliseconds.
+     * @return the ticket with HttpStatus.OK once processed, or with HttpStatus.ACCEPTED while it is still pending.
+     */
+    @GetMapping("/enter/tickets/{ticketId}")
+    public CompletableFuture<ResponseEntity<AdmissionTicket>> getAdmissionTicket(@PathVariable String ticketId,
+                                                                                @RequestParam(defaultValue = "0") long waitMs) {
+        return admissionService.awaitTicket(ticketId, waitMs)
+                .thenApply(ticket -> new ResponseEntity<>(ticket,
+                        ticket.getStatus() == AdmissionStatus.PENDING ? HttpStatus.ACCEPTED : HttpStatus.OK));
+    }
+
     /**
      * Retrieves the leaderboard for a specific user's tournament group.
      * This method finds the group to which the user belongs and returns the leaderboard of that group.
@@ -52,16 +98,112 @@ public class TournamentController {
         return new ResponseEntity<>(leaderBoard, HttpStatus.OK);
     }
 
+    /**
+     * Streams the leaderboard of a user's tournament group as server-sent events.
+     * The first "snapshot" event carries the whole leaderboard, and later "delta" events carry the entries whose score
+     * changed, coalesced over a short interval.
+     *
+     * @param userId The ID of the user whose group leaderboard is streamed.
+     * @return the emitter of the event stream.
+     */
+    @GetMapping(value = "/group-leaderboard/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGroupLeaderBoard(@PathVariable Long userId) {
+        return leaderBoardStreamService.subscribe(userId);
+    }
+
+    /**
+     * Retrieves a page of the leaderboard of a user's tournament group, e.g. its top N entries with an offset of 0.
+     *
+     * @param userId The ID of the user whose group leaderboard is requested.
+     * @param offset The 0-based rank of the first entry of the page.
+     * @param limit The maximum number of entries of the page, capped at 100.
+     * @return ResponseEntity containing the page of GroupLeaderBoard entries and HTTP status code.
+     */
+    @GetMapping("/group-leaderboard/{userId}/page")
+    public ResponseEntity<LeaderBoardPage<GroupLeaderBoard>> getGroupLeaderBoardPage(@PathVariable Long userId,
+                                                                                    @RequestParam(defaultValue = "0") int offset,
+                                                                                    @RequestParam(defaultValue = "10") int limit) {
+        LeaderBoardPage<GroupLeaderBoard> page = leaderBoardService.getGroupLeaderBoardPage(userId, offset, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the entries of a user's group leaderboard ranked right above and below the user, including the user.
+     *
+     * @param userId The ID of the user to center the window on.
+     * @param above The number of entries ranked above the user, capped at 50.
+     * @param below The number of entries ranked below the user, capped at 50.
+     * @return ResponseEntity containing the window of GroupLeaderBoard entries and HTTP status code.
+     */
+    @GetMapping("/group-leaderboard/{userId}/around")
+    public ResponseEntity<LeaderBoardPage<GroupLeaderBoard>> getGroupLeaderBoardAroundUser(@PathVariable Long userId,
+                                                                                          @RequestParam(defaultValue = "5") int above,
+                                                                                          @RequestParam(defaultValue = "5") int below) {
+        LeaderBoardPage<GroupLeaderBoard> page = leaderBoardService.getGroupLeaderBoardAroundUser(userId, above, below);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     /**
      * Retrieves the leaderboard for all countries in the current tournament.
      * This method returns the country scores for the ongoing tournament, showing each country's cumulative score.
+     * The body is the pre-serialized snapshot last broadcast to this node. Its age is exposed in the Age header and
+     * its generation time and refresh interval in the X-Leaderboard-Generated-At and X-Leaderboard-Refresh-Interval-Ms
+     * headers.
      *
-     * @return ResponseEntity containing a list of CountryLeaderBoard entries and HTTP status code.
+     * @return ResponseEntity containing a list of CountryLeaderBoard entries as JSON and HTTP status code.
      */
     @GetMapping("/country-leaderboard")
-    public ResponseEntity<List<CountryLeaderBoard>> getCountryLeaderBoard() {
-        List<CountryLeaderBoard> leaderBoard = leaderBoardService.getCountryLeaderBoardCurrentTournament();
-        return new ResponseEntity<>(leaderBoard, HttpStatus.OK);
+    public ResponseEntity<byte[]> getCountryLeaderBoard() {
+        CountryLeaderBoardSnapshot snapshot = leaderBoardService.getCountryLeaderBoardSnapshot();
+        long ageMs = Math.max(0, Duration.between(snapshot.getGeneratedAt(), Instant.now()).toMillis());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AGE, String.valueOf(ageMs / 1000))
+                .header("X-Leaderboard-Generated-At", snapshot.getGeneratedAt().toString())
+                .header("X-Leaderboard-Refresh-Interval-Ms", String.valueOf(snapshot.getRefreshIntervalMs()))
+                .body(snapshot.getBody());
+    }
+
+    /**
+     * Retrieves a page of the country leaderboard of the current tournament.
+     *
+     * @param offset The 0-based rank of the first entry of the page.
+     * @param limit The maximum number of entries of the page, capped at 100.
+     * @return ResponseEntity containing the page of CountryLeaderBoard entries and HTTP status code.
+     */
+    @GetMapping("/country-leaderboard/page")
+    public ResponseEntity<LeaderBoardPage<CountryLeaderBoard>> getCountryLeaderBoardPage(@RequestParam(defaultValue = "0") int offset,
+                                                                                        @RequestParam(defaultValue = "10") int limit) {
+        LeaderBoardPage<CountryLeaderBoard> page = leaderBoardService.getCountryLeaderBoardPage(offset, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves a page of the tournament-wide player leaderboard of the current tournament, e.g. its top K players.
+     *
+     * @param offset The 0-based rank of the first entry of the page.
+     * @param limit The maximum number of entries of the page, capped at 100.
+     * @return ResponseEntity containing the page of player entries and HTTP status code.
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderBoardPage<GroupLeaderBoard>> getTournamentLeaderBoardPage(@RequestParam(defaultValue = "0") int offset,
+                                                                                         @RequestParam(defaultValue = "10") int limit) {
+        LeaderBoardPage<GroupLeaderBoard> page = leaderBoardService.getTournamentLeaderBoardPage(offset, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the rank of a user among all players of the current tournament and the top percentage it falls in.
+     *
+     * @param userId The ID of the user whose percentile is requested.
+     * @param approximate Whether an estimate from the periodically sampled score distribution is acceptable.
+     * @return ResponseEntity containing the user's tournament percentile and HTTP status code.
+     */
+    @GetMapping("/leaderboard/{userId}/percentile")
+    public ResponseEntity<TournamentPercentile> getTournamentPercentile(@PathVariable Long userId,
+                                                                        @RequestParam(defaultValue = "false") boolean approximate) {
+        TournamentPercentile percentile = leaderBoardService.getTournamentPercentile(userId, approximate);
+        return new ResponseEntity<>(percentile, HttpStatus.OK);
     }
 
     /**
@@ -78,6 +220,60 @@ public class TournamentController {
         return new ResponseEntity<>(rank, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves the group ranks of several users at once, e.g. of a whole game lobby.
+     * Users who have not entered the tournament are left out of the response.
+     *
+     * @param tournamentId The ID of the tournament, or the active tournament if omitted.
+     * @param userIds The IDs of the users whose ranks are requested, at most 500.
+     * @return ResponseEntity containing the group, rank, score and group size of every ranked user and HTTP status code.
+     */
+    @PostMapping("/ranks")
+    public ResponseEntity<List<UserGroupRank>> getUserTournamentGroupRanks(@RequestParam(required = false) Long tournamentId,
+                                                                           @RequestBody List<Long> userIds) {
+        List<UserGroupRank> ranks = leaderBoardService.getUserTournamentGroupRanks(tournamentId, userIds);
+        return new ResponseEntity<>(ranks, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the final leaderboard of a group of a finished tournament from the tournament archive.
+     *
+     * @param tournamentId The ID of the finished tournament.
+     * @param groupId The ID of the group.
+     * @return ResponseEntity containing the final group leaderboard and HTTP status code.
+     */
+    @GetMapping("/history/{tournamentId}/group-leaderboard/{groupId}")
+    public ResponseEntity<List<GroupLeaderBoard>> getArchivedGroupLeaderBoard(@PathVariable Long tournamentId, @PathVariable Long groupId) {
+        List<GroupLeaderBoard> leaderBoard = tournamentArchiveService.getArchivedGroupLeaderBoard(tournamentId, groupId);
+        return new ResponseEntity<>(leaderBoard, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the final country leaderboard of a finished tournament from the tournament archive.
+     *
+     * @param tournamentId The ID of the finished tournament.
+     * @return ResponseEntity containing the final country leaderboard and HTTP status code.
+     */
+    @GetMapping("/history/{tournamentId}/country-leaderboard")
+    public ResponseEntity<List<CountryLeaderBoard>> getArchivedCountryLeaderBoard(@PathVariable Long tournamentId) {
+        List<CountryLeaderBoard> leaderBoard = tournamentArchiveService.getArchivedCountryLeaderBoard(tournamentId);
+        return new ResponseEntity<>(leaderBoard, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the final standings of a user in the most recent finished tournaments.
+     *
+     * @param userId The ID of the user.
+     * @param limit The number of most recent tournaments to look at, capped at 100.
+     * @return ResponseEntity containing the user's group, rank and score per tournament and HTTP status code.
+     */
+    @GetMapping("/history/users/{userId}")
+    public ResponseEntity<List<TournamentHistoryEntry>> getUserTournamentHistory(@PathVariable Long userId,
+                                                                                 @RequestParam(defaultValue = "30") int limit) {
+        List<TournamentHistoryEntry> history = tournamentArchiveService.getUserHistory(userId, limit);
+        return new ResponseEntity<>(history, HttpStatus.OK);
+    }
+
     /**
      * Claims all unclaimed tournament rewards for a specific user.
      * This endpoint triggers the reward claiming process which calculates the total unclaimed coins won by the user
@@ -98,16 +294,19 @@ public class TournamentController {
     // JUST FOR TESTING
     @PostMapping("/test/create")
     public HttpStatus createTournament() {
-        Long tournamentId  = tournamentService.createTournament();
-        redisService.createTournament(tournamentId);
-        redisService.createCountryLeaderBoard(tournamentId);
+        Tournament tournament = tournamentService.createTournament();
+        redisService.createTournament(tournament.getTournamentId(), tournament.getStartTime(), tournament.getEndTime());
+        redisService.createCountryLeaderBoard(tournament.getTournamentId());
         return HttpStatus.OK;
     }
 
     @PostMapping("/test/close")
     public HttpStatus closeTournament() {
+        Long tournamentId = redisService.getActiveTournamentId();
         tournamentService.specifyRewardWinners();
         tournamentService.closeTournament();
+        scoreSnapshotService.snapshotTournament(tournamentId);
+        tournamentArchiveService.archiveTournament(tournamentId);
         redisService.closeTournament();
         return HttpStatus.OK;
     }
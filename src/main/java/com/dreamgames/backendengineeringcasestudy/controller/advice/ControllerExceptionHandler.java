@@ -115,4 +115,60 @@ public class ControllerExceptionHandler {
         ExceptionModel exceptionDTO = ExceptionModel.convertExceptionToExceptionDTO(exceptionStatus, unClaimedRewardFoundException.getMessage());
         return new ResponseEntity<>(exceptionDTO, exceptionStatus);
     }
+
+    /**
+     * Handles exceptions when the tournament admission queue is full.
+     * Returns a response with HTTP status SERVICE_UNAVAILABLE so that clients back off and retry.
+     *
+     * @param admissionQueueFullException the exception thrown when no more entries can be queued.
+     * @return a {@link ResponseEntity} containing the exception details and HTTP status SERVICE_UNAVAILABLE
+     */
+    @ExceptionHandler(value = AdmissionQueueFullException.class)
+    public ResponseEntity<ExceptionModel> handleAdmissionQueueFullException(AdmissionQueueFullException admissionQueueFullException){
+        HttpStatus exceptionStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        ExceptionModel exceptionDTO = ExceptionModel.convertExceptionToExceptionDTO(exceptionStatus, admissionQueueFullException.getMessage());
+        return new ResponseEntity<>(exceptionDTO, exceptionStatus);
+    }
+
+    /**
+     * Handles exceptions when an admission ticket is unknown or has expired.
+     * Returns a response with HTTP status NOT_FOUND.
+     *
+     * @param admissionTicketNotFoundException the exception thrown when the ticket cannot be found.
+     * @return a {@link ResponseEntity} containing the exception details and HTTP status NOT_FOUND
+     */
+    @ExceptionHandler(value = AdmissionTicketNotFoundException.class)
+    public ResponseEntity<ExceptionModel> handleAdmissionTicketNotFoundException(AdmissionTicketNotFoundException admissionTicketNotFoundException){
+        HttpStatus exceptionStatus = HttpStatus.NOT_FOUND;
+        ExceptionModel exceptionDTO = ExceptionModel.convertExceptionToExceptionDTO(exceptionStatus, admissionTicketNotFoundException.getMessage());
+        return new ResponseEntity<>(exceptionDTO, exceptionStatus);
+    }
+
+    /**
+     * Handles exceptions when a batch rank lookup asks for too many users at once.
+     * Returns a response with HTTP status BAD_REQUEST.
+     *
+     * @param rankBatchTooLargeException the exception thrown when the batch exceeds its maximum size.
+     * @return a {@link ResponseEntity} containing the exception details and HTTP status BAD_REQUEST
+     */
+    @ExceptionHandler(value = RankBatchTooLargeException.class)
+    public ResponseEntity<ExceptionModel> handleRankBatchTooLargeException(RankBatchTooLargeException rankBatchTooLargeException){
+        HttpStatus exceptionStatus = HttpStatus.BAD_REQUEST;
+        ExceptionModel exceptionDTO = ExceptionModel.convertExceptionToExceptionDTO(exceptionStatus, rankBatchTooLargeException.getMessage());
+        return new ResponseEntity<>(exceptionDTO, exceptionStatus);
+    }
+
+    /**
+     * Handles exceptions when a tournament has not been archived.
+     * Returns a response with HTTP status NOT_FOUND.
+     *
+     * @param tournamentArchiveNotFoundException the exception thrown when no archive of the tournament exists.
+     * @return a {@link ResponseEntity} containing the exception details and HTTP status NOT_FOUND
+     */
+    @ExceptionHandler(value = TournamentArchiveNotFoundException.class)
+    public ResponseEntity<ExceptionModel> handleTournamentArchiveNotFoundException(TournamentArchiveNotFoundException tournamentArchiveNotFoundException){
+        HttpStatus exceptionStatus = HttpStatus.NOT_FOUND;
+        ExceptionModel exceptionDTO = ExceptionModel.convertExceptionToExceptionDTO(exceptionStatus, tournamentArchiveNotFoundException.getMessage());
+        return new ResponseEntity<>(exceptionDTO, exceptionStatus);
+    }
 }
@@ -0,0 +1,42 @@
+package com.dreamgames.backendengineeringcasestudy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Builder
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Data
+@Table(name = "tournament_archives")
+@Getter
+@Setter
+public class TournamentArchive implements Serializable {
+
+    @Id
+    private Long tournamentId;
+
+    @Column(nullable = false)
+    private Integer formatVersion;
+
+    @Column(nullable = false)
+    private Integer groupCount;
+
+    @Column(nullable = false)
+    private Integer playerCount;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] data;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,46 @@
+package com.dreamgames.backendengineeringcasestudy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one group-ID range of a tournament close. The ranges of a tournament are planned once and a range is
+ * marked completed in the same transaction that writes its rewards, so a rerun of the close skips finished ranges.
+ */
+@Builder
+@Entity
+@Table(name = "tournament_close_partitions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"tournament_id", "partition_index"}))
+@Getter
+@Setter
+@RequiredArgsConstructor
+@AllArgsConstructor
+public class TournamentClosePartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long partitionId;
+
+    @Column(name = "tournament_id", nullable = false)
+    private Long tournamentId;
+
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+
+    @Column(nullable = false)
+    private Long firstGroupId;
+
+    @Column(nullable = false)
+    private Long lastGroupId;
+
+    @Column(nullable = false)
+    private Boolean completed;
+
+    @Column
+    private Integer rewardCount;
+
+    @Column
+    private LocalDateTime completedAt;
+}
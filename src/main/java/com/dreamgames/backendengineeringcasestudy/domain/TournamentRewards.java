@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Data
-@Table(name = "tournament_rewards")
+@Table(name = "tournament_rewards", indexes = @Index(name = "idx_tournament_rewards_claimed", columnList = "claimed, reward_id"))
 @Getter
 @Setter
 public class TournamentRewards {
@@ -20,11 +20,11 @@ public class TournamentRewards {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long rewardId;
 
-    @ManyToOne(targetEntity = User.class, fetch = FetchType.EAGER)
+    @ManyToOne(targetEntity = User.class, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne(targetEntity = Tournament.class, fetch = FetchType.EAGER)
+    @ManyToOne(targetEntity = Tournament.class, fetch = FetchType.LAZY)
     @JoinColumn(name = "tournament_id")
     private Tournament tournament;
 
@@ -0,0 +1,8 @@
+package com.dreamgames.backendengineeringcasestudy.enums;
+
+public enum AdmissionStatus {
+    PENDING,
+    ADMITTED,
+    REJECTED,
+    FAILED
+}
@@ -0,0 +1,74 @@
+package com.dreamgames.backendengineeringcasestudy.enums;
+
+/**
+ * Families of Redis keys that belong to a single tournament, either directly through the tournament ID in the key or
+ * through the ID of one of the tournament's groups. Every such key expires a grace period after its tournament ends.
+ */
+public enum RedisKeyFamily {
+    GROUP_LEADERBOARD("groupLeaderBoard:", Scope.GROUP),
+    GROUP_LEADERBOARD_VERSION("groupLeaderBoardVersion:", Scope.GROUP),
+    GROUP_COUNTRY_MAPPING("groupCountryMapping:", Scope.GROUP),
+    COUNTRY_LEADERBOARD("countryLeaderBoard:", Scope.TOURNAMENT),
+    TOURNAMENT_LEADERBOARD("tournamentLeaderBoard:", Scope.TOURNAMENT),
+    TOURNAMENT_MEMBERSHIP("tournamentMembership:", Scope.TOURNAMENT),
+    DIRTY_SCORE_GROUPS("dirtyScoreGroups:", Scope.TOURNAMENT),
+    OPEN_GROUP_SLOTS("openGroupSlots:", Scope.TOURNAMENT);
+
+    /**
+     * What the ID following the prefix of a key refers to.
+     */
+    public enum Scope {
+        TOURNAMENT,
+        GROUP
+    }
+
+    private final String prefix;
+    private final Scope scope;
+
+    RedisKeyFamily(String prefix, Scope scope) {
+        this.prefix = prefix;
+        this.scope = scope;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public String getPattern() {
+        return prefix + "*";
+    }
+
+    /**
+     * Finds the family of a key.
+     *
+     * @param key the Redis key.
+     * @return the family whose prefix the key starts with, or null if the key is not tournament-scoped.
+     */
+    public static RedisKeyFamily of(String key) {
+        for (RedisKeyFamily family : values()) {
+            if (key.startsWith(family.prefix)) {
+                return family;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the tournament or group ID of a key of this family.
+     *
+     * @param key the Redis key, e.g. "openGroupSlots:12:TURKEY".
+     * @return the ID following the prefix, or null if the key does not carry a numeric ID.
+     */
+    public Long ownerId(String key) {
+        int end = key.indexOf(':', prefix.length());
+        try {
+            return Long.parseLong(key.substring(prefix.length(), end < 0 ? key.length() : end));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
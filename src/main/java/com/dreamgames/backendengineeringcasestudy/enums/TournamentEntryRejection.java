@@ -0,0 +1,27 @@
+package com.dreamgames.backendengineeringcasestudy.enums;
+
+import com.dreamgames.backendengineeringcasestudy.exception.UserCanNotEnterTournamentException;
+import com.dreamgames.backendengineeringcasestudy.exception.UserEnteredTournamentBeforeException;
+import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
+
+/**
+ * Reasons why a user may not enter the active tournament.
+ * Each reason maps to the exception that {@code ControllerExceptionHandler} turns into the matching HTTP response.
+ */
+public enum TournamentEntryRejection {
+    USER_NOT_FOUND,
+    TOURNAMENT_NOT_FOUND,
+    REQUIREMENTS_NOT_MET,
+    ALREADY_ENTERED,
+    UNCLAIMED_REWARDS;
+
+    public RuntimeException toException(Long userId, Long tournamentId) {
+        return switch (this) {
+            case USER_NOT_FOUND -> new UserNotFoundException("No user found with id: " + userId);
+            case TOURNAMENT_NOT_FOUND -> new UserCanNotEnterTournamentException("Active tournament not found for id: " + tournamentId);
+            case REQUIREMENTS_NOT_MET -> new UserCanNotEnterTournamentException("User does not meet the requirements or does not exist.");
+            case ALREADY_ENTERED -> new UserEnteredTournamentBeforeException("User is already registered in the current active tournament.");
+            case UNCLAIMED_REWARDS -> new UserCanNotEnterTournamentException("User has unclaimed rewards and cannot enter a new tournament.");
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.dreamgames.backendengineeringcasestudy.exception;
+
+public class AdmissionQueueFullException extends RuntimeException {
+    public AdmissionQueueFullException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.dreamgames.backendengineeringcasestudy.exception;
+
+public class AdmissionTicketNotFoundException extends RuntimeException {
+    public AdmissionTicketNotFoundException(String msg) {
+        super(msg);
+    }
+}
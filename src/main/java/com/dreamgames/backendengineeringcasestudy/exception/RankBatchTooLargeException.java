@@ -0,0 +1,7 @@
+package com.dreamgames.backendengineeringcasestudy.exception;
+
+public class RankBatchTooLargeException extends RuntimeException {
+    public RankBatchTooLargeException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.dreamgames.backendengineeringcasestudy.exception;
+
+public class TournamentArchiveNotFoundException extends RuntimeException {
+    public TournamentArchiveNotFoundException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,18 @@
+package com.dreamgames.backendengineeringcasestudy.model.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * A country leaderboard as broadcast to every node, with its body already serialized to JSON.
+ */
+@Getter
+@AllArgsConstructor
+public class CountryLeaderBoardSnapshot {
+    private final Long tournamentId;
+    private final Instant generatedAt;
+    private final long refreshIntervalMs;
+    private final byte[] body;
+}
@@ -0,0 +1,22 @@
+package com.dreamgames.backendengineeringcasestudy.model.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A window of a leaderboard. The entries are ordered from the highest to the lowest score, and the first one holds
+ * the given 1-based rank.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+public class LeaderBoardPage<T> {
+    private Integer firstRank;
+    private Long totalEntries;
+    private List<T> entries;
+}
@@ -0,0 +1,50 @@
+package com.dreamgames.backendengineeringcasestudy.model.leaderboard;
+
+/**
+ * Encodes player scores of group and tournament leaderboards together with a tie-breaker into a single sorted set
+ * score.
+ * <p>
+ * The score takes the high bits and the inverted time since the tournament start of the last increment takes the low
+ * {@value #TIME_BITS} bits, in milliseconds. Among equal scores the player who reached the score first therefore ranks
+ * higher, and rank lookups and winner selection remain a single sorted set read. The composite stays an exact integer
+ * of a double up to a score of 2^26.
+ */
+public final class LeaderBoardScoreCodec {
+
+    public static final int TIME_BITS = 27;
+    public static final long SCALE = 1L << TIME_BITS;
+
+    private LeaderBoardScoreCodec() {
+    }
+
+    /**
+     * Encodes a score reached at the given time.
+     *
+     * @param score the score of the player.
+     * @param elapsedMs milliseconds since the start of the tournament, clamped to the range of the tie-breaker.
+     * @return the composite sorted set score.
+     */
+    public static double encode(long score, long elapsedMs) {
+        return (double) (score * SCALE + tieBreaker(elapsedMs));
+    }
+
+    /**
+     * Computes the low bits of a composite score: later times yield smaller values.
+     *
+     * @param elapsedMs milliseconds since the start of the tournament.
+     * @return the tie-breaker in the range [0, {@link #SCALE}).
+     */
+    public static long tieBreaker(long elapsedMs) {
+        return SCALE - 1 - Math.max(0, Math.min(elapsedMs, SCALE - 1));
+    }
+
+    /**
+     * Decodes the player score of a composite sorted set score. Plain scores below {@link #SCALE} decode to 0.
+     *
+     * @param compositeScore the composite sorted set score, or null.
+     * @return the player score.
+     */
+    public static int decode(Double compositeScore) {
+        return compositeScore == null ? 0 : (int) Math.floor(compositeScore / SCALE);
+    }
+}
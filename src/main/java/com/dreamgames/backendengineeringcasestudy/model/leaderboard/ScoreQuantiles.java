@@ -0,0 +1,45 @@
+package com.dreamgames.backendengineeringcasestudy.model.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Scores of a leaderboard sampled at evenly spaced ranks, from the highest score to the lowest.
+ * The sample answers rank estimates in O(log buckets) with an error of at most one bucket.
+ */
+@Getter
+@AllArgsConstructor
+public class ScoreQuantiles {
+    public static final ScoreQuantiles EMPTY = new ScoreQuantiles(0L, new double[0]);
+
+    private final Long totalEntries;
+    private final double[] scores;
+
+    /**
+     * Estimates the 1-based rank a score would hold in the sampled leaderboard.
+     *
+     * @param score the score to rank.
+     * @return the estimated rank, or null if the leaderboard was empty.
+     */
+    public Long estimateRank(double score) {
+        if (totalEntries == 0) {
+            return null;
+        }
+        // Find the first sample that does not beat the score; the samples are sorted in descending order
+        int low = 0;
+        int high = scores.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (scores[middle] > score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == scores.length) {
+            return totalEntries;
+        }
+        int buckets = scores.length - 1;
+        return buckets == 0 ? 1L : (long) low * (totalEntries - 1) / buckets + 1;
+    }
+}
@@ -0,0 +1,18 @@
+package com.dreamgames.backendengineeringcasestudy.model.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+public class TournamentHistoryEntry {
+    private Long tournamentId;
+    private Long groupId;
+    private Integer rank;
+    private Integer score;
+    private Integer groupSize;
+}
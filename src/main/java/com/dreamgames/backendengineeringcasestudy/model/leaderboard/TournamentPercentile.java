@@ -0,0 +1,19 @@
+package com.dreamgames.backendengineeringcasestudy.model.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+public class TournamentPercentile {
+    private Long userId;
+    private Integer tournamentScore;
+    private Long rank;
+    private Long totalPlayers;
+    private Double topPercent;
+    private Boolean approximate;
+}
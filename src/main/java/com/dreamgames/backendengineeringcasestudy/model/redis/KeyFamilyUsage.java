@@ -0,0 +1,19 @@
+package com.dreamgames.backendengineeringcasestudy.model.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Number of keys of a key family and their memory usage, estimated from a sample of the family's keys.
+ */
+@Builder
+@Getter
+@AllArgsConstructor
+public class KeyFamilyUsage {
+    private final long keyCount;
+    private final int sampledKeys;
+    private final long sampledMemoryBytes;
+    private final long estimatedMemoryBytes;
+    private final int sampledKeysWithoutExpiry;
+}
@@ -0,0 +1,19 @@
+package com.dreamgames.backendengineeringcasestudy.model.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Redis memory usage broken down by key family.
+ */
+@Builder
+@Getter
+@AllArgsConstructor
+public class KeyspaceReport {
+    private final Long usedMemoryBytes;
+    private final long scannedKeys;
+    private final Map<String, KeyFamilyUsage> families;
+}
@@ -0,0 +1,29 @@
+package com.dreamgames.backendengineeringcasestudy.model.tournament;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@AllArgsConstructor
+public class ActiveTournament {
+    public static final String ACTIVE = "Active";
+    public static final ActiveTournament NONE = new ActiveTournament(0L, null, null, null, null);
+
+    private final Long epoch;
+    private final Long tournamentId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final String status;
+
+    public boolean isActive() {
+        return ACTIVE.equals(status);
+    }
+
+    public Long getActiveTournamentId() {
+        return isActive() ? tournamentId : null;
+    }
+}
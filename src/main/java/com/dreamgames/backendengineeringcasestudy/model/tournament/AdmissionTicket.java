@@ -0,0 +1,23 @@
+package com.dreamgames.backendengineeringcasestudy.model.tournament;
+
+import com.dreamgames.backendengineeringcasestudy.enums.AdmissionStatus;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder(toBuilder = true)
+@Getter
+@AllArgsConstructor
+public class AdmissionTicket {
+    private String ticketId;
+    private Long userId;
+    private AdmissionStatus status;
+    private String message;
+    private List<GroupLeaderBoard> leaderBoard;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
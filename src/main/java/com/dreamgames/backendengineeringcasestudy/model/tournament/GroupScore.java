@@ -0,0 +1,16 @@
+package com.dreamgames.backendengineeringcasestudy.model.tournament;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+public class GroupScore {
+    private Long groupId;
+    private Long userId;
+    private Integer score;
+}
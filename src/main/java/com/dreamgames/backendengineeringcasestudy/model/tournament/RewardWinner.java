@@ -0,0 +1,15 @@
+package com.dreamgames.backendengineeringcasestudy.model.tournament;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+public class RewardWinner {
+    private Long userId;
+    private Integer coinsWon;
+}
@@ -0,0 +1,16 @@
+package com.dreamgames.backendengineeringcasestudy.model.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+public class UserProgressDelta {
+    private Long userId;
+    private Integer levelDelta;
+    private Integer coinsDelta;
+}
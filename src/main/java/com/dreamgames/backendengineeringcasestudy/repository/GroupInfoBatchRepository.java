@@ -0,0 +1,46 @@
+package com.dreamgames.backendengineeringcasestudy.repository;
+
+import com.dreamgames.backendengineeringcasestudy.domain.GroupInfo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC based bulk operations on the group_info table.
+ * <p>
+ * Hibernate cannot batch inserts of entities with IDENTITY keys, so bulk writes go through {@link JdbcTemplate}.
+ * Together with rewriteBatchedStatements on the MySQL connection, each batch is sent as multi-row statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GroupInfoBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given group memberships in JDBC batches.
+     *
+     * @param groupInfos the group memberships to insert, each referencing a persisted group and user.
+     */
+    public void insertAll(List<GroupInfo> groupInfos) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO group_info (group_id, user_id, score, has_group_began, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                groupInfos,
+                BATCH_SIZE,
+                (ps, groupInfo) -> {
+                    ps.setLong(1, groupInfo.getGroup().getGroupId());
+                    ps.setLong(2, groupInfo.getUser().getUserId());
+                    ps.setInt(3, groupInfo.getScore());
+                    ps.setBoolean(4, groupInfo.getHasGroupBegan());
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                });
+    }
+}
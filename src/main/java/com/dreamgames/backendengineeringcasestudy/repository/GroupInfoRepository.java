@@ -16,14 +16,22 @@ public interface GroupInfoRepository extends JpaRepository<GroupInfo, Long> {
     @Query("SELECT gi FROM GroupInfo gi JOIN gi.group g WHERE g.tournament.tournamentId = :tournamentId AND gi.user.userId = :userId")
     Optional<GroupInfo> findByTournamentIdAndUserId(@Param("tournamentId")Long tournamentId, @Param("userId")Long userId);
 
-    @Query("SELECT g FROM GroupInfo g WHERE g.user.userId = :userId")
-    Optional<GroupInfo> findByUserId(@Param("userId")Long userId);
-
     @Modifying
     @Transactional
     @Query("UPDATE GroupInfo gi SET gi.hasGroupBegan = true WHERE gi.group.groupId = :groupId")
     void updateHasGroupBegunForAllOccurrences(@Param("groupId") Long groupId);
 
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroupInfo gi WHERE gi.group.groupId = :groupId")
+    void deleteByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GroupInfo gi SET gi.score = gi.score + :score, gi.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE gi.group.groupId = :groupId AND gi.user.userId = :userId")
+    int incrementScore(@Param("groupId") Long groupId, @Param("userId") Long userId, @Param("score") int score);
+
     @Query("SELECT gi FROM GroupInfo gi WHERE gi.group.tournament.tournamentId = :tournamentId AND gi.hasGroupBegan = TRUE")
     List<GroupInfo> findByTournamentIdAndGroupBegun(@Param("tournamentId") Long tournamentId);
 }
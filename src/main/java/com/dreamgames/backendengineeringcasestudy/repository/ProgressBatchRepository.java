@@ -0,0 +1,94 @@
+package com.dreamgames.backendengineeringcasestudy.repository;
+
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupScore;
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC based bulk updates of user progress and group scores.
+ * <p>
+ * Each chunk of deltas is applied with one multi-row UPDATE that joins the target table against a derived table of
+ * deltas, so the number of statements depends on the number of chunks rather than on the number of changed rows.
+ * Deltas are added to the stored columns, which keeps concurrent writers on other nodes from overwriting each other.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProgressBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the given level and coin deltas to the users table.
+     *
+     * @param deltas the deltas to apply, at most one per user.
+     */
+    public void addUserProgress(Collection<UserProgressDelta> deltas) {
+        List<UserProgressDelta> rows = new ArrayList<>(deltas);
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<UserProgressDelta> chunk = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            chunk.forEach(delta -> {
+                args.add(delta.getUserId());
+                args.add(delta.getLevelDelta());
+                args.add(delta.getCoinsDelta());
+            });
+            jdbcTemplate.update("UPDATE users u JOIN (" + deltaTable(chunk.size(), "user_id", "level_delta", "coins_delta") + ") d "
+                    + "ON u.user_id = d.user_id "
+                    + "SET u.level = u.level + d.level_delta, u.coins = u.coins + d.coins_delta, u.updated_at = NOW()", args.toArray());
+        }
+    }
+
+    /**
+     * Adds the given score deltas to the group_info table.
+     *
+     * @param deltas the score deltas to apply, at most one per group member.
+     */
+    public void addGroupScores(Collection<GroupScore> deltas) {
+        updateGroupScores(deltas, "gi.score + d.score");
+    }
+
+    /**
+     * Overwrites the scores in the group_info table with the given values.
+     * Writing absolute values keeps the operation idempotent, so a snapshot can safely be repeated.
+     *
+     * @param scores the scores to store, at most one per group member.
+     */
+    public void setGroupScores(Collection<GroupScore> scores) {
+        updateGroupScores(scores, "d.score");
+    }
+
+    private void updateGroupScores(Collection<GroupScore> scores, String newScore) {
+        List<GroupScore> rows = new ArrayList<>(scores);
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<GroupScore> chunk = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            chunk.forEach(score -> {
+                args.add(score.getGroupId());
+                args.add(score.getUserId());
+                args.add(score.getScore());
+            });
+            jdbcTemplate.update("UPDATE group_info gi JOIN (" + deltaTable(chunk.size(), "group_id", "user_id", "score") + ") d "
+                    + "ON gi.group_id = d.group_id AND gi.user_id = d.user_id "
+                    + "SET gi.score = " + newScore + ", gi.updated_at = NOW()", args.toArray());
+        }
+    }
+
+    private static String deltaTable(int rowCount, String... columns) {
+        StringBuilder firstRow = new StringBuilder("SELECT ");
+        StringBuilder otherRow = new StringBuilder(" UNION ALL SELECT ");
+        for (int i = 0; i < columns.length; i++) {
+            String separator = i == 0 ? "" : ", ";
+            firstRow.append(separator).append("? AS ").append(columns[i]);
+            otherRow.append(separator).append("?");
+        }
+        return firstRow + String.valueOf(otherRow).repeat(rowCount - 1);
+    }
+}
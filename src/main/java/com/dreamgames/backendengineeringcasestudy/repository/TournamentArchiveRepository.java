@@ -0,0 +1,13 @@
+package com.dreamgames.backendengineeringcasestudy.repository;
+
+import com.dreamgames.backendengineeringcasestudy.domain.TournamentArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface TournamentArchiveRepository extends JpaRepository<TournamentArchive, Long> {
+    @Query("SELECT ta.tournamentId FROM TournamentArchive ta ORDER BY ta.tournamentId DESC")
+    List<Long> findLatestTournamentIds(Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.dreamgames.backendengineeringcasestudy.repository;
+
+import com.dreamgames.backendengineeringcasestudy.domain.TournamentClosePartition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TournamentClosePartitionRepository extends JpaRepository<TournamentClosePartition, Long> {
+
+    List<TournamentClosePartition> findByTournamentIdOrderByPartitionIndex(Long tournamentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM TournamentClosePartition p WHERE p.partitionId = :partitionId")
+    Optional<TournamentClosePartition> findByIdForUpdate(@Param("partitionId") Long partitionId);
+}
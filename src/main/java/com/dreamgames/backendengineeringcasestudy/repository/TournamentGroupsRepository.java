@@ -1,11 +1,17 @@
 package com.dreamgames.backendengineeringcasestudy.repository;
 
 import com.dreamgames.backendengineeringcasestudy.domain.TournamentGroups;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.GroupIdRange;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.GroupTournamentEnd;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -14,8 +20,32 @@ public interface TournamentGroupsRepository extends JpaRepository<TournamentGrou
     @Query("SELECT tg FROM TournamentGroups tg WHERE tg.tournament.tournamentId = :tournamentId")
     List<TournamentGroups> findByTournamentId(@Param("tournamentId") Long tournamentId);
 
+    @Query("SELECT tg.groupId FROM TournamentGroups tg WHERE tg.tournament.tournamentId = :tournamentId ORDER BY tg.groupId")
+    List<Long> findGroupIdsByTournamentId(@Param("tournamentId") Long tournamentId);
+
+    @Query("SELECT tg.groupId FROM TournamentGroups tg WHERE tg.tournament.tournamentId = :tournamentId AND tg.groupSize = :groupSize")
+    List<Long> findGroupIdsByTournamentIdAndGroupSize(@Param("tournamentId") Long tournamentId, @Param("groupSize") Integer groupSize);
+
+    @Query("SELECT tg.groupId FROM TournamentGroups tg WHERE tg.tournament.tournamentId = :tournamentId " +
+            "AND tg.groupSize = :groupSize AND tg.groupId > :afterGroupId AND tg.groupId <= :lastGroupId ORDER BY tg.groupId")
+    List<Long> findGroupIdsPage(@Param("tournamentId") Long tournamentId, @Param("groupSize") Integer groupSize,
+                                @Param("afterGroupId") Long afterGroupId, @Param("lastGroupId") Long lastGroupId,
+                                Pageable pageable);
+
+    @Query("SELECT MIN(tg.groupId) AS firstGroupId, MAX(tg.groupId) AS lastGroupId FROM TournamentGroups tg " +
+            "WHERE tg.tournament.tournamentId = :tournamentId AND tg.groupSize = :groupSize")
+    GroupIdRange findGroupIdRange(@Param("tournamentId") Long tournamentId, @Param("groupSize") Integer groupSize);
+
+    @Query("SELECT tg.groupId AS groupId, t.endTime AS endTime FROM TournamentGroups tg JOIN tg.tournament t WHERE tg.groupId IN :groupIds")
+    List<GroupTournamentEnd> findTournamentEndTimes(@Param("groupIds") Collection<Long> groupIds);
+
     @Query("SELECT tg.groupSize FROM TournamentGroups tg WHERE tg.groupId = :groupId")
     Integer findGroupSizeByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TournamentGroups tg SET tg.groupSize = :groupSize WHERE tg.groupId = :groupId AND tg.groupSize < :groupSize")
+    void updateGroupSize(@Param("groupId") Long groupId, @Param("groupSize") Integer groupSize);
 }
 
 
@@ -0,0 +1,111 @@
+package com.dreamgames.backendengineeringcasestudy.repository;
+
+import com.dreamgames.backendengineeringcasestudy.model.tournament.RewardWinner;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.UnclaimedReward;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC based bulk operations on the tournament_rewards table.
+ * <p>
+ * Rewards reference the tournament and the user by ID, so no entity has to be loaded to insert them. Unclaimed rewards
+ * are also credited in bulk here, see {@code RewardAutoCreditServiceImpl}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TournamentRewardsBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts unclaimed rewards of a tournament in JDBC batches.
+     *
+     * @param tournamentId the ID of the tournament the rewards were won in.
+     * @param winners the users to reward and their coins.
+     */
+    public void insertAll(Long tournamentId, List<RewardWinner> winners) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tournament_rewards (tournament_id, user_id, coins_won, claimed, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                winners,
+                BATCH_SIZE,
+                (ps, winner) -> {
+                    ps.setLong(1, tournamentId);
+                    ps.setLong(2, winner.getUserId());
+                    ps.setInt(3, winner.getCoinsWon());
+                    ps.setBoolean(4, false);
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                });
+    }
+
+    /**
+     * Locks a page of unclaimed rewards created before the given time, skipping rows locked by other transactions so
+     * that live claims and other nodes are never waited for. Must be called in a transaction.
+     *
+     * @param createdBefore only rewards created before this time are returned.
+     * @param afterRewardId the keyset cursor, only rewards with a greater ID are returned.
+     * @param limit the maximum number of rewards to lock.
+     * @return the locked rewards ordered by ID.
+     */
+    public List<UnclaimedReward> lockUnclaimedCreatedBefore(LocalDateTime createdBefore, Long afterRewardId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT reward_id, user_id, coins_won FROM tournament_rewards " +
+                        "WHERE claimed = FALSE AND reward_id > ? AND created_at < ? ORDER BY reward_id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new UnclaimedReward(rs.getLong(1), rs.getLong(2), rs.getInt(3)),
+                afterRewardId, Timestamp.valueOf(createdBefore), limit);
+    }
+
+    /**
+     * Marks the given rewards claimed, one statement per chunk of IDs.
+     *
+     * @param rewardIds the IDs of the rewards.
+     */
+    public void markClaimed(List<Long> rewardIds) {
+        for (int from = 0; from < rewardIds.size(); from += BATCH_SIZE) {
+            List<Long> chunk = rewardIds.subList(from, Math.min(from + BATCH_SIZE, rewardIds.size()));
+            jdbcTemplate.update("UPDATE tournament_rewards SET claimed = TRUE, updated_at = NOW() WHERE reward_id IN ("
+                    + placeholders(chunk.size()) + ")", chunk.toArray());
+        }
+    }
+
+    /**
+     * Returns which of the given users still have unclaimed rewards.
+     *
+     * @param userIds the IDs of the users, at most {@value #BATCH_SIZE}.
+     * @return the IDs of the users with at least one unclaimed reward.
+     */
+    public List<Long> findUserIdsWithUnclaimedRewards(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM tournament_rewards WHERE claimed = FALSE AND user_id IN ("
+                + placeholders(userIds.size()) + ")", Long.class, userIds.toArray());
+    }
+
+    /**
+     * Returns a page of the users who won a reward in a tournament and have not claimed it yet.
+     *
+     * @param tournamentId the ID of the tournament.
+     * @param afterUserId the keyset cursor, only users with a greater ID are returned.
+     * @param limit the maximum number of users to return.
+     * @return the IDs of the users, in ascending order.
+     */
+    public List<Long> findUnclaimedWinnerIds(Long tournamentId, Long afterUserId, int limit) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM tournament_rewards WHERE tournament_id = ? AND claimed = FALSE "
+                + "AND user_id > ? ORDER BY user_id LIMIT ?", Long.class, tournamentId, afterUserId, limit);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -1,25 +1,37 @@
 package com.dreamgames.backendengineeringcasestudy.repository;
 
 import com.dreamgames.backendengineeringcasestudy.domain.TournamentRewards;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TournamentRewardsRepository extends JpaRepository<TournamentRewards, Long> {
 
-    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM TournamentRewards r WHERE r.user.userId = :userId AND r.claimed = false")
-    boolean existsUnclaimedRewardsForUser(@Param("userId") Long userId);
-
-    @Query("SELECT SUM(r.coinsWon) FROM TournamentRewards r WHERE r.user.userId = :userId AND r.claimed = false")
-    int sumUnclaimedCoinsByUserId(@Param("userId") Long userId);
-
+    /**
+     * Credits the sum of a user's unclaimed rewards and marks them claimed in one multi-table UPDATE.
+     * The derived table is grouped, so MySQL materializes it before the rewards are updated, and every joined row is
+     * updated at most once, so the user's coins are incremented once.
+     *
+     * @return the affected-row count reported by MySQL, which covers the user's row and the claimed rewards and depends
+     *         on the connection's found-rows setting, or 0 if nothing was claimed.
+     */
     @Modifying
-    @Query("UPDATE TournamentRewards r SET r.claimed = true WHERE r.user.userId = :userId")
-    void markRewardsAsClaimedForUser(@Param("userId") Long userId);
+    @Transactional
+    @Query(value = "UPDATE users u " +
+            "JOIN (SELECT user_id, SUM(coins_won) AS coins FROM tournament_rewards WHERE user_id = :userId AND claimed = FALSE GROUP BY user_id) total " +
+            "ON total.user_id = u.user_id " +
+            "JOIN tournament_rewards r ON r.user_id = u.user_id AND r.claimed = FALSE " +
+            "SET u.coins = u.coins + total.coins, u.updated_at = NOW(), r.claimed = TRUE, r.updated_at = NOW() " +
+            "WHERE u.user_id = :userId", nativeQuery = true)
+    int claimAllForUser(@Param("userId") Long userId);
 
-    @Query("SELECT COUNT(r) > 0 FROM TournamentRewards r WHERE r.user.userId = :userId AND r.claimed = false")
-    boolean existsByUserIdAndClaimedFalse(@Param("userId") Long userId);
+    @Query("SELECT DISTINCT r.user.userId FROM TournamentRewards r WHERE r.claimed = false AND r.user.userId > :afterUserId ORDER BY r.user.userId")
+    List<Long> findUserIdsWithUnclaimedRewards(@Param("afterUserId") Long afterUserId, Pageable pageable);
 }
@@ -1,11 +1,18 @@
 package com.dreamgames.backendengineeringcasestudy.repository;
 
 import com.dreamgames.backendengineeringcasestudy.domain.User;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.TournamentEligibility;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.UserDisplayName;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.UserProgress;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,5 +25,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.userId = :id AND u.level >= :level AND u.coins >= :coins")
     Optional<User> findByUserIdAndLevelGreaterThanEqualAndCoinsGreaterThanEqual(@Param("id") Long id, @Param("level") int level, @Param("coins") int coins);
-}
 
+    @Query(value = "SELECT u.user_id AS userId, u.country AS country, " +
+            "EXISTS (SELECT 1 FROM tournaments t WHERE t.tournament_id = :tournamentId) AS tournamentFound, " +
+            "(u.level >= :level AND u.coins >= :coins) AS meetsRequirements, " +
+            "EXISTS (SELECT 1 FROM group_info gi JOIN tournament_groups tg ON tg.group_id = gi.group_id " +
+            "WHERE tg.tournament_id = :tournamentId AND gi.user_id = u.user_id) AS enteredTournament " +
+            "FROM users u WHERE u.user_id = :id", nativeQuery = true)
+    Optional<TournamentEligibility> findTournamentEligibility(@Param("id") Long id, @Param("tournamentId") Long tournamentId,
+                                                              @Param("level") int level, @Param("coins") int coins);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.level = u.level + 1, u.coins = u.coins + :coins, u.updatedAt = CURRENT_TIMESTAMP WHERE u.userId = :id")
+    int incrementLevelAndCoins(@Param("id") Long id, @Param("coins") int coins);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.coins = u.coins + :coins, u.updatedAt = CURRENT_TIMESTAMP WHERE u.userId = :id")
+    int addCoins(@Param("id") Long id, @Param("coins") int coins);
+
+    @Query("SELECT u.userId AS userId, u.level AS level, u.coins AS coins, u.country AS country FROM User u WHERE u.userId = :id")
+    Optional<UserProgress> findProgressByUserId(@Param("id") Long id);
+
+    @Query("SELECT u.userId AS userId, u.username AS username, u.country AS country FROM User u WHERE u.userId IN :ids")
+    List<UserDisplayName> findDisplayNamesByUserIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,9 @@
+package com.dreamgames.backendengineeringcasestudy.repository.projection;
+
+/**
+ * Lowest and highest group ID of a set of groups, both null if the set is empty.
+ */
+public interface GroupIdRange {
+    Long getFirstGroupId();
+    Long getLastGroupId();
+}
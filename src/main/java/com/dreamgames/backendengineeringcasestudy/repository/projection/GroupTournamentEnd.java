@@ -0,0 +1,11 @@
+package com.dreamgames.backendengineeringcasestudy.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * End time of the tournament a group belongs to.
+ */
+public interface GroupTournamentEnd {
+    Long getGroupId();
+    LocalDateTime getEndTime();
+}
@@ -0,0 +1,34 @@
+package com.dreamgames.backendengineeringcasestudy.repository.projection;
+
+import com.dreamgames.backendengineeringcasestudy.enums.TournamentEntryRejection;
+
+/**
+ * Everything needed to decide whether a user may enter a tournament, fetched in a single query.
+ * MySQL returns the boolean expressions as 0/1, hence the numeric flags.
+ */
+public interface TournamentEligibility {
+    Long getUserId();
+    String getCountry();
+    Long getTournamentFound();
+    Long getMeetsRequirements();
+    Long getEnteredTournament();
+
+    /**
+     * Evaluates the flags in the same order the entry checks have always been applied. Unclaimed rewards are
+     * checked afterwards against the Redis bitmap, see {@code RedisService#hasUnclaimedRewards}.
+     *
+     * @return the first reason the user may not enter the tournament, or null if the user is eligible.
+     */
+    default TournamentEntryRejection findRejection() {
+        if (getTournamentFound() == 0) {
+            return TournamentEntryRejection.TOURNAMENT_NOT_FOUND;
+        }
+        if (getMeetsRequirements() == 0) {
+            return TournamentEntryRejection.REQUIREMENTS_NOT_MET;
+        }
+        if (getEnteredTournament() == 1) {
+            return TournamentEntryRejection.ALREADY_ENTERED;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.dreamgames.backendengineeringcasestudy.repository.projection;
+
+/**
+ * Columns of a user shown on leaderboards, read without loading the whole entity.
+ */
+public interface UserDisplayName {
+    Long getUserId();
+    String getUsername();
+    String getCountry();
+}
@@ -0,0 +1,11 @@
+package com.dreamgames.backendengineeringcasestudy.repository.projection;
+
+/**
+ * Progress columns of a user, read without loading the whole entity.
+ */
+public interface UserProgress {
+    Long getUserId();
+    Integer getLevel();
+    Integer getCoins();
+    String getCountry();
+}
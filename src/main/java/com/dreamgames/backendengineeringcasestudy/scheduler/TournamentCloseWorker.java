@@ -0,0 +1,31 @@
+package com.dreamgames.backendengineeringcasestudy.scheduler;
+
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets every node help with the reward partitions of a closing tournament, whichever node runs the close itself.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TournamentCloseWorker {
+    private final TournamentService tournamentService;
+    private final RedisService redisService;
+
+    @Scheduled(fixedDelayString = "${tournament.close.worker-interval-ms:1000}")
+    public void joinTournamentClose() {
+        try {
+            Long tournamentId = redisService.getClosingTournamentId();
+            if (tournamentId != null) {
+                tournamentService.processRewardPartitions(tournamentId);
+            }
+        } catch (RuntimeException exception) {
+            log.error("[TOURNAMENT CLOSE WORKER] Could not work on the closing tournament", exception);
+        }
+    }
+}
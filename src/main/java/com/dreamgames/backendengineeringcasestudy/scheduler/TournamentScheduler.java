@@ -1,13 +1,22 @@
 package com.dreamgames.backendengineeringcasestudy.scheduler;
 
+import com.dreamgames.backendengineeringcasestudy.domain.Tournament;
+import com.dreamgames.backendengineeringcasestudy.service.LeaseService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.ScoreSnapshotService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentArchiveService;
 import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 
 @Component
 @RequiredArgsConstructor
@@ -15,24 +24,79 @@ import org.springframework.stereotype.Component;
 public class TournamentScheduler {
     private final TournamentService tournamentService;
     private final RedisService redisService;
+    private final ScoreSnapshotService scoreSnapshotService;
+    private final TournamentArchiveService tournamentArchiveService;
+    private final LeaseService leaseService;
+
+    @Value("${tournament.scheduler.run-lease-ms:3600000}")
+    private long runLeaseMs;
 
+    /**
+     * Creates and activates the daily tournament. The cron fires on every node, but only the node that acquires the
+     * day's lease runs the job; the lease is never released, so a node firing late cannot create a second tournament.
+     */
     @Scheduled(cron = "0 0 3 * * ?") // 00.00 UTC
     @Transactional
     public void createTournament() {
+        if (!leaseService.tryAcquire("createTournament:" + LocalDate.now(), Duration.ofMillis(runLeaseMs))) {
+            log.info("CREATE TOURNAMENT SCHEDULER SKIPPED, another node runs it");
+            return;
+        }
         log.info("CREATE TOURNAMENT SCHEDULER START");
-        Long tournamentId  = tournamentService.createTournament();
-        redisService.createTournament(tournamentId);
-        redisService.createCountryLeaderBoard(tournamentId);
+        Tournament tournament = tournamentService.createTournament();
+        redisService.createTournament(tournament.getTournamentId(), tournament.getStartTime(), tournament.getEndTime());
+        redisService.createCountryLeaderBoard(tournament.getTournamentId());
         log.info("CREATE TOURNAMENT SCHEDULER END");
     }
 
+    /**
+     * Closes the active tournament on the node that acquires the day's lease. Each step commits on its own; the reward
+     * step is shared with the other nodes through {@link TournamentCloseWorker} and records its progress. If a step
+     * fails, the lease is released so that {@link #retryCloseTournament()} can rerun the close, which continues where
+     * it stopped. The close holds its scheduler thread until the rewards are done, as {@link TournamentCloseWorker} does
+     * on every node, so {@code spring.task.scheduling.pool.size} gives each scheduled job of the application a thread
+     * of its own and the other jobs keep running during the close.
+     */
     @Scheduled(cron = "0 0 23 * * ?") // 20.00 UTC
-    @Transactional
     public void closeTournament() {
+        runClose("closeTournament:" + LocalDate.now());
+    }
+
+    /**
+     * Reruns the close of a tournament that is still active in Redis after its end time, i.e. whose close failed or
+     * never ran. The tournament stays active in Redis until the close has passed every other step, the archive
+     * included, so the rerun resumes the unfinished reward partitions and repeats the idempotent steps after them.
+     */
+    @Scheduled(fixedDelayString = "${tournament.close.retry-interval-ms:300000}",
+            initialDelayString = "${tournament.close.retry-interval-ms:300000}")
+    public void retryCloseTournament() {
+        LocalDateTime endTime = redisService.getActiveTournamentEndTime();
+        if (endTime == null || endTime.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        log.warn("CLOSE TOURNAMENT SCHEDULER RETRY, the active tournament ended at {}", endTime);
+        runClose("closeTournament:" + endTime.toLocalDate());
+    }
+
+    private void runClose(String leaseName) {
+        if (!leaseService.tryAcquire(leaseName, Duration.ofMillis(runLeaseMs))) {
+            log.info("CLOSE TOURNAMENT SCHEDULER SKIPPED, another node runs it");
+            return;
+        }
         log.info("CLOSE TOURNAMENT SCHEDULER START");
-        tournamentService.specifyRewardWinners();
-        tournamentService.closeTournament();
-        redisService.closeTournament();
+        try {
+            Long tournamentId = redisService.getActiveTournamentId();
+            tournamentService.specifyRewardWinners();
+            tournamentService.closeTournament();
+            scoreSnapshotService.snapshotTournament(tournamentId);
+            tournamentArchiveService.archiveTournament(tournamentId);
+            redisService.closeTournament();
+        } catch (RuntimeException exception) {
+            // Let the retry job, on this or another node, take the close over
+            leaseService.release(leaseName);
+            log.error("CLOSE TOURNAMENT SCHEDULER FAILED, the close will be retried", exception);
+            return;
+        }
         log.info("CLOSE TOURNAMENT SCHEDULER END");
     }
 }
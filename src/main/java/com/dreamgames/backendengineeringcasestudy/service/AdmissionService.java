@@ -0,0 +1,11 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import com.dreamgames.backendengineeringcasestudy.model.tournament.AdmissionTicket;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AdmissionService {
+    boolean isAsyncAdmissionEnabled();
+    AdmissionTicket submit(Long userId);
+    CompletableFuture<AdmissionTicket> awaitTicket(String ticketId, long waitMs);
+}
@@ -0,0 +1,10 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import java.util.Map;
+
+public interface CountryScoreBufferService {
+    boolean isEnabled();
+    void addScore(Long tournamentId, String country, int score);
+    Map<String, Long> getPendingScores(Long tournamentId);
+    void flush();
+}
@@ -1,7 +1,11 @@
 package com.dreamgames.backendengineeringcasestudy.service;
 
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoardSnapshot;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardPage;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentPercentile;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.UserGroupRank;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,6 +13,14 @@ import java.util.List;
 public interface LeaderBoardService {
     List<GroupLeaderBoard> getGroupLeaderBoardWithGroupId(Long groupId);
     List<GroupLeaderBoard> getGroupLeaderBoardWithUserId(Long userId);
+    Long getActiveGroupId(Long userId);
     List<CountryLeaderBoard> getCountryLeaderBoardCurrentTournament();
+    CountryLeaderBoardSnapshot getCountryLeaderBoardSnapshot();
     Integer getUserTournamentGroupRank(Long tournamentId, Long userId);
+    List<UserGroupRank> getUserTournamentGroupRanks(Long tournamentId, List<Long> userIds);
+    LeaderBoardPage<GroupLeaderBoard> getGroupLeaderBoardPage(Long userId, int offset, int limit);
+    LeaderBoardPage<GroupLeaderBoard> getGroupLeaderBoardAroundUser(Long userId, int above, int below);
+    LeaderBoardPage<CountryLeaderBoard> getCountryLeaderBoardPage(int offset, int limit);
+    LeaderBoardPage<GroupLeaderBoard> getTournamentLeaderBoardPage(int offset, int limit);
+    TournamentPercentile getTournamentPercentile(Long userId, boolean approximate);
 }
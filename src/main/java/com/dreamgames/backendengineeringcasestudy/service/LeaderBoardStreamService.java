@@ -0,0 +1,8 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface LeaderBoardStreamService {
+    SseEmitter subscribe(Long userId);
+    void publishChanges();
+}
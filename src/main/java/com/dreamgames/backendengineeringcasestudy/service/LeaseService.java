@@ -0,0 +1,10 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import java.time.Duration;
+
+public interface LeaseService {
+    String getNodeId();
+    boolean tryAcquire(String name, Duration ttl);
+    boolean tryAcquireRenewable(String name);
+    void release(String name);
+}
@@ -0,0 +1,8 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface MatchmakingService {
+    Long assignGroup(Long userId, String country, Long tournamentId);
+    CompletableFuture<Long> submit(Long userId, String country, Long tournamentId);
+}
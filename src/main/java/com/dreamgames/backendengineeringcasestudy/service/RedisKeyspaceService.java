@@ -0,0 +1,8 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import com.dreamgames.backendengineeringcasestudy.model.redis.KeyspaceReport;
+
+public interface RedisKeyspaceService {
+    int reapLegacyKeys();
+    KeyspaceReport describeKeyspace();
+}
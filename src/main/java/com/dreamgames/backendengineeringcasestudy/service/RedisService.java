@@ -1,14 +1,25 @@
 package com.dreamgames.backendengineeringcasestudy.service;
 
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardPage;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.ScoreQuantiles;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.UserGroupRank;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupAssignment;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.TournamentMembership;
 import org.springframework.data.redis.core.ZSetOperations;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface RedisService {
-    void createTournament(Long tournamentId);
+    void createTournament(Long tournamentId, LocalDateTime startTime, LocalDateTime endTime);
     void closeTournament();
     void checkActiveTournament();
     Long getActiveTournamentId();
+    LocalDateTime getActiveTournamentEndTime();
     void createCountryLeaderBoard(Long tournamentId);
     void updateGroupLeaderBoard(Long groupId, Long userId, Integer score);
     void initializeGroup(Long groupId);
@@ -16,7 +27,28 @@ public interface RedisService {
     void addCountryToGroup(String groupCountryKey, String country);
     boolean canUserJoinGroup(Long groupId, String country);
     void incrementCountryLeaderBoardScore(String country, int scoreIncrement, Long tournamentId);
-    void incrementGroupLeaderBoardScore(Long groupId, Long id, int i);
+    void incrementCountryLeaderBoardScores(Long tournamentId, Map<String, Long> scoreIncrements);
+    void incrementGroupLeaderBoardScore(Long tournamentId, Long groupId, Long userId, int scoreIncrement);
     Set<ZSetOperations.TypedTuple<String>> getCountryLeaderBoard(String leaderboardKey);
+    List<UserGroupRank> getUserGroupRanks(Long tournamentId, List<Long> userIds);
+    ScoreQuantiles getLeaderBoardQuantiles(String leaderboardKey, int buckets);
+    LeaderBoardPage<ZSetOperations.TypedTuple<String>> getLeaderBoardWindow(String leaderboardKey, String anchorMember, int offset, int count);
     Integer getRankOfUserInGroupLeaderBoard(Long groupId, Long userId);
+    GroupAssignment joinOpenGroup(Long tournamentId, Long userId, String country);
+    void registerGroup(Long tournamentId, Long groupId, Map<Long, String> memberCountries);
+    boolean leaveGroup(Long tournamentId, Long groupId, Long userId, String country);
+    void unregisterGroup(Long tournamentId, Long groupId, Collection<Long> memberIds);
+    TournamentMembership getTournamentMembership(Long tournamentId, Long userId);
+    void deleteTournamentLeaderBoards(Long tournamentId, List<Long> groupIds);
+    Map<Long, Set<ZSetOperations.TypedTuple<String>>> getGroupLeaderBoards(Collection<Long> groupIds);
+    Map<Long, List<Long>> getGroupLeaders(Collection<Long> groupIds, int count);
+    void markUnclaimedRewards(Collection<Long> userIds);
+    void clearUnclaimedRewards(Long userId);
+    boolean hasUnclaimedRewards(Long userId);
+    boolean hasUnclaimedRewardIndex();
+    void announceTournamentClose(Long tournamentId, Duration ttl);
+    Long getClosingTournamentId();
+    void endTournamentClose(Long tournamentId);
+    List<Long> popDirtyScoreGroups(Long tournamentId, int count);
+    void markScoreGroupsDirty(Long tournamentId, Collection<Long> groupIds);
 }
@@ -0,0 +1,5 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+public interface RewardAutoCreditService {
+    int creditExpiredRewards();
+}
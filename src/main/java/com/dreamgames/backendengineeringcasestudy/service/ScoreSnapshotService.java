@@ -0,0 +1,7 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+public interface ScoreSnapshotService {
+    boolean isRedisAuthoritative();
+    void snapshotDirtyGroups();
+    void snapshotTournament(Long tournamentId);
+}
@@ -0,0 +1,15 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentHistoryEntry;
+
+import java.util.List;
+
+public interface TournamentArchiveService {
+    void archiveTournament(Long tournamentId);
+    List<GroupLeaderBoard> getArchivedGroupLeaderBoard(Long tournamentId, Long groupId);
+    List<CountryLeaderBoard> getArchivedCountryLeaderBoard(Long tournamentId);
+    TournamentHistoryEntry findArchivedStanding(Long tournamentId, Long userId);
+    List<TournamentHistoryEntry> getUserHistory(Long userId, int limit);
+}
@@ -1,13 +1,18 @@
 package com.dreamgames.backendengineeringcasestudy.service;
 
+import com.dreamgames.backendengineeringcasestudy.domain.Tournament;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public interface TournamentService {
     List<GroupLeaderBoard> enterTournament(Long userId);
-    Long createTournament();
+    CompletableFuture<List<GroupLeaderBoard>> enterTournamentAsync(Long userId, Executor executor);
+    Tournament createTournament();
     void closeTournament();
     void specifyRewardWinners();
+    int processRewardPartitions(Long tournamentId);
     void claimTournamentsReward(Long userId);
 }
@@ -0,0 +1,10 @@
+package com.dreamgames.backendengineeringcasestudy.service;
+
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressResponse;
+
+public interface UserProgressBufferService {
+    boolean isEnabled();
+    UserProgressResponse levelUp(Long userId, int coins);
+    void addGroupScore(Long groupId, Long userId, int score);
+    void flush();
+}
@@ -0,0 +1,211 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.enums.AdmissionStatus;
+import com.dreamgames.backendengineeringcasestudy.exception.*;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.AdmissionTicket;
+import com.dreamgames.backendengineeringcasestudy.service.AdmissionService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ticketed, asynchronous tournament admission.
+ * <p>
+ * Enter requests are handed to a small worker pool and the caller immediately receives a ticket. A worker only runs the
+ * eligibility checks and hands the entry to the matchmaker; the ticket is completed from the matchmaker's future, so
+ * workers are never parked while a batch is formed. The number of unfinished tickets is bounded to apply backpressure:
+ * once the bound is reached, new requests are refused instead of piling up on Tomcat threads and database connections.
+ * A user has at most one unfinished ticket, and repeated requests return it. Tickets live in memory on the node that
+ * issued them, so status polls must reach the same node.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionServiceImpl implements AdmissionService {
+
+    private final TournamentService tournamentService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TicketEntry> tickets = new ConcurrentHashMap<>();
+    private final Map<Long, String> pendingTicketsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Value("${tournament.admission.async-enabled:false}")
+    private boolean asyncAdmissionEnabled;
+    @Value("${tournament.admission.workers:8}")
+    private int workers;
+    @Value("${tournament.admission.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${tournament.admission.max-wait-ms:10000}")
+    private long maxWaitMs;
+    @Value("${tournament.admission.ticket-retention-ms:600000}")
+    private long ticketRetentionMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "admission-worker-" + threadCount.incrementAndGet()));
+
+        Gauge.builder("tournament.admission.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Number of tournament entries waiting for an admission worker")
+                .register(meterRegistry);
+        Gauge.builder("tournament.admission.in-flight", inFlight, AtomicInteger::get)
+                .description("Number of admission tickets that have not been completed yet")
+                .register(meterRegistry);
+        Gauge.builder("tournament.admission.tickets", tickets, Map::size)
+                .description("Number of admission tickets kept in memory")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(maxWaitMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tells whether tournament entries should be admitted asynchronously with tickets.
+     *
+     * @return true if the async admission mode is enabled.
+     */
+    @Override
+    public boolean isAsyncAdmissionEnabled() {
+        return asyncAdmissionEnabled;
+    }
+
+    /**
+     * Queues a tournament entry and returns a pending ticket right away.
+     * If the user already has an unfinished ticket, that ticket is returned instead of queueing the entry again.
+     *
+     * @param userId the ID of the user attempting to enter the tournament.
+     * @return the pending ticket whose ID can be used to poll for the result.
+     * @throws AdmissionQueueFullException if tournament.admission.queue-capacity tickets are unfinished.
+     */
+    @Override
+    public AdmissionTicket submit(Long userId) {
+        String existingTicketId = pendingTicketsByUser.get(userId);
+        TicketEntry existing = existingTicketId == null ? null : tickets.get(existingTicketId);
+        if (existing != null) {
+            return existing.pendingTicket();
+        }
+        if (inFlight.incrementAndGet() > queueCapacity) {
+            inFlight.decrementAndGet();
+            throw new AdmissionQueueFullException("Tournament admission queue is full, please retry later.");
+        }
+
+        AdmissionTicket pendingTicket = AdmissionTicket.builder()
+                .ticketId(UUID.randomUUID().toString())
+                .userId(userId)
+                .status(AdmissionStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+        TicketEntry entry = new TicketEntry(pendingTicket, new CompletableFuture<>());
+        tickets.put(pendingTicket.getTicketId(), entry);
+        existingTicketId = pendingTicketsByUser.putIfAbsent(userId, pendingTicket.getTicketId());
+        if (existingTicketId != null) {
+            // Another request of the same user won the race; hand out its ticket
+            tickets.remove(pendingTicket.getTicketId());
+            inFlight.decrementAndGet();
+            existing = tickets.get(existingTicketId);
+            return existing != null ? existing.pendingTicket() : submit(userId);
+        }
+
+        try {
+            executor.execute(() -> admit(entry));
+        } catch (RejectedExecutionException exception) {
+            tickets.remove(pendingTicket.getTicketId());
+            pendingTicketsByUser.remove(userId, pendingTicket.getTicketId());
+            inFlight.decrementAndGet();
+            throw new AdmissionQueueFullException("Tournament admission queue is full, please retry later.");
+        }
+        log.info("[ADMISSION SERVICE] Ticket {} issued for user {}", pendingTicket.getTicketId(), userId);
+        return pendingTicket;
+    }
+
+    /**
+     * Waits for a ticket to be processed, up to the given time.
+     * The returned future completes with the final ticket as soon as it is ready, or with the pending ticket
+     * once the wait time (capped by tournament.admission.max-wait-ms) has elapsed.
+     *
+     * @param ticketId the ID of the ticket to wait for.
+     * @param waitMs how long the caller is willing to wait, in milliseconds.
+     * @return a future of the ticket state.
+     * @throws AdmissionTicketNotFoundException if the ticket is unknown or has expired.
+     */
+    @Override
+    public CompletableFuture<AdmissionTicket> awaitTicket(String ticketId, long waitMs) {
+        TicketEntry entry = tickets.get(ticketId);
+        if (entry == null) {
+            throw new AdmissionTicketNotFoundException("No admission ticket found with id: " + ticketId);
+        }
+        long boundedWaitMs = Math.max(0, Math.min(waitMs, maxWaitMs));
+        return entry.result().copy().completeOnTimeout(entry.pendingTicket(), boundedWaitMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops processed tickets once their retention time has passed.
+     */
+    @Scheduled(fixedDelayString = "${tournament.admission.cleanup-interval-ms:60000}")
+    public void evictExpiredTickets() {
+        LocalDateTime expiry = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ticketRetentionMs));
+        tickets.values().removeIf(entry -> entry.result().isDone()
+                && entry.result().join().getCompletedAt().isBefore(expiry));
+    }
+
+    private void admit(TicketEntry entry) {
+        try {
+            tournamentService.enterTournamentAsync(entry.pendingTicket().getUserId(), executor)
+                    .whenComplete((leaderBoard, failure) -> finish(entry, leaderBoard, failure));
+        } catch (RuntimeException exception) {
+            finish(entry, null, exception);
+        }
+    }
+
+    private void finish(TicketEntry entry, List<GroupLeaderBoard> leaderBoard, Throwable failure) {
+        AdmissionTicket pendingTicket = entry.pendingTicket();
+        pendingTicketsByUser.remove(pendingTicket.getUserId(), pendingTicket.getTicketId());
+        inFlight.decrementAndGet();
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause == null) {
+            entry.result().complete(complete(pendingTicket, AdmissionStatus.ADMITTED, null, leaderBoard));
+        } else if (cause instanceof UserNotFoundException || cause instanceof NoActiveTournamentException
+                || cause instanceof UserCanNotEnterTournamentException || cause instanceof UserEnteredTournamentBeforeException) {
+            entry.result().complete(complete(pendingTicket, AdmissionStatus.REJECTED, cause.getMessage(), null));
+        } else {
+            log.error("[ADMISSION SERVICE] Ticket {} failed", pendingTicket.getTicketId(), cause);
+            entry.result().complete(complete(pendingTicket, AdmissionStatus.FAILED, "Tournament entry could not be processed.", null));
+        }
+    }
+
+    private AdmissionTicket complete(AdmissionTicket pendingTicket, AdmissionStatus status, String message,
+                                     List<GroupLeaderBoard> leaderBoard) {
+        return pendingTicket.toBuilder()
+                .status(status)
+                .message(message)
+                .leaderBoard(leaderBoard)
+                .completedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private record TicketEntry(AdmissionTicket pendingTicket, CompletableFuture<AdmissionTicket> result) {
+    }
+}
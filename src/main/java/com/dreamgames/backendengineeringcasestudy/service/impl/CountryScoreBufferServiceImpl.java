@@ -0,0 +1,164 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.service.CountryScoreBufferService;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process aggregation of country leaderboard increments.
+ * <p>
+ * The country leaderboard of a tournament is a single sorted set of five members that every level-up used to hit with
+ * its own ZINCRBY. Increments are now summed per tournament and country in striped counters, and the sums are written
+ * with one pipelined ZINCRBY per country every tournament.country-scores.flush-interval-ms and once more on shutdown,
+ * so the number of commands sent to the hot key no longer grows with the level-up rate. Pending increments are only
+ * visible to the node that holds them until they have been flushed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CountryScoreBufferServiceImpl implements CountryScoreBufferService {
+
+    private final RedisService redisService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<CountryKey, StripedCounter> pendingScores = new ConcurrentHashMap<>();
+
+    @Value("${tournament.country-scores.aggregation-enabled:true}")
+    private boolean enabled;
+
+    private Counter receivedIncrements;
+    private Counter redisCommands;
+
+    @PostConstruct
+    public void registerMetrics() {
+        receivedIncrements = Counter.builder("tournament.country-scores.increments")
+                .description("Number of country score increments received from level-ups")
+                .register(meterRegistry);
+        redisCommands = Counter.builder("tournament.country-scores.redis-commands")
+                .description("Number of ZINCRBY commands sent to the country leaderboards")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether country score increments should be aggregated instead of sent to Redis one by one.
+     *
+     * @return true if the aggregation is enabled.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a score increment of a country to the pending sums of the tournament.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @param country The country whose score is incremented.
+     * @param score The score to add.
+     */
+    @Override
+    public void addScore(Long tournamentId, String country, int score) {
+        pendingScores.computeIfAbsent(new CountryKey(tournamentId, country), key -> new StripedCounter()).add(score);
+        receivedIncrements.increment();
+    }
+
+    /**
+     * Returns the increments of a tournament that have not been written to Redis yet.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @return The pending score of every country that has one.
+     */
+    @Override
+    public Map<String, Long> getPendingScores(Long tournamentId) {
+        Map<String, Long> scores = new HashMap<>();
+        pendingScores.forEach((key, counter) -> {
+            long score = counter.sum();
+            if (key.tournamentId().equals(tournamentId) && score != 0) {
+                scores.put(key.country(), score);
+            }
+        });
+        return scores;
+    }
+
+    /**
+     * Writes the pending sums to the country leaderboards, one pipeline per tournament.
+     * If a write fails, its sums are added back and retried with the next flush.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tournament.country-scores.flush-interval-ms:100}")
+    public synchronized void flush() {
+        Map<Long, Map<String, Long>> scoresByTournament = new HashMap<>();
+        pendingScores.forEach((key, counter) -> {
+            long score = counter.drain();
+            if (score != 0) {
+                scoresByTournament.computeIfAbsent(key.tournamentId(), id -> new LinkedHashMap<>()).put(key.country(), score);
+            }
+        });
+
+        scoresByTournament.forEach((tournamentId, scores) -> {
+            try {
+                redisService.incrementCountryLeaderBoardScores(tournamentId, scores);
+                redisCommands.increment(scores.size());
+            } catch (RuntimeException exception) {
+                log.error("[COUNTRY SCORE BUFFER] Flush of {} country scores failed for tournament {}, keeping them pending",
+                        scores.size(), tournamentId, exception);
+                scores.forEach((country, score) -> pendingScores
+                        .computeIfAbsent(new CountryKey(tournamentId, country), key -> new StripedCounter()).add(score));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("[COUNTRY SCORE BUFFER] Flushing pending country scores before shutdown");
+        flush();
+    }
+
+    private record CountryKey(Long tournamentId, String country) {
+    }
+
+    /**
+     * A LongAdder-like counter whose stripes are drained one by one with getAndSet, so increments that race with a
+     * flush are never lost.
+     */
+    private static final class StripedCounter {
+
+        private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+
+        private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+
+        void add(long value) {
+            stripes.addAndGet((int) Thread.currentThread().getId() & (STRIPES - 1), value);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += stripes.get(i);
+            }
+            return sum;
+        }
+
+        long drain() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += stripes.getAndSet(i, 0);
+            }
+            return sum;
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package com.dreamgames.backendengineeringcasestudy.service.impl;
 
+import com.dreamgames.backendengineeringcasestudy.cache.CountryLeaderBoardCache;
+import com.dreamgames.backendengineeringcasestudy.cache.GroupLeaderBoardCache;
+import com.dreamgames.backendengineeringcasestudy.cache.TournamentQuantileCache;
 import com.dreamgames.backendengineeringcasestudy.domain.GroupInfo;
+import com.dreamgames.backendengineeringcasestudy.exception.NoActiveTournamentException;
+import com.dreamgames.backendengineeringcasestudy.exception.RankBatchTooLargeException;
 import com.dreamgames.backendengineeringcasestudy.exception.UserDidNotEnteredTournamentException;
 import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoardSnapshot;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardPage;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.ScoreQuantiles;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentHistoryEntry;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentPercentile;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.UserGroupRank;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.TournamentMembership;
 import com.dreamgames.backendengineeringcasestudy.repository.GroupInfoRepository;
 import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.UserDisplayName;
+import com.dreamgames.backendengineeringcasestudy.service.CountryScoreBufferService;
 import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentArchiveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,14 +39,24 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LeaderBoardServiceImpl implements LeaderBoardService {
 
+    private static final int MAX_WINDOW_SIZE = 100;
+    private static final int MAX_RANK_BATCH_SIZE = 500;
+
     private final GroupInfoRepository groupInfoRepository;
     private final RedisService redisService;
     private final UserRepository userRepository;
+    private final GroupLeaderBoardCache groupLeaderBoardCache;
+    private final CountryScoreBufferService countryScoreBufferService;
+    private final CountryLeaderBoardCache countryLeaderBoardCache;
+    private final TournamentQuantileCache tournamentQuantileCache;
+    private final TournamentArchiveService tournamentArchiveService;
 
     /**
      * Retrieves the leaderboard for a specific group by group ID. This method fetches the leaderboard data from Redis
      * and maps it to a list of GroupLeaderBoard objects containing user details and scores.
-     * Each user's information is fetched from the groupInfo repository.
+     * The usernames and countries of all members are fetched with a single query, so a read costs one Redis call and
+     * at most one SQL statement regardless of the group size. The rendered leaderboard is kept in the in-process
+     * near-cache until the group changes, so repeated reads between two changes cost no network call at all.
      *
      * @param groupId The ID of the group for which to retrieve the leaderboard.
      * @return A list of GroupLeaderBoard objects representing the current state of the leaderboard for the specified group.
@@ -37,28 +64,55 @@ public class LeaderBoardServiceImpl implements LeaderBoardService {
      */
     @Override
     public List<GroupLeaderBoard> getGroupLeaderBoardWithGroupId(Long groupId) {
+        return groupLeaderBoardCache.getLeaderBoard(groupId, this::renderGroupLeaderBoard);
+    }
+
+    private List<GroupLeaderBoard> renderGroupLeaderBoard(Long groupId) {
         Set<ZSetOperations.TypedTuple<String>> groupLeaderBoard = redisService.getGroupLeaderBoard(groupId);
-        return groupLeaderBoard.stream().map(scoreEntry -> {
-            String member = scoreEntry.getValue();
-            Long userId = Long.parseLong(member.split(":")[1]);
-            Integer score = scoreEntry.getScore().intValue();
+        if (groupLeaderBoard == null || groupLeaderBoard.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return toGroupLeaderBoard(groupLeaderBoard);
+    }
 
-            GroupInfo groupInfo = groupInfoRepository.findByUserId(userId)
-                    .orElseThrow(() -> new IllegalStateException("User info not found for userId: " + userId));
+    /**
+     * Maps group leaderboard entries to their users, loading the usernames and countries of all of them with one query.
+     */
+    private List<GroupLeaderBoard> toGroupLeaderBoard(Collection<ZSetOperations.TypedTuple<String>> scoreEntries) {
+        if (scoreEntries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> userIds = scoreEntries.stream()
+                .map(scoreEntry -> Long.parseLong(scoreEntry.getValue().split(":")[1]))
+                .toList();
+        Map<Long, UserDisplayName> displayNames = userRepository.findDisplayNamesByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserDisplayName::getUserId, Function.identity()));
 
-            return new GroupLeaderBoard(
+        List<GroupLeaderBoard> leaderBoard = new ArrayList<>(userIds.size());
+        int index = 0;
+        for (ZSetOperations.TypedTuple<String> scoreEntry : scoreEntries) {
+            Long userId = userIds.get(index++);
+            UserDisplayName displayName = displayNames.get(userId);
+            if (displayName == null) {
+                throw new IllegalStateException("User info not found for userId: " + userId);
+            }
+            leaderBoard.add(new GroupLeaderBoard(
                     userId,
-                    groupInfo.getUser().getUsername(),
-                    groupInfo.getUser().getCountry(),
-                    score
-            );
-        }).collect(Collectors.toList());
+                    displayName.getUsername(),
+                    displayName.getCountry(),
+                    LeaderBoardScoreCodec.decode(scoreEntry.getScore())
+            ));
+        }
+        return leaderBoard;
     }
 
 
     /**
      * Retrieves the leaderboard for a user by their userId. This method finds the tournament the user is participating in,
      * fetches the corresponding group, and then retrieves the leaderboard for that group.
+     * The group is resolved through the active tournament's membership hash in Redis; the database is only consulted
+     * to tell an unknown user apart from one who has not entered the tournament. Since a user's group never changes
+     * within a tournament, the lookup is cached in process once it succeeded.
      *
      * @param userId The ID of the user whose tournament group leaderboard is to be retrieved.
      * @return A list of GroupLeaderBoard objects representing the leaderboard of the group in which the user is a participant.
@@ -67,14 +121,31 @@ public class LeaderBoardServiceImpl implements LeaderBoardService {
      */
     @Override
     public List<GroupLeaderBoard> getGroupLeaderBoardWithUserId(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("No user found with id: " + userId));
+        return getGroupLeaderBoardWithGroupId(getActiveGroupId(userId));
+    }
 
+    /**
+     * Finds the group of a user in the active tournament. The lookup is cached in process once it succeeded.
+     *
+     * @param userId The ID of the user.
+     * @return The ID of the group the user was placed in.
+     * @throws UserNotFoundException If no user is found with the provided userId.
+     * @throws UserDidNotEnteredTournamentException If the user has not entered the active tournament.
+     */
+    @Override
+    public Long getActiveGroupId(Long userId) {
         Long tournamentId = redisService.getActiveTournamentId();
-        GroupInfo groupInfo = groupInfoRepository.findByTournamentIdAndUserId(tournamentId, userId).orElseThrow(
-                () -> new UserDidNotEnteredTournamentException("User did not entered any active tournament " + tournamentId)
-        );
-
-        return getGroupLeaderBoardWithGroupId(groupInfo.getGroup().getGroupId());
+        Long groupId = groupLeaderBoardCache.getMemberGroupId(tournamentId, userId, () -> {
+            TournamentMembership membership = redisService.getTournamentMembership(tournamentId, userId);
+            return membership != null ? membership.getGroupId() : null;
+        });
+        if (groupId == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException("No user found with id: " + userId);
+            }
+            throw new UserDidNotEnteredTournamentException("User did not entered any active tournament " + tournamentId);
+        }
+        return groupId;
     }
 
 
@@ -82,6 +153,7 @@ public class LeaderBoardServiceImpl implements LeaderBoardService {
      * Retrieves the country leaderboard for the current active tournament.
      * This method first checks if there is an active tournament and then fetches the country leaderboard from Redis.
      * The leaderboard includes the country names and their corresponding scores sorted in descending order.
+     * Increments that this node has not flushed to Redis yet are added to the stored scores.
      *
      * @return A list of CountryLeaderBoard objects representing the current state of the leaderboard for the current tournament.
      * @throws IllegalStateException If there is no active tournament at the time of the request.
@@ -98,13 +170,34 @@ public class LeaderBoardServiceImpl implements LeaderBoardService {
             return Collections.emptyList();
         }
 
-        return rawScores.stream()
-                .map(scoreEntry -> {
-                    String countryName = scoreEntry.getValue();
-                    Integer score = scoreEntry.getScore() != null ? scoreEntry.getScore().intValue() : 0;
-                    return new CountryLeaderBoard(countryName, score);
-                })
+        Map<String, Long> pendingScores = countryScoreBufferService.getPendingScores(tournamentId);
+        List<CountryLeaderBoard> leaderBoard = rawScores.stream()
+                .map(scoreEntry -> toCountryLeaderBoard(scoreEntry, pendingScores.getOrDefault(scoreEntry.getValue(), 0L)))
                 .collect(Collectors.toList());
+        if (!pendingScores.isEmpty()) {
+            leaderBoard.sort(Comparator.comparing(CountryLeaderBoard::getScore).reversed());
+        }
+        return leaderBoard;
+    }
+
+
+    /**
+     * Retrieves the country leaderboard of the current active tournament as last broadcast to this node.
+     * The active tournament and the snapshot are both held in memory, so this costs no network call. Until the first
+     * broadcast of a tournament arrives, the leaderboard is read from Redis and rendered on the spot.
+     *
+     * @return The country leaderboard snapshot with its serialized body and generation time.
+     * @throws NoActiveTournamentException If there is no active tournament at the time of the request.
+     */
+    @Override
+    public CountryLeaderBoardSnapshot getCountryLeaderBoardSnapshot() {
+        redisService.checkActiveTournament();
+        Long tournamentId = redisService.getActiveTournamentId();
+        CountryLeaderBoardSnapshot snapshot = countryLeaderBoardCache.get();
+        if (snapshot != null && snapshot.getTournamentId().equals(tournamentId)) {
+            return snapshot;
+        }
+        return countryLeaderBoardCache.render(tournamentId, getCountryLeaderBoardCurrentTournament());
     }
 
 
@@ -112,6 +205,9 @@ public class LeaderBoardServiceImpl implements LeaderBoardService {
      * Retrieves the rank of a user within their tournament group.
      * This method checks if the user is registered in a group for the specified tournament and then queries Redis
      * to find the user's rank within that group's leaderboard.
+     * The group and the rank are resolved from the tournament's membership hash and the group leaderboard in one
+     * script call. Finished tournaments whose leaderboards were archived are answered from the archive. Only other
+     * tournaments fall back to the database, as their hash may predate the membership tracking.
      *
      * @param tournamentId The ID of the tournament for which to retrieve the user's group rank.
      * @param userId The ID of the user whose rank is to be determined.
@@ -120,9 +216,206 @@ public class LeaderBoardServiceImpl implements LeaderBoardService {
      */
     @Override
     public Integer getUserTournamentGroupRank(Long tournamentId, Long userId) {
+        UserGroupRank groupRank = redisService.getUserGroupRanks(tournamentId, List.of(userId)).get(0);
+        if (groupRank != null) {
+            return groupRank.getRank();
+        }
+        if (tournamentId.equals(redisService.getActiveTournamentId())) {
+            throw new UserDidNotEnteredTournamentException("User is not registered in any group for this tournament.");
+        }
+        TournamentHistoryEntry standing = tournamentArchiveService.findArchivedStanding(tournamentId, userId);
+        if (standing != null) {
+            return standing.getRank();
+        }
+
         GroupInfo groupInfo = groupInfoRepository.findByTournamentIdAndUserId(tournamentId, userId)
                 .orElseThrow(() -> new UserDidNotEnteredTournamentException("User is not registered in any group for this tournament."));
 
         return redisService.getRankOfUserInGroupLeaderBoard(groupInfo.getGroup().getGroupId(), userId);
     }
+
+
+    /**
+     * Retrieves the group ranks of several users of a tournament, e.g. of a whole game lobby, with a single Redis call
+     * and no database access. At most {@value #MAX_RANK_BATCH_SIZE} users can be looked up at once.
+     *
+     * @param tournamentId The ID of the tournament, or null for the active tournament.
+     * @param userIds The IDs of the users whose ranks are requested.
+     * @return The group, rank, score and group size of every requested user who entered the tournament, in the
+     *         requested order. Users who have not entered the tournament are left out.
+     * @throws RankBatchTooLargeException If more than {@value #MAX_RANK_BATCH_SIZE} users are requested.
+     * @throws NoActiveTournamentException If no tournament is given and there is no active tournament.
+     */
+    @Override
+    public List<UserGroupRank> getUserTournamentGroupRanks(Long tournamentId, List<Long> userIds) {
+        if (userIds.size() > MAX_RANK_BATCH_SIZE) {
+            throw new RankBatchTooLargeException("At most " + MAX_RANK_BATCH_SIZE + " users can be ranked in one request.");
+        }
+        if (tournamentId == null) {
+            redisService.checkActiveTournament();
+            tournamentId = redisService.getActiveTournamentId();
+        }
+        return redisService.getUserGroupRanks(tournamentId, userIds).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * Retrieves a page of the leaderboard of the user's group in the active tournament, e.g. its top N entries with an
+     * offset of 0. Only the requested window is read from Redis, and the page size is capped at
+     * {@value #MAX_WINDOW_SIZE}.
+     *
+     * @param userId The ID of the user whose group leaderboard is requested.
+     * @param offset The 0-based rank of the first entry of the page.
+     * @param limit The maximum number of entries of the page.
+     * @return The page of the group leaderboard.
+     * @throws UserNotFoundException If no user is found with the provided userId.
+     * @throws UserDidNotEnteredTournamentException If the user has not entered the active tournament.
+     */
+    @Override
+    public LeaderBoardPage<GroupLeaderBoard> getGroupLeaderBoardPage(Long userId, int offset, int limit) {
+        Long groupId = getActiveGroupId(userId);
+        LeaderBoardPage<ZSetOperations.TypedTuple<String>> window = redisService.getLeaderBoardWindow(
+                "groupLeaderBoard:" + groupId, null, Math.max(0, offset), windowSize(limit));
+        return new LeaderBoardPage<>(window.getFirstRank(), window.getTotalEntries(), toGroupLeaderBoard(window.getEntries()));
+    }
+
+    /**
+     * Retrieves the entries of the user's group leaderboard around the user: up to the given number of entries ranked
+     * above and below the user, and the user's own entry. The rank lookup and the window are read in one script call.
+     *
+     * @param userId The ID of the user to center the window on.
+     * @param above The number of entries ranked above the user.
+     * @param below The number of entries ranked below the user.
+     * @return The window of the group leaderboard around the user.
+     * @throws UserNotFoundException If no user is found with the provided userId.
+     * @throws UserDidNotEnteredTournamentException If the user has not entered the active tournament.
+     */
+    @Override
+    public LeaderBoardPage<GroupLeaderBoard> getGroupLeaderBoardAroundUser(Long userId, int above, int below) {
+        Long groupId = getActiveGroupId(userId);
+        int clampedAbove = Math.max(0, Math.min(above, MAX_WINDOW_SIZE / 2));
+        int clampedBelow = Math.max(0, Math.min(below, MAX_WINDOW_SIZE / 2));
+        LeaderBoardPage<ZSetOperations.TypedTuple<String>> window = redisService.getLeaderBoardWindow(
+                "groupLeaderBoard:" + groupId, "User:" + userId, -clampedAbove, clampedAbove + clampedBelow + 1);
+        if (window == null) {
+            throw new UserDidNotEnteredTournamentException("User is not registered in any group for this tournament.");
+        }
+        return new LeaderBoardPage<>(window.getFirstRank(), window.getTotalEntries(), toGroupLeaderBoard(window.getEntries()));
+    }
+
+    /**
+     * Retrieves a page of the country leaderboard of the active tournament. Only the requested window is read from
+     * Redis; increments that this node has not flushed yet are not included.
+     *
+     * @param offset The 0-based rank of the first entry of the page.
+     * @param limit The maximum number of entries of the page.
+     * @return The page of the country leaderboard.
+     * @throws NoActiveTournamentException If there is no active tournament at the time of the request.
+     */
+    @Override
+    public LeaderBoardPage<CountryLeaderBoard> getCountryLeaderBoardPage(int offset, int limit) {
+        redisService.checkActiveTournament();
+        Long tournamentId = redisService.getActiveTournamentId();
+        LeaderBoardPage<ZSetOperations.TypedTuple<String>> window = redisService.getLeaderBoardWindow(
+                "countryLeaderBoard:" + tournamentId, null, Math.max(0, offset), windowSize(limit));
+        return new LeaderBoardPage<>(window.getFirstRank(), window.getTotalEntries(), window.getEntries().stream()
+                .map(scoreEntry -> toCountryLeaderBoard(scoreEntry, 0))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Retrieves a page of the tournament-wide player leaderboard of the active tournament, e.g. its top K players with
+     * an offset of 0. Only the requested window is read from Redis, and the page size is capped at
+     * {@value #MAX_WINDOW_SIZE}.
+     *
+     * @param offset The 0-based rank of the first entry of the page.
+     * @param limit The maximum number of entries of the page.
+     * @return The page of the tournament leaderboard.
+     * @throws NoActiveTournamentException If there is no active tournament at the time of the request.
+     */
+    @Override
+    public LeaderBoardPage<GroupLeaderBoard> getTournamentLeaderBoardPage(int offset, int limit) {
+        redisService.checkActiveTournament();
+        Long tournamentId = redisService.getActiveTournamentId();
+        LeaderBoardPage<ZSetOperations.TypedTuple<String>> window = redisService.getLeaderBoardWindow(
+                "tournamentLeaderBoard:" + tournamentId, null, Math.max(0, offset), windowSize(limit));
+        return new LeaderBoardPage<>(window.getFirstRank(), window.getTotalEntries(), toGroupLeaderBoard(window.getEntries()));
+    }
+
+    /**
+     * Retrieves the rank and percentile of a user among all players of the active tournament.
+     * The exact mode reads the user's rank from the tournament leaderboard in Redis. The approximate mode takes the
+     * user's score from this node's near-cache of group leaderboards and ranks it against the in-process sample of the
+     * tournament's score distribution, without any Redis call. It falls back to the exact mode until the first sample
+     * of the tournament has been taken, and when the user's group leaderboard is not cached on this node.
+     *
+     * @param userId The ID of the user.
+     * @param approximate Whether an estimate from the in-process sample is acceptable.
+     * @return The rank of the user, the number of players and the top percentage the user is in.
+     * @throws NoActiveTournamentException If there is no active tournament at the time of the request.
+     * @throws UserNotFoundException If no user is found with the provided userId.
+     * @throws UserDidNotEnteredTournamentException If the user has not entered the active tournament.
+     */
+    @Override
+    public TournamentPercentile getTournamentPercentile(Long userId, boolean approximate) {
+        redisService.checkActiveTournament();
+        Long tournamentId = redisService.getActiveTournamentId();
+        ScoreQuantiles quantiles = approximate ? tournamentQuantileCache.get(tournamentId) : null;
+        Integer cachedScore = quantiles != null && quantiles.getTotalEntries() > 0 ? cachedTournamentScore(tournamentId, userId) : null;
+        if (cachedScore != null) {
+            // Rank against the highest composite of the score, i.e. behind every player with a higher score only
+            long rank = quantiles.estimateRank(LeaderBoardScoreCodec.encode(cachedScore, 0));
+            return toTournamentPercentile(userId, cachedScore, rank, quantiles.getTotalEntries(), true);
+        }
+
+        LeaderBoardPage<ZSetOperations.TypedTuple<String>> window = redisService.getLeaderBoardWindow(
+                "tournamentLeaderBoard:" + tournamentId, "User:" + userId, 0, 1);
+        if (window == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException("No user found with id: " + userId);
+            }
+            throw new UserDidNotEnteredTournamentException("User did not entered any active tournament " + tournamentId);
+        }
+        int score = LeaderBoardScoreCodec.decode(window.getEntries().get(0).getScore());
+        return toTournamentPercentile(userId, score, window.getFirstRank(), window.getTotalEntries(), false);
+    }
+
+    /**
+     * Reads a user's score from the cached leaderboard of the user's group, without loading anything on a miss.
+     */
+    private Integer cachedTournamentScore(Long tournamentId, Long userId) {
+        Long groupId = groupLeaderBoardCache.peekMemberGroupId(tournamentId, userId);
+        List<GroupLeaderBoard> leaderBoard = groupId == null ? null : groupLeaderBoardCache.peekLeaderBoard(groupId);
+        if (leaderBoard == null) {
+            return null;
+        }
+        return leaderBoard.stream()
+                .filter(entry -> entry.getUserId().equals(userId))
+                .findFirst()
+                .map(GroupLeaderBoard::getTournamentScore)
+                .orElse(null);
+    }
+
+    private static TournamentPercentile toTournamentPercentile(Long userId, int score, long rank, long totalPlayers,
+                                                               boolean approximate) {
+        return TournamentPercentile.builder()
+                .userId(userId)
+                .tournamentScore(score)
+                .rank(rank)
+                .totalPlayers(totalPlayers)
+                .topPercent(rank * 100.0 / totalPlayers)
+                .approximate(approximate)
+                .build();
+    }
+
+    private static int windowSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_WINDOW_SIZE));
+    }
+
+    private static CountryLeaderBoard toCountryLeaderBoard(ZSetOperations.TypedTuple<String> scoreEntry, long pendingScore) {
+        long score = scoreEntry.getScore() != null ? scoreEntry.getScore().longValue() : 0;
+        return new CountryLeaderBoard(scoreEntry.getValue(), (int) (score + pendingScore));
+    }
 }
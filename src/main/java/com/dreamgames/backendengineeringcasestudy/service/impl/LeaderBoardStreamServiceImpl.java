@@ -0,0 +1,172 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.cache.GroupLeaderBoardCache;
+import com.dreamgames.backendengineeringcasestudy.exception.UserDidNotEnteredTournamentException;
+import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
+import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardStreamService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-sent event streams of group leaderboards.
+ * <p>
+ * Each subscriber first receives a "snapshot" event with the whole leaderboard of its group, then "delta" events with
+ * the entries whose score changed. The node listens to the group change announcements on the same pub/sub channel as
+ * the {@link GroupLeaderBoardCache}, and only notes which watched groups changed. Every
+ * tournament.leaderboard-stream.coalesce-ms the changed groups are rendered once each, through the near-cache, and the
+ * difference to the previous frame is pushed to all subscribers of the group. A group therefore costs at most one
+ * frame per interval no matter how many scores changed or how many clients watch it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderBoardStreamServiceImpl implements LeaderBoardStreamService, MessageListener {
+
+    private final LeaderBoardService leaderBoardService;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, GroupStream> streams = new ConcurrentHashMap<>();
+    private final Set<Long> changedGroups = ConcurrentHashMap.newKeySet();
+
+    @Value("${tournament.leaderboard-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private Counter sentFrames;
+
+    @PostConstruct
+    public void start() {
+        sentFrames = Counter.builder("tournament.leaderboard-stream.frames")
+                .description("Number of leaderboard delta frames pushed to subscribers")
+                .register(meterRegistry);
+        Gauge.builder("tournament.leaderboard-stream.subscribers", streams,
+                        groupStreams -> groupStreams.values().stream().mapToInt(stream -> stream.emitters().size()).sum())
+                .description("Number of open leaderboard streams on this node")
+                .register(meterRegistry);
+        listenerContainer.addMessageListener(this, new ChannelTopic(GroupLeaderBoardCache.CHANNEL));
+    }
+
+    /**
+     * Opens a stream of the leaderboard of the user's group in the active tournament and sends the current leaderboard
+     * as its first event.
+     *
+     * @param userId the ID of the user whose group leaderboard is streamed.
+     * @return the emitter of the stream.
+     * @throws UserNotFoundException if no user is found with the provided userId.
+     * @throws UserDidNotEnteredTournamentException if the user has not entered the active tournament.
+     */
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        Long groupId = leaderBoardService.getActiveGroupId(userId);
+        List<GroupLeaderBoard> leaderBoard = leaderBoardService.getGroupLeaderBoardWithGroupId(groupId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(leaderBoard));
+        } catch (IOException exception) {
+            emitter.completeWithError(exception);
+            return emitter;
+        }
+        streams.compute(groupId, (id, stream) -> {
+            GroupStream groupStream = stream != null ? stream : new GroupStream(new CopyOnWriteArrayList<>(), scoresOf(leaderBoard));
+            groupStream.emitters().add(emitter);
+            return groupStream;
+        });
+        emitter.onCompletion(() -> unsubscribe(groupId, emitter));
+        emitter.onTimeout(() -> unsubscribe(groupId, emitter));
+        emitter.onError(error -> unsubscribe(groupId, emitter));
+        log.debug("[LEADERBOARD STREAM SERVICE] User {} subscribed to group {}", userId, groupId);
+        return emitter;
+    }
+
+    /**
+     * Pushes one delta frame to the subscribers of every group that changed since the last run.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tournament.leaderboard-stream.coalesce-ms:250}")
+    public void publishChanges() {
+        Iterator<Long> iterator = changedGroups.iterator();
+        while (iterator.hasNext()) {
+            Long groupId = iterator.next();
+            iterator.remove();
+            GroupStream stream = streams.get(groupId);
+            if (stream == null) {
+                continue;
+            }
+            try {
+                publishDelta(groupId, stream);
+            } catch (RuntimeException exception) {
+                log.warn("[LEADERBOARD STREAM SERVICE] Could not publish the changes of group {}", groupId, exception);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            Long groupId = Long.parseLong(body.substring(0, body.indexOf(':')));
+            if (streams.containsKey(groupId)) {
+                changedGroups.add(groupId);
+            }
+        } catch (RuntimeException exception) {
+            log.warn("[LEADERBOARD STREAM SERVICE] Ignoring malformed change {}", body, exception);
+        }
+    }
+
+    private void publishDelta(Long groupId, GroupStream stream) {
+        List<GroupLeaderBoard> leaderBoard = leaderBoardService.getGroupLeaderBoardWithGroupId(groupId);
+        List<GroupLeaderBoard> delta = leaderBoard.stream()
+                .filter(entry -> !entry.getTournamentScore().equals(stream.lastScores().get(entry.getUserId())))
+                .toList();
+        if (delta.isEmpty()) {
+            return;
+        }
+        delta.forEach(entry -> stream.lastScores().put(entry.getUserId(), entry.getTournamentScore()));
+
+        for (SseEmitter emitter : stream.emitters()) {
+            try {
+                emitter.send(SseEmitter.event().name("delta").data(delta));
+                sentFrames.increment();
+            } catch (IOException | IllegalStateException exception) {
+                unsubscribe(groupId, emitter);
+            }
+        }
+    }
+
+    private void unsubscribe(Long groupId, SseEmitter emitter) {
+        streams.computeIfPresent(groupId, (id, stream) -> {
+            stream.emitters().remove(emitter);
+            return stream.emitters().isEmpty() ? null : stream;
+        });
+    }
+
+    private static Map<Long, Integer> scoresOf(List<GroupLeaderBoard> leaderBoard) {
+        Map<Long, Integer> scores = new ConcurrentHashMap<>();
+        leaderBoard.forEach(entry -> scores.put(entry.getUserId(), entry.getTournamentScore()));
+        return scores;
+    }
+
+    private record GroupStream(List<SseEmitter> emitters, Map<Long, Integer> lastScores) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.service.LeaseService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis leases that elect one node for a piece of work across all application nodes.
+ * <p>
+ * A lease is a key set with {@code SET NX PX} to the ID of the node holding it. Renewable leases are extended by a
+ * heartbeat every third of their time to live while their work is running, so a node that dies loses its leases
+ * within one time to live and another node takes the work over. Renewal and release only touch a lease that is still
+ * held by this node. Leases coordinate who does the work; the work itself must still be safe to repeat, since a
+ * node that stalls longer than the time to live loses its lease while it may still be running.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaseServiceImpl implements LeaseService {
+
+    private static final String KEY_PREFIX = "lease:";
+
+    private static final RedisScript<Long> RENEW_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lease-renew.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lease-release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${tournament.scheduler.lease-ttl-ms:30000}")
+    private long leaseTtlMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> renewedLeases = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = Math.max(1, leaseTtlMs / 3);
+        heartbeat.scheduleWithFixedDelay(this::renewLeases, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        renewedLeases.forEach(this::release);
+    }
+
+    /**
+     * Returns the ID this node writes into the leases it holds.
+     *
+     * @return the node ID, unique per application start.
+     */
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Acquires a lease that is not renewed and expires after the given time. Suited to once-per-run jobs: the lease
+     * is never released, so a node whose trigger fires late does not run the job a second time.
+     *
+     * @param name the name of the lease.
+     * @param ttl how long the lease is held.
+     * @return true if this node acquired the lease.
+     */
+    @Override
+    public boolean tryAcquire(String name, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, nodeId, ttl));
+    }
+
+    /**
+     * Acquires a lease that is renewed by this node until it is released.
+     *
+     * @param name the name of the lease.
+     * @return true if this node acquired the lease.
+     */
+    @Override
+    public boolean tryAcquireRenewable(String name) {
+        if (!tryAcquire(name, Duration.ofMillis(leaseTtlMs))) {
+            return false;
+        }
+        renewedLeases.add(name);
+        return true;
+    }
+
+    /**
+     * Stops renewing a lease and releases it, if this node still holds it.
+     *
+     * @param name the name of the lease.
+     */
+    @Override
+    public void release(String name) {
+        renewedLeases.remove(name);
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + name), nodeId);
+        } catch (RuntimeException exception) {
+            log.warn("[LEASE SERVICE] Could not release lease {}, it expires on its own", name, exception);
+        }
+    }
+
+    void renewLeases() {
+        for (String name : renewedLeases) {
+            try {
+                Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(KEY_PREFIX + name), nodeId, String.valueOf(leaseTtlMs));
+                if (renewed == null || renewed == 0) {
+                    renewedLeases.remove(name);
+                    log.warn("[LEASE SERVICE] Lost lease {}", name);
+                }
+            } catch (RuntimeException exception) {
+                log.warn("[LEASE SERVICE] Could not renew lease {}", name, exception);
+            }
+        }
+    }
+}
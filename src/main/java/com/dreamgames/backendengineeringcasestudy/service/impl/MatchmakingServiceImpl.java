@@ -0,0 +1,356 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.domain.GroupInfo;
+import com.dreamgames.backendengineeringcasestudy.domain.Tournament;
+import com.dreamgames.backendengineeringcasestudy.domain.TournamentGroups;
+import com.dreamgames.backendengineeringcasestudy.enums.Country;
+import com.dreamgames.backendengineeringcasestudy.exception.UserEnteredTournamentBeforeException;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupAssignment;
+import com.dreamgames.backendengineeringcasestudy.repository.*;
+import com.dreamgames.backendengineeringcasestudy.service.MatchmakingService;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Micro-batching matchmaker for tournament entries.
+ * <p>
+ * Enter requests are queued and collected by a single worker thread over a short, configurable window. Each batch is
+ * packed in one pass: full groups of five distinct countries are formed straight from the batch, the leftovers take the
+ * free slots of existing groups through the Redis open-slot index, and whatever is still left founds new groups.
+ * All new groups and memberships of a batch are persisted in one transaction with bulk inserts, and every waiting
+ * caller is released with the id of the group it was placed in.
+ * <p>
+ * Joining an existing group happens in Redis before the transaction, so a failed transaction takes the joined users
+ * back out of their groups. New groups are registered in Redis after the commit; a group that cannot be registered is
+ * deleted again, so its members are not left in a group that never scores and can enter once more.
+ * <p>
+ * The wait timeout only applies while an entry is queued. Once the worker has taken an entry into a batch, the entry
+ * is always matched or failed by that batch, so callers learn where the user actually ended up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchmakingServiceImpl implements MatchmakingService {
+
+    private static final int GROUP_SIZE = Country.values().length;
+    private static final long IDLE_POLL_MS = 100;
+
+    private final RedisService redisService;
+    private final UserRepository userRepository;
+    private final TournamentRepository tournamentRepository;
+    private final TournamentGroupsRepository tournamentGroupsRepository;
+    private final GroupInfoRepository groupInfoRepository;
+    private final GroupInfoBatchRepository groupInfoBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PendingEntry> pendingEntries = new LinkedBlockingQueue<>();
+
+    @Value("${tournament.matchmaking.batch-window-ms:5}")
+    private long batchWindowMs;
+    @Value("${tournament.matchmaking.max-batch-size:500}")
+    private int maxBatchSize;
+    @Value("${tournament.matchmaking.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runBatches, "matchmaking-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(waitTimeoutMs);
+    }
+
+    /**
+     * Queues a user for the next matchmaking batch and waits until the batch has been persisted.
+     *
+     * @param userId The ID of the user entering the tournament.
+     * @param country The country of the user.
+     * @param tournamentId The ID of the tournament the user is entering.
+     * @return The ID of the group the user was placed in.
+     * @throws UserEnteredTournamentBeforeException If the same user was queued twice in one batch.
+     * @throws IllegalStateException If the entry was still queued after the configured timeout, or its batch failed.
+     */
+    @Override
+    public Long assignGroup(Long userId, String country, Long tournamentId) {
+        try {
+            return submit(userId, country, tournamentId).get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Group assignment timed out for user: " + userId);
+            }
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Group assignment failed for user: " + userId, exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group assignment of user: " + userId);
+        }
+    }
+
+    /**
+     * Queues a user for the next matchmaking batch without waiting for it.
+     * If the entry is still queued once the configured timeout has passed, it is withdrawn and the returned future fails
+     * with a {@link TimeoutException}. An entry that a batch has already taken is not timed out: the future completes
+     * with the user's placement, or the batch's failure, once the batch is done.
+     *
+     * @param userId The ID of the user entering the tournament.
+     * @param country The country of the user.
+     * @param tournamentId The ID of the tournament the user is entering.
+     * @return A future of the ID of the group the user was placed in.
+     */
+    @Override
+    public CompletableFuture<Long> submit(Long userId, String country, Long tournamentId) {
+        PendingEntry entry = new PendingEntry(userId, country, tournamentId, new CompletableFuture<>());
+        pendingEntries.add(entry);
+        CompletableFuture.delayedExecutor(waitTimeoutMs, TimeUnit.MILLISECONDS).execute(() -> {
+            // Only an entry no batch has taken can be withdrawn; a taken one is completed by its batch
+            if (pendingEntries.remove(entry)) {
+                entry.groupId().completeExceptionally(new TimeoutException("Group assignment timed out for user: " + userId));
+            }
+        });
+        return entry.groupId();
+    }
+
+    private void runBatches() {
+        while (running || !pendingEntries.isEmpty()) {
+            List<PendingEntry> batch = new ArrayList<>();
+            try {
+                batch.addAll(collectBatch());
+                if (!batch.isEmpty()) {
+                    processBatch(batch);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable throwable) {
+                // Keep the only worker alive: fail this batch and carry on with the next one
+                log.error("[MATCHMAKING SERVICE] Batch of {} entries failed", batch.size(), throwable);
+                for (PendingEntry entry : batch) {
+                    entry.groupId().completeExceptionally(throwable);
+                }
+            }
+        }
+    }
+
+    private List<PendingEntry> collectBatch() throws InterruptedException {
+        List<PendingEntry> batch = new ArrayList<>();
+        PendingEntry first = pendingEntries.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMs);
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingEntry next = remaining > 0 ? pendingEntries.poll(remaining, TimeUnit.NANOSECONDS) : pendingEntries.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Matches one batch of queued entries, tournament by tournament. A failure fails every caller of that tournament's
+     * part of the batch, while callers that were already released keep their result. Entries that are already
+     * completed are skipped.
+     */
+    void processBatch(List<PendingEntry> batch) {
+        Map<Long, List<PendingEntry>> entriesByTournament = batch.stream()
+                .filter(entry -> !entry.groupId().isDone())
+                .collect(Collectors.groupingBy(PendingEntry::tournamentId, LinkedHashMap::new, Collectors.toList()));
+
+        entriesByTournament.forEach((tournamentId, entries) -> {
+            try {
+                matchEntries(tournamentId, entries);
+            } catch (RuntimeException exception) {
+                log.error("[MATCHMAKING SERVICE] Batch of {} entries failed for tournament {}", entries.size(), tournamentId, exception);
+                entries.forEach(entry -> entry.groupId().completeExceptionally(exception));
+            }
+        });
+    }
+
+    private void matchEntries(Long tournamentId, List<PendingEntry> entries) {
+        Map<String, Deque<PendingEntry>> entriesByCountry = new LinkedHashMap<>();
+        Set<Long> queuedUserIds = new HashSet<>();
+        for (PendingEntry entry : entries) {
+            if (!queuedUserIds.add(entry.userId())) {
+                entry.groupId().completeExceptionally(
+                        new UserEnteredTournamentBeforeException("User is already registered in the current active tournament."));
+                continue;
+            }
+            entriesByCountry.computeIfAbsent(entry.country(), country -> new ArrayDeque<>()).add(entry);
+        }
+
+        // 1. Pack full groups of five distinct countries straight from the batch
+        List<List<PendingEntry>> newGroups = new ArrayList<>();
+        while (entriesByCountry.size() == GROUP_SIZE && entriesByCountry.values().stream().noneMatch(Deque::isEmpty)) {
+            newGroups.add(pollOnePerCountry(entriesByCountry));
+        }
+
+        Map<PendingEntry, GroupAssignment> joinedEntries = new LinkedHashMap<>();
+        List<TournamentGroups> savedGroups;
+        try {
+            // 2. Fill free slots of existing groups with the leftovers
+            for (Deque<PendingEntry> leftovers : entriesByCountry.values()) {
+                while (!leftovers.isEmpty()) {
+                    PendingEntry entry = leftovers.peek();
+                    GroupAssignment assignment = redisService.joinOpenGroup(tournamentId, entry.userId(), entry.country());
+                    if (assignment == null) {
+                        break;
+                    }
+                    joinedEntries.put(leftovers.poll(), assignment);
+                }
+            }
+
+            // 3. Whatever is still left founds new groups, one member per country
+            while (entriesByCountry.values().stream().anyMatch(leftovers -> !leftovers.isEmpty())) {
+                newGroups.add(pollOnePerCountry(entriesByCountry));
+            }
+
+            savedGroups = transactionTemplate.execute(status -> persistAssignments(tournamentId, newGroups, joinedEntries));
+        } catch (RuntimeException exception) {
+            leaveJoinedGroups(tournamentId, joinedEntries);
+            throw exception;
+        }
+
+        int registeredGroups = 0;
+        for (int i = 0; i < savedGroups.size(); i++) {
+            Long groupId = savedGroups.get(i).getGroupId();
+            List<PendingEntry> members = newGroups.get(i);
+
+            Map<Long, String> memberCountries = new LinkedHashMap<>();
+            members.forEach(member -> memberCountries.put(member.userId(), member.country()));
+            try {
+                redisService.registerGroup(tournamentId, groupId, memberCountries);
+            } catch (RuntimeException exception) {
+                log.error("[MATCHMAKING SERVICE] Group {} of tournament {} could not be registered, discarding it", groupId, tournamentId, exception);
+                discardGroup(tournamentId, groupId, memberCountries.keySet());
+                members.forEach(member -> member.groupId().completeExceptionally(exception));
+                continue;
+            }
+            members.forEach(member -> member.groupId().complete(groupId));
+            registeredGroups++;
+        }
+        joinedEntries.forEach((entry, assignment) -> entry.groupId().complete(assignment.getGroupId()));
+
+        log.info("[MATCHMAKING SERVICE] Matched {} entries of tournament {}: {} new groups, {} joined existing groups",
+                entries.size(), tournamentId, registeredGroups, joinedEntries.size());
+    }
+
+    /**
+     * Takes the users that joined existing groups in Redis back out of them after their batch could not be persisted,
+     * so that a retry neither finds them placed nor places them twice.
+     */
+    private void leaveJoinedGroups(Long tournamentId, Map<PendingEntry, GroupAssignment> joinedEntries) {
+        joinedEntries.forEach((entry, assignment) -> {
+            try {
+                redisService.leaveGroup(tournamentId, assignment.getGroupId(), entry.userId(), entry.country());
+            } catch (RuntimeException exception) {
+                log.error("[MATCHMAKING SERVICE] User {} could not be taken out of group {}", entry.userId(), assignment.getGroupId(), exception);
+            }
+        });
+    }
+
+    /**
+     * Deletes a persisted group that could not be registered in Redis, so that its members can enter again.
+     */
+    private void discardGroup(Long tournamentId, Long groupId, Collection<Long> memberIds) {
+        try {
+            redisService.unregisterGroup(tournamentId, groupId, memberIds);
+        } catch (RuntimeException exception) {
+            log.warn("[MATCHMAKING SERVICE] Group {} could not be unregistered from Redis", groupId, exception);
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                groupInfoRepository.deleteByGroupId(groupId);
+                tournamentGroupsRepository.deleteById(groupId);
+                return null;
+            });
+        } catch (RuntimeException exception) {
+            log.error("[MATCHMAKING SERVICE] Group {} could not be deleted", groupId, exception);
+        }
+    }
+
+    private List<TournamentGroups> persistAssignments(Long tournamentId, List<List<PendingEntry>> newGroups,
+                                                      Map<PendingEntry, GroupAssignment> joinedEntries) {
+        Tournament tournament = tournamentRepository.getReferenceById(tournamentId);
+        List<TournamentGroups> savedGroups = tournamentGroupsRepository.saveAll(newGroups.stream()
+                .map(members -> TournamentGroups.builder()
+                        .tournament(tournament)
+                        .groupSize(members.size())
+                        .build())
+                .toList());
+
+        List<GroupInfo> groupInfos = new ArrayList<>();
+        for (int i = 0; i < savedGroups.size(); i++) {
+            TournamentGroups group = savedGroups.get(i);
+            boolean hasGroupBegan = group.getGroupSize() == GROUP_SIZE;
+            newGroups.get(i).forEach(member -> groupInfos.add(buildGroupInfo(group, member.userId(), hasGroupBegan)));
+        }
+
+        Map<Long, Integer> joinedGroupSizes = new HashMap<>();
+        joinedEntries.forEach((entry, assignment) -> {
+            TournamentGroups group = tournamentGroupsRepository.getReferenceById(assignment.getGroupId());
+            groupInfos.add(buildGroupInfo(group, entry.userId(), false));
+            joinedGroupSizes.merge(assignment.getGroupId(), assignment.getGroupSize(), Math::max);
+        });
+        groupInfoBatchRepository.insertAll(groupInfos);
+
+        joinedGroupSizes.forEach((groupId, groupSize) -> {
+            tournamentGroupsRepository.updateGroupSize(groupId, groupSize);
+            if (groupSize == GROUP_SIZE) {
+                groupInfoRepository.updateHasGroupBegunForAllOccurrences(groupId);
+            }
+        });
+        return savedGroups;
+    }
+
+    private GroupInfo buildGroupInfo(TournamentGroups group, Long userId, boolean hasGroupBegan) {
+        return GroupInfo.builder()
+                .group(group)
+                .user(userRepository.getReferenceById(userId))
+                .score(0)
+                .hasGroupBegan(hasGroupBegan)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private List<PendingEntry> pollOnePerCountry(Map<String, Deque<PendingEntry>> entriesByCountry) {
+        List<PendingEntry> group = new ArrayList<>();
+        for (Deque<PendingEntry> entries : entriesByCountry.values()) {
+            PendingEntry entry = entries.poll();
+            if (entry != null) {
+                group.add(entry);
+            }
+        }
+        return group;
+    }
+
+    record PendingEntry(Long userId, String country, Long tournamentId, CompletableFuture<Long> groupId) {
+    }
+}
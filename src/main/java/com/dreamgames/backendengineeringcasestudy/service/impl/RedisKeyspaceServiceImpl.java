@@ -0,0 +1,274 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.enums.RedisKeyFamily;
+import com.dreamgames.backendengineeringcasestudy.model.redis.KeyFamilyUsage;
+import com.dreamgames.backendengineeringcasestudy.model.redis.KeyspaceReport;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentGroupsRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentRepository;
+import com.dreamgames.backendengineeringcasestudy.service.LeaseService;
+import com.dreamgames.backendengineeringcasestudy.service.RedisKeyspaceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Lifecycle of the tournament-scoped Redis keys listed in {@link RedisKeyFamily}.
+ * <p>
+ * The scripts and commands that write these keys set their expiry to the end of the tournament plus
+ * tournament.redis.key-grace-hours, so Redis drops a tournament's keys on its own once the grace period is over.
+ * Keys written before expiries were set, or by paths that bypass them, are found by a background reaper: one node,
+ * elected with a lease, walks every key family with {@code SCAN} and gives each key without an expiry the one it should
+ * have had. Keys whose tournament ended longer than the grace period ago are removed with {@code UNLINK} right away,
+ * and keys whose tournament or group is unknown expire a grace period from now.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RedisKeyspaceServiceImpl implements RedisKeyspaceService {
+
+    private static final String REAPER_LEASE = "redisKeyReaper";
+    private static final String OTHER_FAMILY = "OTHER";
+    private static final int REPORT_SCAN_COUNT = 1000;
+
+    private static final RedisScript<List> KEY_USAGE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/key-usage.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TournamentRepository tournamentRepository;
+    private final TournamentGroupsRepository tournamentGroupsRepository;
+    private final LeaseService leaseService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tournament.redis.key-grace-hours:48}")
+    private long keyGraceHours;
+    @Value("${tournament.redis.reaper.enabled:true}")
+    private boolean reaperEnabled;
+    @Value("${tournament.redis.reaper.batch-size:500}")
+    private int batchSize;
+    @Value("${tournament.redis.report.samples-per-family:20}")
+    private int samplesPerFamily;
+    @Value("${tournament.redis.report.memory-usage-samples:5}")
+    private int memoryUsageSamples;
+
+    private Counter expiredByReaper;
+    private Counter unlinkedByReaper;
+
+    @PostConstruct
+    public void start() {
+        expiredByReaper = Counter.builder("tournament.redis.keys.reaped")
+                .tag("action", "expire")
+                .description("Number of tournament keys without an expiry that the reaper gave one")
+                .register(meterRegistry);
+        unlinkedByReaper = Counter.builder("tournament.redis.keys.reaped")
+                .tag("action", "unlink")
+                .description("Number of tournament keys the reaper removed after their grace period")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Walks every tournament key family and expires or removes the keys that have no expiry.
+     * Only the node holding the reaper lease runs a pass; the others skip it.
+     *
+     * @return the number of keys that were given an expiry or removed.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tournament.redis.reaper.interval-ms:3600000}",
+            initialDelayString = "${tournament.redis.reaper.initial-delay-ms:60000}")
+    public int reapLegacyKeys() {
+        if (!reaperEnabled || !leaseService.tryAcquireRenewable(REAPER_LEASE)) {
+            return 0;
+        }
+        int reaped = 0;
+        try {
+            for (RedisKeyFamily family : RedisKeyFamily.values()) {
+                reaped += reapFamily(family);
+            }
+        } catch (RuntimeException exception) {
+            log.error("[REDIS KEYSPACE] Reaping keys failed after {} keys, retrying with the next run", reaped, exception);
+        } finally {
+            leaseService.release(REAPER_LEASE);
+        }
+        if (reaped > 0) {
+            log.info("[REDIS KEYSPACE] Reaped {} tournament keys without an expiry", reaped);
+        }
+        return reaped;
+    }
+
+    /**
+     * Scans the whole keyspace, counts the keys of every family and estimates their memory usage from the
+     * memory usage of up to tournament.redis.report.samples-per-family keys per family.
+     *
+     * @return the key counts and memory usage per key family, with keys of no family reported as OTHER.
+     */
+    @Override
+    public KeyspaceReport describeKeyspace() {
+        Map<String, List<String>> samples = new LinkedHashMap<>();
+        Map<String, Long> keyCounts = new LinkedHashMap<>();
+        for (RedisKeyFamily family : RedisKeyFamily.values()) {
+            samples.put(family.name(), new ArrayList<>());
+            keyCounts.put(family.name(), 0L);
+        }
+        samples.put(OTHER_FAMILY, new ArrayList<>());
+        keyCounts.put(OTHER_FAMILY, 0L);
+
+        long scannedKeys = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().count(REPORT_SCAN_COUNT).build())) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                RedisKeyFamily family = RedisKeyFamily.of(key);
+                String familyName = family == null ? OTHER_FAMILY : family.name();
+                keyCounts.merge(familyName, 1L, Long::sum);
+                List<String> familySamples = samples.get(familyName);
+                if (familySamples.size() < samplesPerFamily) {
+                    familySamples.add(key);
+                }
+                scannedKeys++;
+            }
+        }
+
+        List<String> sampledKeys = samples.values().stream().flatMap(List::stream).toList();
+        List<?> usage = sampledKeys.isEmpty() ? List.of()
+                : redisTemplate.execute(KEY_USAGE_SCRIPT, sampledKeys, String.valueOf(memoryUsageSamples));
+
+        Map<String, KeyFamilyUsage> families = new LinkedHashMap<>();
+        int position = 0;
+        for (Map.Entry<String, List<String>> familySamples : samples.entrySet()) {
+            long sampledMemoryBytes = 0;
+            int withoutExpiry = 0;
+            for (int i = 0; i < familySamples.getValue().size(); i++, position += 2) {
+                sampledMemoryBytes += ((Number) usage.get(position)).longValue();
+                if (((Number) usage.get(position + 1)).longValue() == -1) {
+                    withoutExpiry++;
+                }
+            }
+            int sampleSize = familySamples.getValue().size();
+            long keyCount = keyCounts.get(familySamples.getKey());
+            families.put(familySamples.getKey(), KeyFamilyUsage.builder()
+                    .keyCount(keyCount)
+                    .sampledKeys(sampleSize)
+                    .sampledMemoryBytes(sampledMemoryBytes)
+                    .estimatedMemoryBytes(sampleSize == 0 ? 0 : sampledMemoryBytes * keyCount / sampleSize)
+                    .sampledKeysWithoutExpiry(withoutExpiry)
+                    .build());
+        }
+
+        return KeyspaceReport.builder()
+                .usedMemoryBytes(usedMemoryBytes())
+                .scannedKeys(scannedKeys)
+                .families(families)
+                .build();
+    }
+
+    private int reapFamily(RedisKeyFamily family) {
+        int reaped = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(family.getPattern()).count(batchSize).build())) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= batchSize) {
+                    reaped += reapBatch(family, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            reaped += reapBatch(family, batch);
+        }
+        return reaped;
+    }
+
+    /**
+     * Expires or removes the keys of a scanned batch that have no expiry.
+     *
+     * @param family the family of the keys.
+     * @param keys the scanned keys.
+     * @return the number of keys that were given an expiry or removed.
+     */
+    int reapBatch(RedisKeyFamily family, List<String> keys) {
+        List<Object> ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            keys.forEach(stringConnection::ttl);
+            return null;
+        });
+        Map<String, Long> persistentKeys = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (ttls.get(i) instanceof Number ttl && ttl.longValue() == -1) {
+                persistentKeys.put(keys.get(i), family.ownerId(keys.get(i)));
+            }
+        }
+        if (persistentKeys.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, LocalDateTime> endTimes = findEndTimes(family.getScope(), persistentKeys.values());
+        Duration grace = Duration.ofHours(keyGraceHours);
+        Instant now = Instant.now();
+        List<String> keysToUnlink = new ArrayList<>();
+        Map<String, Long> expiries = new LinkedHashMap<>();
+        persistentKeys.forEach((key, ownerId) -> {
+            LocalDateTime endTime = ownerId == null ? null : endTimes.get(ownerId);
+            Instant expiry = endTime == null ? now.plus(grace) : endTime.atZone(ZoneId.systemDefault()).toInstant().plus(grace);
+            if (expiry.isAfter(now)) {
+                expiries.put(key, expiry.getEpochSecond());
+            } else {
+                keysToUnlink.add(key);
+            }
+        });
+
+        if (!keysToUnlink.isEmpty()) {
+            redisTemplate.unlink(keysToUnlink);
+            unlinkedByReaper.increment(keysToUnlink.size());
+        }
+        if (!expiries.isEmpty()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                expiries.forEach(stringConnection::expireAt);
+                return null;
+            });
+            expiredByReaper.increment(expiries.size());
+        }
+        log.debug("[REDIS KEYSPACE] {}: {} keys expired, {} keys unlinked", family, expiries.size(), keysToUnlink.size());
+        return persistentKeys.size();
+    }
+
+    private Map<Long, LocalDateTime> findEndTimes(RedisKeyFamily.Scope scope, Collection<Long> ownerIds) {
+        Set<Long> ids = new HashSet<>(ownerIds);
+        ids.remove(null);
+        Map<Long, LocalDateTime> endTimes = new HashMap<>();
+        if (ids.isEmpty()) {
+            return endTimes;
+        }
+        if (scope == RedisKeyFamily.Scope.TOURNAMENT) {
+            tournamentRepository.findAllById(ids)
+                    .forEach(tournament -> endTimes.put(tournament.getTournamentId(), tournament.getEndTime()));
+        } else {
+            tournamentGroupsRepository.findTournamentEndTimes(ids)
+                    .forEach(group -> endTimes.put(group.getGroupId(), group.getEndTime()));
+        }
+        return endTimes;
+    }
+
+    private Long usedMemoryBytes() {
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection -> connection.serverCommands().info("memory"));
+        String usedMemory = info == null ? null : info.getProperty("used_memory");
+        return usedMemory == null ? null : Long.parseLong(usedMemory);
+    }
+}
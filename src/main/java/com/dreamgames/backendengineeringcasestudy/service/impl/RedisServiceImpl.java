@@ -1,36 +1,86 @@
 package com.dreamgames.backendengineeringcasestudy.service.impl;
 
+import com.dreamgames.backendengineeringcasestudy.cache.ActiveTournamentCache;
+import com.dreamgames.backendengineeringcasestudy.cache.GroupLeaderBoardCache;
+import com.dreamgames.backendengineeringcasestudy.enums.Country;
 import com.dreamgames.backendengineeringcasestudy.exception.NoActiveTournamentException;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardPage;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.ScoreQuantiles;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.UserGroupRank;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupAssignment;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.TournamentMembership;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RedisServiceImpl implements RedisService {
 
+    private static final int GROUP_SIZE = Country.values().length;
+    private static final String CLOSED = "Completed";
+    private static final int GROUPS_PER_UNLINK = 500;
+    private static final String UNCLAIMED_REWARDS_KEY = "unclaimedRewards";
+    private static final String CLOSING_TOURNAMENT_KEY = "closingTournament";
+
+    private static final RedisScript<List> JOIN_OPEN_GROUP_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/join-open-group.lua"), List.class);
+    private static final RedisScript<Long> REGISTER_GROUP_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/register-group.lua"), Long.class);
+    private static final RedisScript<Long> LEAVE_GROUP_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/leave-group.lua"), Long.class);
+    private static final RedisScript<Long> UNREGISTER_GROUP_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/unregister-group.lua"), Long.class);
+    private static final RedisScript<Long> SWITCH_TOURNAMENT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/switch-tournament.lua"), Long.class);
+    private static final RedisScript<Long> INCREMENT_GROUP_SCORE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/increment-group-score.lua"), Long.class);
+    private static final RedisScript<List> LEADERBOARD_WINDOW_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/leaderboard-window.lua"), List.class);
+    private static final RedisScript<List> GROUP_RANKS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/group-ranks.lua"), List.class);
+    private static final RedisScript<List> LEADERBOARD_QUANTILES_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/leaderboard-quantiles.lua"), List.class);
+
     private final StringRedisTemplate redisTemplate;
+    private final ActiveTournamentCache activeTournamentCache;
+    private final GroupLeaderBoardCache groupLeaderBoardCache;
 
+    @Value("${tournament.redis.key-grace-hours:48}")
+    private long keyGraceHours;
 
     /**
-     * Activates a tournament by setting it as active and storing its ID in Redis.
-     * This method marks the tournament as active in Redis and logs the creation of the tournament.
+     * Activates a tournament by switching the active tournament epoch record in Redis to it.
+     * The record and the legacy keys are replaced in one script, and every node is told to reload its cached copy.
      *
      * @param tournamentId The ID of the tournament being activated.
+     * @param startTime The start time of the tournament.
+     * @param endTime The end time of the tournament.
      */
     @Override
-    public void createTournament(Long tournamentId) {
-        setActiveTournament(true);
-        setActiveTournamentId(tournamentId);
+    public void createTournament(Long tournamentId, LocalDateTime startTime, LocalDateTime endTime) {
+        Long epoch = switchTournament(tournamentId, startTime, endTime, ActiveTournament.ACTIVE);
         log.info("[REDIS SERVICE] Daily tournament is now active");
-        log.info("[REDIS SERVICE] Daily tournament created with id {}", tournamentId);
+        log.info("[REDIS SERVICE] Daily tournament created with id {} (epoch {})", tournamentId, epoch);
     }
 
 
@@ -49,6 +99,8 @@ public class RedisServiceImpl implements RedisService {
 
     /**
      * Updates the leaderboard for a specific group.
+     * The score is stored with the current time of the active tournament as its tie-breaker, and the leaderboard
+     * expires with the keys of the active tournament.
      * @param groupId The ID of the group for which the leaderboard is updated.
      * @param userId The ID of the user whose score is being updated.
      * @param score The new score of the user to be set in the leaderboard.
@@ -58,46 +110,70 @@ public class RedisServiceImpl implements RedisService {
         String key = "groupLeaderBoard:" + groupId;
         ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         String member = "User:" + userId;
-        zSetOps.add(key, member, score);
+        Long tournamentId = activeTournamentCache.get().getTournamentId();
+        zSetOps.add(key, member, LeaderBoardScoreCodec.encode(score, elapsedMs(tournamentId)));
+        redisTemplate.expireAt(key, keyExpiry(tournamentId));
         log.info("Updated group leader board for group ID: {} with user ID: {} and score: {}", groupId, userId, score);
     }
 
     /**
      * Closes the currently active tournament in Redis by clearing the tournament's active flag.
      * This function is typically called when a tournament reaches its end time to clean up and prepare for the next tournament.
+     * The epoch record is switched to the completed tournament, which makes every node drop it as active.
      */
     @Override
     public void closeTournament() {
-        clearActiveTournamentId();
-        setActiveTournament(false);
+        ActiveTournament activeTournament = activeTournamentCache.refresh();
+        Long tournamentId = activeTournament.getActiveTournamentId();
+        if (tournamentId != null) {
+            clearOpenGroupSlots(tournamentId);
+            redisTemplate.delete(dirtyScoreGroupsKey(tournamentId));
+        }
+        switchTournament(activeTournament.getTournamentId(), activeTournament.getStartTime(), activeTournament.getEndTime(), CLOSED);
         log.info("[REDIS SERVICE] Daily tournament is now NOT active");
     }
 
     /**
      * Checks if there is an active tournament available.
-     * If no active tournament is found in Redis, it throws a NoActiveTournamentException.
+     * If no active tournament is found, it throws a NoActiveTournamentException.
+     * The check is answered from the in-process copy of the epoch record and does not call Redis.
      *
      * @throws NoActiveTournamentException if no active tournament is currently stored in Redis.
      */
     @Override
     public void checkActiveTournament() {
-        if (!hasActiveTournament()) {
-            throw new NoActiveTournamentException("There is no active tournament");        }
+        if (!activeTournamentCache.get().isActive()) {
+            throw new NoActiveTournamentException("There is no active tournament");
+        }
     }
 
     /**
-     * Retrieves the ID of the currently active tournament from Redis.
+     * Retrieves the ID of the currently active tournament.
      * This ID is used to fetch tournament-specific data and manage game flow.
+     * The ID is read from the in-process copy of the epoch record and does not call Redis.
      * @return The ID of the currently active tournament, or null if no tournament is active.
      */
     @Override
     public Long getActiveTournamentId() {
-        String id = redisTemplate.opsForValue().get("activeTournamentId");
-        return id != null ? Long.parseLong(id) : null;    }
+        return activeTournamentCache.get().getActiveTournamentId();
+    }
 
     /**
-     * Closes the currently active tournament in Redis by clearing the tournament's active flag.
-     * This function is typically called when a tournament reaches its end time to clean up and prepare for the next tournament.
+     * Retrieves the end time of the currently active tournament from the in-process copy of the epoch record.
+     *
+     * @return The end time of the active tournament, or null if no tournament is active.
+     */
+    @Override
+    public LocalDateTime getActiveTournamentEndTime() {
+        ActiveTournament activeTournament = activeTournamentCache.get();
+        return activeTournament.isActive() ? activeTournament.getEndTime() : null;
+    }
+
+    /**
+     * Creates the country leaderboard of a tournament with every country at a score of zero.
+     * The leaderboard expires a grace period after the tournament ends.
+     *
+     * @param tournamentId The ID of the tournament.
      */
     @Override
     public void createCountryLeaderBoard(Long tournamentId) {
@@ -109,6 +185,7 @@ public class RedisServiceImpl implements RedisService {
         zSetOps.add(key, "UNITED_KINGDOM", 0);
         zSetOps.add(key, "FRANCE", 0);
         zSetOps.add(key, "GERMANY", 0);
+        redisTemplate.expireAt(key, keyExpiry(tournamentId));
 
         log.info("Country LeaderBoard for Tournament {} initialized.", tournamentId);
     }
@@ -128,12 +205,14 @@ public class RedisServiceImpl implements RedisService {
     /**
      * Adds a country to a group's country set in Redis.
      * This is used to track the countries that are already represented in a group.
+     * The set expires with the keys of the active tournament.
      * @param groupCountryKey Redis key for the group's country set.
      * @param country The country to add to the group's set.
      */
     @Override
     public void addCountryToGroup(String groupCountryKey, String country) {
         redisTemplate.opsForSet().add(groupCountryKey, country);
+        redisTemplate.expireAt(groupCountryKey, keyExpiry(activeTournamentCache.get().getTournamentId()));
         log.info("Added country {} to group {}", country, groupCountryKey);
     }
 
@@ -155,15 +234,28 @@ public class RedisServiceImpl implements RedisService {
     /**
      * Increments the score for a user in a specific group's leaderboard.
      * This method adds a specified increment to the user's score in the group leaderboard, managed in Redis.
+     * The same increment is applied to the user's score in the tournament-wide leaderboard.
+     * In the same script the group is added to the tournament's dirty-group set, from which score snapshots
+     * learn which groups changed since the last snapshot, and the group's leaderboard version is bumped and announced
+     * so that every node drops its cached copy of the leaderboard.
+     * Both scores are stored through {@link LeaderBoardScoreCodec} with the time of this increment as the tie-breaker,
+     * so among equal scores the user who reached the score first ranks higher.
      *
+     * @param tournamentId The ID of the tournament the group belongs to.
      * @param groupId The ID of the group whose leaderboard is being updated.
      * @param userId The ID of the user whose score is to be incremented.
      * @param scoreIncrement The amount by which the user's score should be incremented.
-     * @throws IllegalArgumentException if any of the parameters are null or the score increment is negative.
      */
-    public void incrementGroupLeaderBoardScore(Long groupId, Long userId, int scoreIncrement) {
-        String groupLeaderBoardKey = "groupLeaderBoard:" + groupId;
-        redisTemplate.opsForZSet().incrementScore(groupLeaderBoardKey, "User:"+ userId, scoreIncrement);
+    @Override
+    public void incrementGroupLeaderBoardScore(Long tournamentId, Long groupId, Long userId, int scoreIncrement) {
+        redisTemplate.execute(INCREMENT_GROUP_SCORE_SCRIPT,
+                List.of("groupLeaderBoard:" + groupId, dirtyScoreGroupsKey(tournamentId),
+                        GroupLeaderBoardCache.VERSION_KEY_PREFIX + groupId, tournamentLeaderBoardKey(tournamentId)),
+                "User:" + userId, String.valueOf(scoreIncrement), String.valueOf(groupId), GroupLeaderBoardCache.CHANNEL,
+                String.valueOf(LeaderBoardScoreCodec.SCALE),
+                String.valueOf(LeaderBoardScoreCodec.tieBreaker(elapsedMs(tournamentId))),
+                String.valueOf(keyExpiry(tournamentId).getEpochSecond()));
+        groupLeaderBoardCache.invalidate(groupId);
         log.info("Incremented score for user {} in group {} by {}", userId, groupId, scoreIncrement);
     }
 
@@ -179,6 +271,87 @@ public class RedisServiceImpl implements RedisService {
         return redisTemplate.opsForZSet().reverseRangeWithScores(leaderboardKey, 0, -1);
     }
 
+    /**
+     * Retrieves a bounded window of a leaderboard in a single script call. The window either starts at a rank offset,
+     * or is positioned relative to the rank of an anchor member, e.g. to show the entries around a user.
+     * The Redis work and the response size depend on the window size only, not on the size of the leaderboard.
+     *
+     * @param leaderboardKey The Redis key of the leaderboard.
+     * @param anchorMember The member to position the window around, or null to window by rank only.
+     * @param offset The 0-based rank of the first entry, relative to the anchor's rank when an anchor is given.
+     * @param count The maximum number of entries in the window.
+     * @return The window with its entries sorted from the highest to the lowest score, or null if the anchor member
+     *         is not in the leaderboard.
+     */
+    @Override
+    public LeaderBoardPage<ZSetOperations.TypedTuple<String>> getLeaderBoardWindow(String leaderboardKey, String anchorMember,
+                                                                                   int offset, int count) {
+        List<?> result = redisTemplate.execute(LEADERBOARD_WINDOW_SCRIPT, List.of(leaderboardKey),
+                anchorMember == null ? "" : anchorMember, String.valueOf(offset), String.valueOf(count));
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+
+        List<?> flatEntries = (List<?>) result.get(2);
+        List<ZSetOperations.TypedTuple<String>> entries = new ArrayList<>(flatEntries.size() / 2);
+        for (int i = 0; i < flatEntries.size(); i += 2) {
+            entries.add(new DefaultTypedTuple<>((String) flatEntries.get(i), Double.valueOf((String) flatEntries.get(i + 1))));
+        }
+        return new LeaderBoardPage<>(
+                ((Number) result.get(0)).intValue() + 1,
+                ((Number) result.get(1)).longValue(),
+                entries
+        );
+    }
+
+    /**
+     * Looks up the group, rank, score and group size of several users of a tournament in a single script call,
+     * resolving each user's group through the tournament's membership hash.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @param userIds The IDs of the users.
+     * @return One entry per requested user in the same order, with a 1-based rank, or null for users who have not
+     *         entered the tournament.
+     */
+    @Override
+    public List<UserGroupRank> getUserGroupRanks(Long tournamentId, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        List<?> result = redisTemplate.execute(GROUP_RANKS_SCRIPT, List.of(tournamentMembershipKey(tournamentId)),
+                userIds.stream().map(String::valueOf).toArray());
+        List<UserGroupRank> ranks = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            List<?> entry = result != null ? (List<?>) result.get(i) : null;
+            ranks.add(entry == null ? null : UserGroupRank.builder()
+                    .userId(userIds.get(i))
+                    .groupId(((Number) entry.get(0)).longValue())
+                    .rank(((Number) entry.get(1)).intValue() + 1)
+                    .score(LeaderBoardScoreCodec.decode(Double.parseDouble((String) entry.get(2))))
+                    .groupSize(((Number) entry.get(3)).intValue())
+                    .build());
+        }
+        return ranks;
+    }
+
+    /**
+     * Samples the scores of a leaderboard at evenly spaced ranks in a single script call.
+     *
+     * @param leaderboardKey The Redis key of the leaderboard.
+     * @param buckets The number of buckets; one more score than buckets is sampled.
+     * @return The sampled scores from the highest to the lowest, together with the size of the leaderboard.
+     */
+    @Override
+    public ScoreQuantiles getLeaderBoardQuantiles(String leaderboardKey, int buckets) {
+        List<?> result = redisTemplate.execute(LEADERBOARD_QUANTILES_SCRIPT, List.of(leaderboardKey), String.valueOf(buckets));
+        if (result == null || result.isEmpty()) {
+            return ScoreQuantiles.EMPTY;
+        }
+        List<?> scores = (List<?>) result.get(1);
+        return new ScoreQuantiles(((Number) result.get(0)).longValue(),
+                scores.stream().mapToDouble(score -> Double.parseDouble((String) score)).toArray());
+    }
+
     /**
      * Retrieves the rank of a user in a group's leaderboard.
      * This method fetches the user's rank from Redis and adjusts the rank to be 1-indexed.
@@ -215,20 +388,418 @@ public class RedisServiceImpl implements RedisService {
         log.info("Incremented score for country {} by {}", country, scoreIncrement);
     }
 
-    private void setActiveTournament(boolean isActive) {
-        redisTemplate.opsForValue().set("hasActiveTournament", String.valueOf(isActive));
+    /**
+     * Increments the scores of several countries in the tournament's country leaderboard in one pipelined round trip.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @param scoreIncrements The increments mapped to the country they apply to.
+     */
+    @Override
+    public void incrementCountryLeaderBoardScores(Long tournamentId, Map<String, Long> scoreIncrements) {
+        String countryLeaderBoardKey = "countryLeaderBoard:" + tournamentId;
+        long expireAt = keyExpiry(tournamentId).getEpochSecond();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            scoreIncrements.forEach((country, increment) -> stringConnection.zIncrBy(countryLeaderBoardKey, increment, country));
+            stringConnection.expireAt(countryLeaderBoardKey, expireAt);
+            return null;
+        });
+        log.debug("[REDIS SERVICE] Incremented {} country scores of tournament {}", scoreIncrements.size(), tournamentId);
+    }
+
+    /**
+     * Places a user into a group of the tournament that is still missing the user's country.
+     * A single Lua script pops a group from the open-slot index of the country, adds the country to
+     * the group's country set, seeds the user in the group and tournament leaderboards and records the user's membership,
+     * so concurrent joins from several nodes can never put two users of the same country into one group.
+     * The group's leaderboard version is bumped and announced in the same script.
+     * When the user completes the group, the memberships of all its members are flagged as begun.
+     *
+     * @param tournamentId The ID of the tournament the user is entering.
+     * @param userId The ID of the user entering the tournament.
+     * @param country The country of the user.
+     * @return The group the user was placed in together with its new size, or null if no group has a free slot for the country.
+     */
+    @Override
+    public GroupAssignment joinOpenGroup(Long tournamentId, Long userId, String country) {
+        List<?> result = redisTemplate.execute(JOIN_OPEN_GROUP_SCRIPT,
+                List.of(openGroupSlotsKey(tournamentId, country), tournamentMembershipKey(tournamentId),
+                        tournamentLeaderBoardKey(tournamentId)),
+                country, String.valueOf(userId), String.valueOf(GROUP_SIZE), GroupLeaderBoardCache.CHANNEL,
+                String.valueOf(keyExpiry(tournamentId).getEpochSecond()));
+
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        GroupAssignment assignment = new GroupAssignment(
+                ((Number) result.get(0)).longValue(),
+                ((Number) result.get(1)).intValue()
+        );
+        groupLeaderBoardCache.invalidate(assignment.getGroupId());
+        log.info("[REDIS SERVICE] User {} joined group {} (size {})", userId, assignment.getGroupId(), assignment.getGroupSize());
+        return assignment;
+    }
+
+    /**
+     * Registers a newly created group in Redis. The founding members are seeded in the group leaderboard and in the
+     * tournament's membership hash, their countries are added to the group's country set, and the group is advertised in the open-slot index of every
+     * country it is still missing so that later joins can find it in O(1). A full group is not advertised at all.
+     * Every key the script touches expires a grace period after the tournament ends.
+     *
+     * @param tournamentId The ID of the tournament the group belongs to.
+     * @param groupId The ID of the newly created group.
+     * @param memberCountries The founding members of the group mapped to their countries.
+     */
+    @Override
+    public void registerGroup(Long tournamentId, Long groupId, Map<Long, String> memberCountries) {
+        List<String> keys = new ArrayList<>();
+        keys.add(tournamentMembershipKey(tournamentId));
+        keys.add(tournamentLeaderBoardKey(tournamentId));
+        keys.add("groupCountryMapping:" + groupId);
+        keys.add("groupLeaderBoard:" + groupId);
+        keys.add(GroupLeaderBoardCache.VERSION_KEY_PREFIX + groupId);
+        Arrays.stream(Country.values())
+                .map(Country::name)
+                .filter(missingCountry -> !memberCountries.containsValue(missingCountry))
+                .forEach(missingCountry -> keys.add(openGroupSlotsKey(tournamentId, missingCountry)));
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(groupId));
+        args.add(memberCountries.size() >= GROUP_SIZE ? "1" : "0");
+        args.add(GroupLeaderBoardCache.CHANNEL);
+        args.add(String.valueOf(keyExpiry(tournamentId).getEpochSecond()));
+        memberCountries.forEach((userId, country) -> {
+            args.add(String.valueOf(userId));
+            args.add(country);
+        });
+        redisTemplate.execute(REGISTER_GROUP_SCRIPT, keys, args.toArray());
+        groupLeaderBoardCache.invalidate(groupId);
+        log.info("[REDIS SERVICE] Registered group {} of tournament {} with {} open slots", groupId, tournamentId, keys.size() - 5);
+    }
+
+    /**
+     * Takes a user back out of a group joined with {@link #joinOpenGroup}, undoing the join when it could not be
+     * persisted. The user's membership, leaderboard entries and country are removed, the country's slot is advertised
+     * again and the remaining members are flagged as waiting, since the group is no longer complete.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @param groupId The ID of the group the user joined.
+     * @param userId The ID of the user.
+     * @param country The country of the user.
+     * @return true if the user was removed, false if the user was not in the group.
+     */
+    @Override
+    public boolean leaveGroup(Long tournamentId, Long groupId, Long userId, String country) {
+        Long removed = redisTemplate.execute(LEAVE_GROUP_SCRIPT,
+                List.of(openGroupSlotsKey(tournamentId, country), tournamentMembershipKey(tournamentId),
+                        tournamentLeaderBoardKey(tournamentId), "groupCountryMapping:" + groupId, "groupLeaderBoard:" + groupId,
+                        GroupLeaderBoardCache.VERSION_KEY_PREFIX + groupId),
+                country, String.valueOf(userId), String.valueOf(groupId), GroupLeaderBoardCache.CHANNEL,
+                String.valueOf(keyExpiry(tournamentId).getEpochSecond()));
+        groupLeaderBoardCache.invalidate(groupId);
+        log.info("[REDIS SERVICE] User {} left group {} of tournament {}", userId, groupId, tournamentId);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * Removes a group registered with {@link #registerGroup} whose creation could not be completed. The founding
+     * members are taken out of the tournament, the group's keys are deleted and it is no longer advertised.
+     *
+     * @param tournamentId The ID of the tournament the group belongs to.
+     * @param groupId The ID of the group.
+     * @param memberIds The IDs of the founding members.
+     */
+    @Override
+    public void unregisterGroup(Long tournamentId, Long groupId, Collection<Long> memberIds) {
+        List<String> keys = new ArrayList<>();
+        keys.add(tournamentMembershipKey(tournamentId));
+        keys.add(tournamentLeaderBoardKey(tournamentId));
+        keys.add("groupCountryMapping:" + groupId);
+        keys.add("groupLeaderBoard:" + groupId);
+        keys.add(GroupLeaderBoardCache.VERSION_KEY_PREFIX + groupId);
+        Arrays.stream(Country.values()).forEach(country -> keys.add(openGroupSlotsKey(tournamentId, country.name())));
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(groupId));
+        args.add(GroupLeaderBoardCache.CHANNEL);
+        memberIds.forEach(userId -> args.add(String.valueOf(userId)));
+        redisTemplate.execute(UNREGISTER_GROUP_SCRIPT, keys, args.toArray());
+        groupLeaderBoardCache.invalidate(groupId);
+        log.info("[REDIS SERVICE] Unregistered group {} of tournament {}", groupId, tournamentId);
+    }
+
+    /**
+     * Looks up the group a user was placed in for a tournament, using the tournament's membership hash.
+     * The hash maps each user ID to "groupId:began", where began is 1 once the group is complete.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @param userId The ID of the user.
+     * @return The user's group and whether it has begun, or null if the user has not entered the tournament.
+     */
+    @Override
+    public TournamentMembership getTournamentMembership(Long tournamentId, Long userId) {
+        if (tournamentId == null) {
+            return null;
+        }
+        Object membership = redisTemplate.opsForHash().get(tournamentMembershipKey(tournamentId), String.valueOf(userId));
+        if (membership == null) {
+            return null;
+        }
+        String[] parts = membership.toString().split(":");
+        return new TournamentMembership(Long.parseLong(parts[0]), "1".equals(parts[1]));
+    }
+
+    /**
+     * Removes the leaderboards and bookkeeping keys of a finished tournament once its standings have been archived.
+     * The keys are unlinked in batches, so Redis reclaims their memory in the background without blocking.
+     *
+     * @param tournamentId The ID of the finished tournament.
+     * @param groupIds The IDs of all groups of the tournament.
+     */
+    @Override
+    public void deleteTournamentLeaderBoards(Long tournamentId, List<Long> groupIds) {
+        redisTemplate.unlink(List.of("countryLeaderBoard:" + tournamentId, tournamentLeaderBoardKey(tournamentId),
+                tournamentMembershipKey(tournamentId), dirtyScoreGroupsKey(tournamentId)));
+        for (int from = 0; from < groupIds.size(); from += GROUPS_PER_UNLINK) {
+            List<String> keys = new ArrayList<>();
+            for (Long groupId : groupIds.subList(from, Math.min(from + GROUPS_PER_UNLINK, groupIds.size()))) {
+                keys.add("groupLeaderBoard:" + groupId);
+                keys.add(GroupLeaderBoardCache.VERSION_KEY_PREFIX + groupId);
+                keys.add("groupCountryMapping:" + groupId);
+            }
+            redisTemplate.unlink(keys);
+        }
+        log.info("[REDIS SERVICE] Deleted the leaderboards of tournament {} and its {} groups", tournamentId, groupIds.size());
+    }
+
+    /**
+     * Retrieves the leaderboards of several groups in one pipelined round trip.
+     *
+     * @param groupIds The IDs of the groups whose leaderboards are to be fetched.
+     * @return The leaderboard of every group, sorted from the highest to the lowest score.
+     */
+    @Override
+    public Map<Long, Set<ZSetOperations.TypedTuple<String>>> getGroupLeaderBoards(Collection<Long> groupIds) {
+        List<Long> orderedGroupIds = new ArrayList<>(groupIds);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            orderedGroupIds.forEach(groupId -> stringConnection.zRevRangeWithScores("groupLeaderBoard:" + groupId, 0, -1));
+            return null;
+        });
+
+        Map<Long, Set<ZSetOperations.TypedTuple<String>>> leaderBoards = new LinkedHashMap<>();
+        for (int i = 0; i < orderedGroupIds.size(); i++) {
+            leaderBoards.put(orderedGroupIds.get(i), toTuples(results.get(i)));
+        }
+        return leaderBoards;
+    }
+
+    /**
+     * Copies a pipelined ZRANGE WITHSCORES result into a typed set, keeping the order of the reply.
+     */
+    private static Set<ZSetOperations.TypedTuple<String>> toTuples(Object result) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = new LinkedHashSet<>();
+        if (result instanceof Collection<?> entries) {
+            for (Object entry : entries) {
+                if (entry instanceof ZSetOperations.TypedTuple<?> tuple) {
+                    tuples.add(new DefaultTypedTuple<>(String.valueOf(tuple.getValue()), tuple.getScore()));
+                }
+            }
+        }
+        return tuples;
+    }
+
+    /**
+     * Retrieves the top players of several groups in one pipelined round trip, reading only the requested head of
+     * each leaderboard.
+     *
+     * @param groupIds The IDs of the groups.
+     * @param count The number of top players to read per group.
+     * @return The user IDs of every group's top players, from the highest to the lowest score.
+     */
+    @Override
+    public Map<Long, List<Long>> getGroupLeaders(Collection<Long> groupIds, int count) {
+        List<Long> orderedGroupIds = new ArrayList<>(groupIds);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            orderedGroupIds.forEach(groupId -> stringConnection.zRevRange("groupLeaderBoard:" + groupId, 0, count - 1));
+            return null;
+        });
+
+        Map<Long, List<Long>> leaders = new LinkedHashMap<>();
+        for (int i = 0; i < orderedGroupIds.size(); i++) {
+            leaders.put(orderedGroupIds.get(i), results.get(i) instanceof Collection<?> members ? members.stream()
+                    .map(member -> Long.parseLong(String.valueOf(member).split(":")[1]))
+                    .toList() : List.of());
+        }
+        return leaders;
+    }
+
+    /**
+     * Sets the bits of the given users in the unclaimed-reward bitmap, in one pipelined round trip.
+     *
+     * @param userIds The IDs of the users who won a reward.
+     */
+    @Override
+    public void markUnclaimedRewards(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            userIds.forEach(userId -> stringConnection.setBit(UNCLAIMED_REWARDS_KEY, userId, true));
+            return null;
+        });
+    }
+
+    /**
+     * Clears the bit of a user in the unclaimed-reward bitmap once the user has claimed their rewards.
+     *
+     * @param userId The ID of the user.
+     */
+    @Override
+    public void clearUnclaimedRewards(Long userId) {
+        redisTemplate.opsForValue().setBit(UNCLAIMED_REWARDS_KEY, userId, false);
+    }
+
+    /**
+     * Checks the unclaimed-reward bitmap with a single GETBIT.
+     *
+     * @param userId The ID of the user.
+     * @return true if the user has rewards left to claim.
+     */
+    @Override
+    public boolean hasUnclaimedRewards(Long userId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().getBit(UNCLAIMED_REWARDS_KEY, userId));
+    }
+
+    /**
+     * Checks whether the unclaimed-reward bitmap exists, so that it can be rebuilt after a Redis data loss.
+     *
+     * @return true if the bitmap exists.
+     */
+    @Override
+    public boolean hasUnclaimedRewardIndex() {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(UNCLAIMED_REWARDS_KEY));
+    }
+
+    /**
+     * Announces that the rewards of a tournament are being computed, so that every node joins the work.
+     *
+     * @param tournamentId The ID of the closing tournament.
+     * @param ttl How long the announcement lasts if the close is never ended, e.g. because its node died.
+     */
+    @Override
+    public void announceTournamentClose(Long tournamentId, Duration ttl) {
+        redisTemplate.opsForValue().set(CLOSING_TOURNAMENT_KEY, String.valueOf(tournamentId), ttl);
+    }
+
+    /**
+     * Retrieves the tournament whose rewards are being computed.
+     *
+     * @return The ID of the closing tournament, or null if no close is running.
+     */
+    @Override
+    public Long getClosingTournamentId() {
+        String tournamentId = redisTemplate.opsForValue().get(CLOSING_TOURNAMENT_KEY);
+        return tournamentId == null ? null : Long.parseLong(tournamentId);
+    }
+
+    /**
+     * Withdraws the announcement of a tournament close.
+     *
+     * @param tournamentId The ID of the tournament whose close has ended.
+     */
+    @Override
+    public void endTournamentClose(Long tournamentId) {
+        redisTemplate.delete(CLOSING_TOURNAMENT_KEY);
+        log.info("[REDIS SERVICE] Close of tournament {} has ended", tournamentId);
+    }
+
+    /**
+     * Removes and returns up to the given number of groups from the tournament's dirty-group set.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @param count The maximum number of groups to pop.
+     * @return The IDs of the popped groups, empty if no group has changed.
+     */
+    @Override
+    public List<Long> popDirtyScoreGroups(Long tournamentId, int count) {
+        List<String> groupIds = redisTemplate.opsForSet().pop(dirtyScoreGroupsKey(tournamentId), count);
+        return groupIds == null ? List.of() : groupIds.stream().map(Long::parseLong).toList();
+    }
+
+    /**
+     * Adds groups to the tournament's dirty-group set, e.g. to retry a snapshot that could not be written.
+     *
+     * @param tournamentId The ID of the tournament.
+     * @param groupIds The IDs of the groups whose scores still need a snapshot.
+     */
+    @Override
+    public void markScoreGroupsDirty(Long tournamentId, Collection<Long> groupIds) {
+        if (!groupIds.isEmpty()) {
+            redisTemplate.opsForSet().add(dirtyScoreGroupsKey(tournamentId), groupIds.stream().map(String::valueOf).toArray(String[]::new));
+            redisTemplate.expireAt(dirtyScoreGroupsKey(tournamentId), keyExpiry(tournamentId));
+        }
+    }
+
+    private String openGroupSlotsKey(Long tournamentId, String country) {
+        return "openGroupSlots:" + tournamentId + ":" + country;
+    }
+
+    /**
+     * Milliseconds since the start of the given tournament, or the end of the tie-breaker range if it is not the
+     * active tournament.
+     */
+    private long elapsedMs(Long tournamentId) {
+        ActiveTournament activeTournament = activeTournamentCache.get();
+        if (tournamentId == null || !tournamentId.equals(activeTournament.getTournamentId()) || activeTournament.getStartTime() == null) {
+            return LeaderBoardScoreCodec.SCALE - 1;
+        }
+        return Duration.between(activeTournament.getStartTime(), LocalDateTime.now()).toMillis();
+    }
+
+    /**
+     * Time at which the keys of the given tournament expire: the end of the tournament plus the grace period, or the
+     * grace period from now if it is not the active tournament.
+     */
+    private Instant keyExpiry(Long tournamentId) {
+        ActiveTournament activeTournament = activeTournamentCache.get();
+        Duration grace = Duration.ofHours(keyGraceHours);
+        if (tournamentId == null || !tournamentId.equals(activeTournament.getTournamentId()) || activeTournament.getEndTime() == null) {
+            return Instant.now().plus(grace);
+        }
+        return activeTournament.getEndTime().atZone(ZoneId.systemDefault()).toInstant().plus(grace);
+    }
+
+    private String tournamentLeaderBoardKey(Long tournamentId) {
+        return "tournamentLeaderBoard:" + tournamentId;
+    }
+
+    private String tournamentMembershipKey(Long tournamentId) {
+        return "tournamentMembership:" + tournamentId;
     }
 
-    private boolean hasActiveTournament() {
-        String result = redisTemplate.opsForValue().get("hasActiveTournament");
-        return Boolean.parseBoolean(result);
+    private String dirtyScoreGroupsKey(Long tournamentId) {
+        return "dirtyScoreGroups:" + tournamentId;
     }
 
-    private void setActiveTournamentId(Long tournamentId) {
-        redisTemplate.opsForValue().set("activeTournamentId", String.valueOf(tournamentId));
+    private void clearOpenGroupSlots(Long tournamentId) {
+        List<String> openSlotKeys = Arrays.stream(Country.values())
+                .map(country -> openGroupSlotsKey(tournamentId, country.name()))
+                .toList();
+        redisTemplate.delete(openSlotKeys);
     }
 
-    private void clearActiveTournamentId() {
-        redisTemplate.delete("activeTournamentId");
+    private Long switchTournament(Long tournamentId, LocalDateTime startTime, LocalDateTime endTime, String status) {
+        Long epoch = redisTemplate.execute(SWITCH_TOURNAMENT_SCRIPT,
+                List.of(ActiveTournamentCache.EPOCH_KEY, ActiveTournamentCache.RECORD_KEY, "hasActiveTournament", "activeTournamentId"),
+                ActiveTournamentCache.CHANNEL,
+                tournamentId != null ? String.valueOf(tournamentId) : "",
+                startTime != null ? startTime.toString() : "",
+                endTime != null ? endTime.toString() : "",
+                status);
+        activeTournamentCache.refresh();
+        return epoch;
     }
 }
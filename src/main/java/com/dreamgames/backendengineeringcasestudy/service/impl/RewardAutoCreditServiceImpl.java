@@ -0,0 +1,124 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.model.tournament.UnclaimedReward;
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressDelta;
+import com.dreamgames.backendengineeringcasestudy.repository.ProgressBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentRewardsBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.RewardAutoCreditService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Background job that credits tournament rewards their winners never claimed.
+ * <p>
+ * Each run locks one keyset page of unclaimed rewards older than tournament.rewards.auto-credit.min-age-hours with
+ * {@code FOR UPDATE SKIP LOCKED}, adds the coins per user with one set-based {@code UPDATE users JOIN (...)} and marks
+ * the page claimed, all in one transaction. Rows held by a live claim or by another node are skipped rather than
+ * waited for, and a single page per run, at tournament.rewards.auto-credit.interval-ms, keeps the job from competing
+ * with the hot path. The page's users are then cleared from the unclaimed-reward bitmap, and those who still have
+ * unclaimed rewards, including rewards committed meanwhile, are set again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RewardAutoCreditServiceImpl implements RewardAutoCreditService {
+
+    private final TournamentRewardsBatchRepository tournamentRewardsBatchRepository;
+    private final ProgressBatchRepository progressBatchRepository;
+    private final RedisService redisService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tournament.rewards.auto-credit.enabled:false}")
+    private boolean enabled;
+    @Value("${tournament.rewards.auto-credit.min-age-hours:72}")
+    private long minAgeHours;
+    @Value("${tournament.rewards.auto-credit.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Keyset cursor of the rewards scanned so far. Each node scans on its own; rows locked by another node are skipped.
+     */
+    private long lastRewardId;
+
+    private Counter creditedRewards;
+
+    @PostConstruct
+    public void start() {
+        creditedRewards = Counter.builder("tournament.rewards.auto-credited")
+                .description("Number of unclaimed tournament rewards credited by the background job")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Credits one page of unclaimed rewards that are older than the configured age.
+     * The cursor starts over once a page comes back short, so rewards that were locked by a live claim are retried
+     * on the next pass.
+     *
+     * @return the number of credited rewards.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tournament.rewards.auto-credit.interval-ms:1000}")
+    public int creditExpiredRewards() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime createdBefore = LocalDateTime.now().minusHours(minAgeHours);
+        List<UnclaimedReward> rewards;
+        try {
+            rewards = transactionTemplate.execute(status -> {
+                List<UnclaimedReward> page = tournamentRewardsBatchRepository.lockUnclaimedCreatedBefore(createdBefore, lastRewardId, batchSize);
+                if (!page.isEmpty()) {
+                    credit(page);
+                }
+                return page;
+            });
+        } catch (RuntimeException exception) {
+            log.error("[REWARD AUTO CREDIT] Crediting rewards after id {} failed, retrying with the next run", lastRewardId, exception);
+            return 0;
+        }
+
+        lastRewardId = rewards.size() < batchSize ? 0 : rewards.get(rewards.size() - 1).getRewardId();
+        if (rewards.isEmpty()) {
+            return 0;
+        }
+        clearClaimedUsers(rewards);
+        creditedRewards.increment(rewards.size());
+        log.info("[REWARD AUTO CREDIT] Credited {} unclaimed rewards created before {}", rewards.size(), createdBefore);
+        return rewards.size();
+    }
+
+    private void credit(List<UnclaimedReward> rewards) {
+        // Sorted by user, so concurrent batches lock user rows in the same order
+        Map<Long, Integer> coinsByUser = new TreeMap<>();
+        rewards.forEach(reward -> coinsByUser.merge(reward.getUserId(), reward.getCoinsWon(), Integer::sum));
+        List<UserProgressDelta> deltas = new ArrayList<>(coinsByUser.size());
+        coinsByUser.forEach((userId, coins) -> deltas.add(new UserProgressDelta(userId, 0, coins)));
+
+        progressBatchRepository.addUserProgress(deltas);
+        tournamentRewardsBatchRepository.markClaimed(rewards.stream().map(UnclaimedReward::getRewardId).toList());
+    }
+
+    private void clearClaimedUsers(List<UnclaimedReward> rewards) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        rewards.forEach(reward -> userIds.add(reward.getUserId()));
+        try {
+            // Clear first and re-check afterwards, so a reward committed in between is never left without its bit
+            userIds.forEach(redisService::clearUnclaimedRewards);
+            redisService.markUnclaimedRewards(tournamentRewardsBatchRepository.findUserIdsWithUnclaimedRewards(userIds));
+        } catch (RuntimeException exception) {
+            log.warn("[REWARD AUTO CREDIT] Could not clear the unclaimed reward bits of {} users", userIds.size(), exception);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.enums.Country;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupScore;
+import com.dreamgames.backendengineeringcasestudy.repository.ProgressBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentGroupsRepository;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.ScoreSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshots of Redis-authoritative tournament scores into MySQL.
+ * <p>
+ * With tournament.scores.redis-authoritative enabled, level-ups only increment the group leaderboards in Redis and
+ * group_info.score is no longer written per level-up. Every increment marks its group in the tournament's dirty-group
+ * set. A scheduled job pops the dirty groups and copies their current scores into group_info with batched multi-row
+ * UPDATEs, and the tournament close writes a final snapshot of every started group.
+ * <p>
+ * Crash recovery: snapshots write absolute scores, so repeating one is harmless. Groups whose snapshot fails are put
+ * back into the dirty set, and a node crash between popping and writing is covered by the full snapshot at close.
+ * MySQL therefore lags Redis by at most one snapshot interval while a tournament is running.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScoreSnapshotServiceImpl implements ScoreSnapshotService {
+
+    private static final int GROUP_SIZE = Country.values().length;
+    private static final int GROUPS_PER_BATCH = 500;
+
+    private final RedisService redisService;
+    private final TournamentGroupsRepository tournamentGroupsRepository;
+    private final ProgressBatchRepository progressBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${tournament.scores.redis-authoritative:false}")
+    private boolean redisAuthoritative;
+
+    /**
+     * Tells whether Redis is the source of truth for scores of the active tournament.
+     *
+     * @return true if group scores are only written to MySQL by snapshots.
+     */
+    @Override
+    public boolean isRedisAuthoritative() {
+        return redisAuthoritative;
+    }
+
+    /**
+     * Copies the scores of all groups that changed since the last snapshot of the active tournament into MySQL.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tournament.scores.snapshot-interval-ms:60000}")
+    public void snapshotDirtyGroups() {
+        if (!redisAuthoritative) {
+            return;
+        }
+        Long tournamentId = redisService.getActiveTournamentId();
+        if (tournamentId == null) {
+            return;
+        }
+
+        int snapshotGroups = 0;
+        List<Long> groupIds;
+        while (!(groupIds = redisService.popDirtyScoreGroups(tournamentId, GROUPS_PER_BATCH)).isEmpty()) {
+            try {
+                writeScores(groupIds);
+                snapshotGroups += groupIds.size();
+            } catch (RuntimeException exception) {
+                log.error("[SCORE SNAPSHOT] Snapshot of {} groups of tournament {} failed, retrying with the next run",
+                        groupIds.size(), tournamentId, exception);
+                redisService.markScoreGroupsDirty(tournamentId, groupIds);
+                return;
+            }
+        }
+        if (snapshotGroups > 0) {
+            log.info("[SCORE SNAPSHOT] Wrote scores of {} groups of tournament {}", snapshotGroups, tournamentId);
+        }
+    }
+
+    /**
+     * Writes the final scores of every started group of the tournament into MySQL.
+     * Called when the tournament is closed, before its Redis state is cleared.
+     *
+     * @param tournamentId The ID of the tournament being closed.
+     */
+    @Override
+    public void snapshotTournament(Long tournamentId) {
+        if (!redisAuthoritative || tournamentId == null) {
+            return;
+        }
+        List<Long> groupIds = tournamentGroupsRepository.findGroupIdsByTournamentIdAndGroupSize(tournamentId, GROUP_SIZE);
+        for (int from = 0; from < groupIds.size(); from += GROUPS_PER_BATCH) {
+            writeScores(groupIds.subList(from, Math.min(from + GROUPS_PER_BATCH, groupIds.size())));
+        }
+        log.info("[SCORE SNAPSHOT] Wrote final scores of {} groups of tournament {}", groupIds.size(), tournamentId);
+    }
+
+    private void writeScores(List<Long> groupIds) {
+        List<GroupScore> scores = new ArrayList<>();
+        for (Map.Entry<Long, Set<ZSetOperations.TypedTuple<String>>> leaderBoard : redisService.getGroupLeaderBoards(groupIds).entrySet()) {
+            for (ZSetOperations.TypedTuple<String> entry : leaderBoard.getValue()) {
+                Long userId = Long.parseLong(entry.getValue().split(":")[1]);
+                scores.add(new GroupScore(leaderBoard.getKey(), userId, LeaderBoardScoreCodec.decode(entry.getScore())));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> progressBatchRepository.setGroupScores(scores));
+    }
+}
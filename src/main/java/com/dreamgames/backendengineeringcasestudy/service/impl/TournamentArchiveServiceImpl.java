@@ -0,0 +1,271 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.archive.TournamentArchiveFile;
+import com.dreamgames.backendengineeringcasestudy.domain.TournamentArchive;
+import com.dreamgames.backendengineeringcasestudy.exception.TournamentArchiveNotFoundException;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentHistoryEntry;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupScore;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentArchiveRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentGroupsRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.UserDisplayName;
+import com.dreamgames.backendengineeringcasestudy.service.CountryScoreBufferService;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentArchiveService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Archive of the final standings of finished tournaments.
+ * <p>
+ * When a tournament closes, the final group and country leaderboards are read from Redis, written in the compact
+ * binary layout of {@link TournamentArchiveFile}, compressed and stored as one row of tournament_archives. The
+ * tournament's leaderboards are then removed from Redis, so finished tournaments no longer hold Redis memory and
+ * historical queries never touch the live tournament's Redis.
+ * <p>
+ * Reads decompress an archive once into a local file per node and memory-map it, so past leaderboards and player
+ * histories are served from the page cache with binary searches. The local files are only a cache of the table
+ * and can be deleted at any time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TournamentArchiveServiceImpl implements TournamentArchiveService {
+
+    private static final int GROUPS_PER_BATCH = 500;
+    private static final int MAX_HISTORY_SIZE = 100;
+
+    private final RedisService redisService;
+    private final CountryScoreBufferService countryScoreBufferService;
+    private final TournamentGroupsRepository tournamentGroupsRepository;
+    private final TournamentArchiveRepository tournamentArchiveRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${tournament.archive.enabled:true}")
+    private boolean enabled;
+    @Value("${tournament.archive.directory:${java.io.tmpdir}/tournament-archives}")
+    private String directory;
+    @Value("${tournament.archive.max-open-files:64}")
+    private long maxOpenFiles;
+
+    private Cache<Long, TournamentArchiveFile> openArchives;
+
+    @PostConstruct
+    public void start() {
+        openArchives = Caffeine.newBuilder()
+                .maximumSize(maxOpenFiles)
+                .build();
+    }
+
+    /**
+     * Archives the final standings of a closed tournament and removes its leaderboards from Redis.
+     * A failure leaves the leaderboards in Redis and is rethrown, so that the close keeps the tournament active in Redis
+     * and retries the archive. An existing archive is kept as it is, which makes the retry only remove the leaderboards.
+     *
+     * @param tournamentId the ID of the closed tournament.
+     * @throws UncheckedIOException if the archive could not be written.
+     */
+    @Override
+    public void archiveTournament(Long tournamentId) {
+        if (!enabled || tournamentId == null) {
+            return;
+        }
+        try {
+            List<Long> groupIds = tournamentGroupsRepository.findGroupIdsByTournamentId(tournamentId);
+            if (!tournamentArchiveRepository.existsById(tournamentId)) {
+                TournamentArchive archive = buildArchive(tournamentId, groupIds);
+                TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+                newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                newTransaction.executeWithoutResult(status -> tournamentArchiveRepository.save(archive));
+                log.info("[TOURNAMENT ARCHIVE] Archived {} players of {} groups of tournament {} in {} bytes",
+                        archive.getPlayerCount(), archive.getGroupCount(), tournamentId, archive.getData().length);
+            }
+            redisService.deleteTournamentLeaderBoards(tournamentId, groupIds);
+        } catch (IOException exception) {
+            log.error("[TOURNAMENT ARCHIVE] Could not archive tournament {}, its leaderboards are kept in Redis", tournamentId);
+            throw new UncheckedIOException("Could not archive tournament " + tournamentId, exception);
+        } catch (RuntimeException exception) {
+            log.error("[TOURNAMENT ARCHIVE] Could not archive tournament {}, its leaderboards are kept in Redis", tournamentId);
+            throw exception;
+        }
+    }
+
+    /**
+     * Retrieves the final leaderboard of a group of an archived tournament.
+     *
+     * @param tournamentId the ID of the archived tournament.
+     * @param groupId the ID of the group.
+     * @return the final leaderboard of the group, or an empty list if the group did not take part in the tournament.
+     * @throws TournamentArchiveNotFoundException if the tournament has not been archived.
+     */
+    @Override
+    public List<GroupLeaderBoard> getArchivedGroupLeaderBoard(Long tournamentId, Long groupId) {
+        List<GroupScore> standings = requireArchive(tournamentId).getGroupStandings(groupId);
+        if (standings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, UserDisplayName> displayNames = userRepository.findDisplayNamesByUserIdIn(
+                        standings.stream().map(GroupScore::getUserId).toList()).stream()
+                .collect(Collectors.toMap(UserDisplayName::getUserId, Function.identity()));
+        return standings.stream()
+                .map(standing -> {
+                    UserDisplayName displayName = displayNames.get(standing.getUserId());
+                    if (displayName == null) {
+                        throw new IllegalStateException("User info not found for userId: " + standing.getUserId());
+                    }
+                    return new GroupLeaderBoard(standing.getUserId(), displayName.getUsername(), displayName.getCountry(), standing.getScore());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves the final country leaderboard of an archived tournament.
+     *
+     * @param tournamentId the ID of the archived tournament.
+     * @return the final country leaderboard, from the highest score to the lowest.
+     * @throws TournamentArchiveNotFoundException if the tournament has not been archived.
+     */
+    @Override
+    public List<CountryLeaderBoard> getArchivedCountryLeaderBoard(Long tournamentId) {
+        return requireArchive(tournamentId).getCountryLeaderBoard();
+    }
+
+    /**
+     * Looks up the final standing of a user in an archived tournament.
+     *
+     * @param tournamentId the ID of the tournament.
+     * @param userId the ID of the user.
+     * @return the group, rank and score of the user, or null if the tournament has not been archived or the user did
+     *         not take part in it.
+     */
+    @Override
+    public TournamentHistoryEntry findArchivedStanding(Long tournamentId, Long userId) {
+        TournamentArchiveFile archive = openArchive(tournamentId);
+        return archive != null ? archive.findStanding(userId) : null;
+    }
+
+    /**
+     * Retrieves the final standings of a user in the most recently archived tournaments.
+     *
+     * @param userId the ID of the user.
+     * @param limit the number of most recent archived tournaments to look at, capped at {@value #MAX_HISTORY_SIZE}.
+     * @return the standings of the user, from the most recent tournament to the oldest one.
+     */
+    @Override
+    public List<TournamentHistoryEntry> getUserHistory(Long userId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY_SIZE));
+        List<TournamentHistoryEntry> history = new ArrayList<>();
+        for (Long tournamentId : tournamentArchiveRepository.findLatestTournamentIds(PageRequest.of(0, size))) {
+            TournamentHistoryEntry standing = findArchivedStanding(tournamentId, userId);
+            if (standing != null) {
+                history.add(standing);
+            }
+        }
+        return history;
+    }
+
+    private TournamentArchive buildArchive(Long tournamentId, List<Long> groupIds) throws IOException {
+        List<GroupScore> standings = new ArrayList<>();
+        for (int from = 0; from < groupIds.size(); from += GROUPS_PER_BATCH) {
+            List<Long> batch = groupIds.subList(from, Math.min(from + GROUPS_PER_BATCH, groupIds.size()));
+            redisService.getGroupLeaderBoards(batch).forEach((groupId, leaderBoard) -> {
+                for (ZSetOperations.TypedTuple<String> entry : leaderBoard) {
+                    Long userId = Long.parseLong(entry.getValue().split(":")[1]);
+                    standings.add(new GroupScore(groupId, userId, LeaderBoardScoreCodec.decode(entry.getScore())));
+                }
+            });
+        }
+
+        countryScoreBufferService.flush();
+        Set<ZSetOperations.TypedTuple<String>> countryScores = redisService.getCountryLeaderBoard("countryLeaderBoard:" + tournamentId);
+        List<CountryLeaderBoard> countryLeaderBoard = countryScores == null ? List.of() : countryScores.stream()
+                .map(entry -> new CountryLeaderBoard(entry.getValue(), entry.getScore() != null ? entry.getScore().intValue() : 0))
+                .toList();
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(data, new Deflater(Deflater.BEST_COMPRESSION))) {
+            TournamentArchiveFile.write(out, tournamentId, countryLeaderBoard, standings);
+        }
+        return TournamentArchive.builder()
+                .tournamentId(tournamentId)
+                .formatVersion(TournamentArchiveFile.FORMAT_VERSION)
+                .groupCount(groupIds.size())
+                .playerCount(standings.size())
+                .data(data.toByteArray())
+                .build();
+    }
+
+    private TournamentArchiveFile requireArchive(Long tournamentId) {
+        TournamentArchiveFile archive = openArchive(tournamentId);
+        if (archive == null) {
+            throw new TournamentArchiveNotFoundException("No archive found for tournament: " + tournamentId);
+        }
+        return archive;
+    }
+
+    /**
+     * Returns the memory-mapped archive of a tournament, extracting it from the database into the local directory
+     * first if needed. Tournaments without an archive are not cached, as they may be archived later.
+     */
+    private TournamentArchiveFile openArchive(Long tournamentId) {
+        return openArchives.get(tournamentId, this::mapArchive);
+    }
+
+    private TournamentArchiveFile mapArchive(Long tournamentId) {
+        Path file = Path.of(directory, tournamentId + ".tarc");
+        try {
+            if (Files.notExists(file)) {
+                Optional<TournamentArchive> archive = tournamentArchiveRepository.findById(tournamentId);
+                if (archive.isEmpty()) {
+                    return null;
+                }
+                extract(archive.get(), file);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return TournamentArchiveFile.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not open the archive of tournament " + tournamentId, exception);
+        }
+    }
+
+    private void extract(TournamentArchive archive, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporary = Files.createTempFile(file.getParent(), archive.getTournamentId() + "-", ".tmp");
+        try {
+            try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(archive.getData()))) {
+                Files.copy(in, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
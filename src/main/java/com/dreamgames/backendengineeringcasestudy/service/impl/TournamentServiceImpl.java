@@ -1,125 +1,132 @@
 package com.dreamgames.backendengineeringcasestudy.service.impl;
 
 import com.dreamgames.backendengineeringcasestudy.domain.*;
+import com.dreamgames.backendengineeringcasestudy.enums.Country;
+import com.dreamgames.backendengineeringcasestudy.enums.TournamentEntryRejection;
 import com.dreamgames.backendengineeringcasestudy.exception.UnClaimedRewardFoundException;
-import com.dreamgames.backendengineeringcasestudy.exception.UserCanNotEnterTournamentException;
-import com.dreamgames.backendengineeringcasestudy.exception.UserEnteredTournamentBeforeException;
-import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.RewardWinner;
 import com.dreamgames.backendengineeringcasestudy.repository.*;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.GroupIdRange;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.TournamentEligibility;
 import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
+import com.dreamgames.backendengineeringcasestudy.service.LeaseService;
+import com.dreamgames.backendengineeringcasestudy.service.MatchmakingService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
 import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TournamentServiceImpl implements TournamentService {
 
+    private static final int MIN_LEVEL = 20;
+    private static final int MIN_COINS = 1000;
+    private static final int GROUP_SIZE = Country.values().length;
+    private static final int REWARD_PAGE_SIZE = 1000;
+    private static final int[] REWARD_COINS = {10000, 5000};
+
     private final LeaderBoardService leaderBoardService;
+    private final MatchmakingService matchmakingService;
     private final RedisService redisService;
 
     private final UserRepository userRepository;
-    private final TournamentGroupsRepository tournamentGroupsRepository;
     private final TournamentRepository tournamentRepository;
-    private final GroupInfoRepository groupInfoRepository;
+    private final TournamentGroupsRepository tournamentGroupsRepository;
     private final TournamentRewardsRepository tournamentRewardsRepository;
+    private final TournamentRewardsBatchRepository tournamentRewardsBatchRepository;
+    private final TournamentClosePartitionRepository tournamentClosePartitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaseService leaseService;
+
+    @Value("${tournament.close.partition-count:64}")
+    private int closePartitionCount;
+    @Value("${tournament.close.parallelism:0}")
+    private int closeParallelism;
+    @Value("${tournament.close.max-wait-ms:900000}")
+    private long closeMaxWaitMs;
+    @Value("${tournament.close.poll-interval-ms:1000}")
+    private long closePollIntervalMs;
 
 
     /**
      * Allows a user to enter an active tournament and returns the current group leaderboard.
      * Checks if there is an active tournament and verifies the user's eligibility based on level and coins.
      * It ensures that the user has not already entered the current tournament and manages the addition of the user to a group.
-     * If necessary, a new group is created.
+     * All eligibility checks are answered by a single projection query, except unclaimed rewards, which are checked with
+     * a single GETBIT on the Redis bitmap of users with unclaimed rewards and confirmed in the database only if the bit
+     * is set. The first failing check is reported with the same exception as before, see {@link TournamentEntryRejection}.
+     * Group assignment is delegated to the {@link MatchmakingService}, which places queued entries in micro-batches.
+     * The method is not transactional on purpose: the eligibility checks are plain reads, and the assignment is
+     * persisted by the matchmaker in its own transaction, which must be visible when the leaderboard is rendered.
      *
      * @param userId the ID of the user attempting to enter the tournament
      * @return a list of GroupLeaderBoard detailing the current state of the group leaderboard after entry
      * @throws IllegalStateException if no active tournament exists or if the user does not meet the participation criteria
      */
     @Override
-    @Transactional
     public List<GroupLeaderBoard> enterTournament(Long userId) {
-
-        // Check user's eligibility
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("No user found with id: " + userId));
-
-        // Check active tournament existence
-        redisService.checkActiveTournament();
         Long activeTournamentId = redisService.getActiveTournamentId();
-        Tournament activeTournament = tournamentRepository.findTournamentByTournamentId(activeTournamentId);
-
+        String country = checkEligibility(userId, activeTournamentId);
 
-        if (activeTournament == null) {
-            throw new UserCanNotEnterTournamentException("Active tournament not found for id: " + activeTournamentId);
-        }
+        // Queue the user for the next matchmaking batch and wait for its group
+        Long groupId = matchmakingService.assignGroup(userId, country, activeTournamentId);
+        return leaderBoardService.getGroupLeaderBoardWithGroupId(groupId);
+    }
 
-        // Check user level and coin
-        User user = userRepository.findByUserIdAndLevelGreaterThanEqualAndCoinsGreaterThanEqual(userId, 20, 1000)
-                .orElseThrow(() -> new UserCanNotEnterTournamentException("User does not meet the requirements or does not exist."));
+    /**
+     * Checks the eligibility of a user like {@link #enterTournament(Long)} and queues the user for matchmaking without
+     * waiting for the group. The calling thread is released as soon as the entry is queued.
+     *
+     * @param userId the ID of the user attempting to enter the tournament
+     * @param executor the executor that renders the group leaderboard once the user has been placed
+     * @return a future of the group leaderboard, failing if the group could not be assigned
+     */
+    @Override
+    public CompletableFuture<List<GroupLeaderBoard>> enterTournamentAsync(Long userId, Executor executor) {
+        Long activeTournamentId = redisService.getActiveTournamentId();
+        String country = checkEligibility(userId, activeTournamentId);
+        return matchmakingService.submit(userId, country, activeTournamentId)
+                .thenApplyAsync(leaderBoardService::getGroupLeaderBoardWithGroupId, executor);
+    }
 
-        // Check user has entered current tournament before
-        if (groupInfoRepository.findByTournamentIdAndUserId(activeTournamentId, userId).isPresent()) {
-            throw new UserEnteredTournamentBeforeException("User is already registered in the current active tournament.");
-        }
+    /**
+     * Runs the entry checks and returns the user's country.
+     */
+    private String checkEligibility(Long userId, Long activeTournamentId) {
+        // Check user existence, tournament existence, requirements, previous entry and unclaimed rewards in one query
+        TournamentEligibility eligibility = userRepository.findTournamentEligibility(userId, activeTournamentId, MIN_LEVEL, MIN_COINS)
+                .orElseThrow(() -> TournamentEntryRejection.USER_NOT_FOUND.toException(userId, activeTournamentId));
 
-        // check reward claim
-        if (tournamentRewardsRepository.existsUnclaimedRewardsForUser(userId)) {
-            throw new UserCanNotEnterTournamentException("User has unclaimed rewards and cannot enter a new tournament.");
-        }
-        List<TournamentGroups> tournamentGroups = tournamentGroupsRepository.findByTournamentId(activeTournamentId);
+        // Check active tournament existence
+        redisService.checkActiveTournament();
 
-        if (tournamentGroups.isEmpty()) {
-            TournamentGroups newGroup = createTournamentGroup(userId, activeTournament, user);
-            log.info("New group created with id: {}", newGroup.getGroupId());
-            return leaderBoardService.getGroupLeaderBoardWithGroupId(newGroup.getGroupId());
+        // A clear bit is authoritative; a set bit may be left over from a claim racing the close, so it is confirmed
+        TournamentEntryRejection rejection = eligibility.findRejection();
+        if (rejection == null && redisService.hasUnclaimedRewards(userId)
+                && !tournamentRewardsBatchRepository.findUserIdsWithUnclaimedRewards(List.of(userId)).isEmpty()) {
+            rejection = TournamentEntryRejection.UNCLAIMED_REWARDS;
         }
-        for (TournamentGroups tournamentGroup : tournamentGroups) {
-            Long groupId = tournamentGroup.getGroupId();
-
-            // Check Countries for group
-            if (!redisService.canUserJoinGroup(groupId, user.getCountry())) {
-                continue;
-            }
-
-            int groupSize = tournamentGroupsRepository.findGroupSizeByGroupId(groupId) + 1;
-            GroupInfo groupInfo = GroupInfo.builder()
-                    .group(tournamentGroup)
-                    .user(user)
-                    .score(0)
-                    .hasGroupBegan(false)
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            groupInfoRepository.save(groupInfo);
-
-            tournamentGroup.setGroupSize(groupSize);
-            tournamentGroupsRepository.save(tournamentGroup);
-
-            // update redis caches
-            redisService.updateGroupLeaderBoard(groupId, userId, 0);
-            String groupCountryKey = "groupCountryMapping:" + groupId;
-            redisService.addCountryToGroup(groupCountryKey, user.getCountry());
-
-            // Check group size for begin
-            if (groupSize == 5) {
-                groupInfoRepository.updateHasGroupBegunForAllOccurrences(groupId);
-            }
-            return leaderBoardService.getGroupLeaderBoardWithGroupId(tournamentGroup.getGroupId());
+        if (rejection != null) {
+            throw rejection.toException(userId, activeTournamentId);
         }
-        TournamentGroups newGroup = createTournamentGroup(userId, activeTournament, user);
-        log.info("New group created with id: {}", newGroup.getGroupId());
-        return leaderBoardService.getGroupLeaderBoardWithGroupId(newGroup.getGroupId());
+        return eligibility.getCountry();
     }
 
 
@@ -127,11 +134,11 @@ public class TournamentServiceImpl implements TournamentService {
      * Creates a new tournament and sets it as active. This function is scheduled to run daily at midnight.
      * It initializes the start and end times of the tournament, marks it as active, and persists it to the database.
      *
-     * @return the ID of the newly created tournament
+     * @return the newly created tournament
      */
     @Transactional
     @Override
-    public Long createTournament() {
+    public Tournament createTournament() {
         Tournament newTournament = Tournament.builder()
                 .startTime(LocalDateTime.now())
                 .endTime(LocalDateTime.now().plusHours(20))
@@ -139,7 +146,7 @@ public class TournamentServiceImpl implements TournamentService {
                 .build();
         newTournament = tournamentRepository.save(newTournament);
         log.info("[TOURNAMENT SERVICE] New tournament created with id {}" , newTournament.getTournamentId());
-        return newTournament.getTournamentId();
+        return newTournament;
     }
 
 
@@ -160,130 +167,296 @@ public class TournamentServiceImpl implements TournamentService {
 
 
     /**
-     * Determines the top two players in each active tournament group and assigns rewards based on their rank.
-     * This function fetches the active tournament ID, retrieves all group information for begun groups,
-     * and then calculates the rewards for the top two participants in each group based on their scores.
+     * Determines the top two players in each started group of the active tournament and rewards them.
+     * <p>
+     * The started groups are split into group-ID ranges that are planned once per tournament and recorded in
+     * tournament_close_partitions. The close is announced in Redis, so that every live node joins in through
+     * {@link #processRewardPartitions(Long)}; a range is worked on by the node holding its lease. Each range is
+     * processed in its own transaction: group IDs are paged with a keyset, the top two players of a page are read from
+     * Redis in one pipelined round trip, and the rewards are written with JDBC batch inserts. The winners are flagged
+     * in the Redis bitmap of users with unclaimed rewards once their range has committed, so a concurrent claim that
+     * re-checks the database always finds them. A range is marked completed in the same transaction as its rewards,
+     * under a row lock, so a range is never rewarded twice, even if its lease was taken over. This node waits until
+     * every range is completed, taking over the ranges of nodes that died, and then flags every unclaimed winner of the
+     * tournament once more, so a bitmap write that failed after a range committed is repaired by the same or the next
+     * run. Ties are already broken in the leaderboard scores in favor of the player who reached the score first.
+     *
+     * @throws IllegalStateException if some ranges are still unfinished after tournament.close.max-wait-ms; they are
+     *         left for the close retry of the scheduler.
      */
     @Override
-    @Transactional
     public void specifyRewardWinners() {
         Long activeTournamentId = redisService.getActiveTournamentId();
-        List<GroupInfo> groupInfos = groupInfoRepository.findByTournamentIdAndGroupBegun(activeTournamentId);
-        Set<Long> uniqueGroupIds = groupInfos.stream()
-                .map(groupInfo -> groupInfo.getGroup().getGroupId())
-                .collect(Collectors.toSet());
-
-        for (Long groupId : uniqueGroupIds) {
-            Set<ZSetOperations.TypedTuple<String>> scores = redisService.getGroupLeaderBoard(groupId);
-            List<String> userIds = scores.stream()
-                    .map(ZSetOperations.TypedTuple::getValue)
-                    .limit(2)
-                    .toList();
+        long startNanos = System.nanoTime();
+        List<TournamentClosePartition> partitions = planClosePartitions(activeTournamentId);
+        List<TournamentClosePartition> pending = partitions.stream()
+                .filter(partition -> !partition.getCompleted())
+                .toList();
+        if (pending.isEmpty()) {
+            log.info("[TOURNAMENT SERVICE] No reward partition left for tournament {}", activeTournamentId);
+            markUnclaimedWinners(activeTournamentId);
+            return;
+        }
+
+        redisService.announceTournamentClose(activeTournamentId, Duration.ofMillis(closeMaxWaitMs).plusMinutes(1));
+        long deadline = System.currentTimeMillis() + closeMaxWaitMs;
+        CloseProgress progress = CloseProgress.NONE;
+        try {
+            while (true) {
+                progress = progress.plus(processRewardPartitions(activeTournamentId, pending));
+                pending = tournamentClosePartitionRepository.findByTournamentIdOrderByPartitionIndex(activeTournamentId).stream()
+                        .filter(partition -> !partition.getCompleted())
+                        .toList();
+                if (pending.isEmpty()) {
+                    break;
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new IllegalStateException(pending.size() + " of " + partitions.size() + " reward partitions of tournament "
+                            + activeTournamentId + " are unfinished, the close will be retried to resume them.");
+                }
+                Thread.sleep(closePollIntervalMs);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rewarding tournament " + activeTournamentId, exception);
+        } finally {
+            redisService.endTournamentClose(activeTournamentId);
+        }
+        markUnclaimedWinners(activeTournamentId);
+
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        log.info("[TOURNAMENT SERVICE] Rewarded all {} partitions of tournament {} in {} ms; this node created {} rewards for {} groups in {} partitions ({} groups/s)",
+                partitions.size(), activeTournamentId, elapsedMs, progress.rewardCount(), progress.groupCount(),
+                progress.partitionCount(), progress.groupCount() * 1000 / elapsedMs);
+    }
+
 
-            if (!userIds.isEmpty()) {
-                createTournamentReward(userIds.get(0), activeTournamentId, 10000);
-                createTournamentReward(userIds.get(1), activeTournamentId, 5000);
+    /**
+     * Sets the unclaimed-reward bits of every winner of a tournament who has not claimed yet, paging the winners from
+     * tournament_rewards. A partition sets its winners' bits only after it has committed, and a rerun skips completed
+     * partitions, so every close run sets the bits once more in case a partition's write failed.
+     */
+    private void markUnclaimedWinners(Long tournamentId) {
+        long userCount = 0;
+        Long afterUserId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = tournamentRewardsBatchRepository.findUnclaimedWinnerIds(tournamentId, afterUserId, REWARD_PAGE_SIZE);
+            if (userIds.isEmpty()) {
+                break;
             }
+            redisService.markUnclaimedRewards(userIds);
+            userCount += userIds.size();
+            afterUserId = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == REWARD_PAGE_SIZE);
+        log.info("[TOURNAMENT SERVICE] Flagged {} winners of tournament {} with unclaimed rewards", userCount, tournamentId);
+    }
+
+
+    /**
+     * Works on the unfinished reward partitions of a closing tournament, in parallel, claiming each one with a
+     * renewable lease first. Partitions leased by other nodes are skipped, and a partition whose node died is taken
+     * over once its lease has expired. Failed partitions are logged and left for another attempt.
+     *
+     * @param tournamentId the ID of the closing tournament.
+     * @return the number of partitions this call completed.
+     */
+    @Override
+    public int processRewardPartitions(Long tournamentId) {
+        List<TournamentClosePartition> pending = tournamentClosePartitionRepository.findByTournamentIdOrderByPartitionIndex(tournamentId).stream()
+                .filter(partition -> !partition.getCompleted())
+                .toList();
+        CloseProgress progress = processRewardPartitions(tournamentId, pending);
+        if (progress.partitionCount() > 0) {
+            log.info("[TOURNAMENT SERVICE] Created {} rewards for {} groups in {} partitions of tournament {}",
+                    progress.rewardCount(), progress.groupCount(), progress.partitionCount(), tournamentId);
         }
+        return progress.partitionCount();
     }
 
 
     /**
      * Claims all unclaimed tournament rewards for a given user.
-     * This method performs several operations:
-     * 1. Checks if the user has any unclaimed rewards. If not, throws an exception.
-     * 2. Sums up the total coins won by the user in all unclaimed rewards.
-     * 3. Updates the user's coin balance in the user repository with the total coins won.
-     * 4. Marks all the user's unclaimed rewards as claimed in the rewards repository.
+     * The coins of all unclaimed rewards are added to the user's balance and the rewards are marked claimed by a single
+     * multi-table UPDATE, which is atomic on its own. The user's bit in the unclaimed-reward bitmap is cleared once the
+     * update has committed, and set again if a reward was committed in the meantime, so a reward created concurrently
+     * is never hidden from the entry check.
      *
      * @param userId The ID of the user claiming the rewards.
-     * @throws IllegalArgumentException If no unclaimed rewards are found for the user.
-     * @throws UserNotFoundException If the user with the given ID does not exist.
-     * @transactional Ensures the entire process is handled in a single transaction, ensuring data integrity.
+     * @throws UnClaimedRewardFoundException If no unclaimed rewards are found for the user.
      */
     @Override
-    @Transactional
     public void claimTournamentsReward(Long userId) {
-        // 1. Check if user has any unclaimed rewards
-        if (!tournamentRewardsRepository.existsByUserIdAndClaimedFalse(userId)) {
+        int updatedRows = tournamentRewardsRepository.claimAllForUser(userId);
+        if (updatedRows == 0) {
             throw new UnClaimedRewardFoundException("No unclaimed rewards found for user ID: " + userId);
         }
+        redisService.clearUnclaimedRewards(userId);
+        redisService.markUnclaimedRewards(tournamentRewardsBatchRepository.findUserIdsWithUnclaimedRewards(List.of(userId)));
 
-        // 2. Sum up the coins won by this user in unclaimed rewards
-        int totalCoinsWon = tournamentRewardsRepository.sumUnclaimedCoinsByUserId(userId);
-
-        // 3. Update user's coins and set rewards as claimed
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
-        user.setCoins(user.getCoins() + totalCoinsWon);
-        userRepository.save(user);
+        log.info("User {} has claimed their rewards ({} rows affected).", userId, updatedRows);
+    }
 
-        // Mark all the rewards as claimed
-        tournamentRewardsRepository.markRewardsAsClaimedForUser(userId);
 
-        log.info("User {} has claimed their rewards totaling {} coins.", userId, totalCoinsWon);
+    /**
+     * Rebuilds the Redis bitmap of users with unclaimed rewards from the database when it is missing, e.g. after a
+     * Redis data loss. Users are paged with a keyset on the user ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildUnclaimedRewardIndex() {
+        if (redisService.hasUnclaimedRewardIndex()) {
+            return;
+        }
+        long userCount = 0;
+        Long afterUserId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = tournamentRewardsRepository.findUserIdsWithUnclaimedRewards(afterUserId, PageRequest.of(0, REWARD_PAGE_SIZE));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            redisService.markUnclaimedRewards(userIds);
+            userCount += userIds.size();
+            afterUserId = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == REWARD_PAGE_SIZE);
+        log.info("[TOURNAMENT SERVICE] Rebuilt the unclaimed reward bitmap with {} users", userCount);
     }
 
 
     /**
-     * Creates a reward record for a user who participated in a tournament based on their performance.
-     * @param userWithPrefix The composite string key of the user in the format "User:UserId" from the Redis leaderboard.
-     * @param tournamentId The ID of the tournament for which the reward is being specified.
-     * @param coinsWon The amount of coins won by the user, depending on their rank in the leaderboard.
+     * Returns the reward partitions of a tournament, splitting the group-ID range of its started groups into
+     * tournament.close.partition-count ranges on the first call. Later calls return the recorded plan, so a rerun
+     * works on exactly the same ranges.
      */
-    private void createTournamentReward(String userWithPrefix, Long tournamentId, int coinsWon) {
-        Long userId = Long.parseLong(userWithPrefix.split(":")[1]);
-
-        Tournament tournament = tournamentRepository.findById(tournamentId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid tournament ID"));
+    private List<TournamentClosePartition> planClosePartitions(Long tournamentId) {
+        return transactionTemplate.execute(status -> {
+            List<TournamentClosePartition> partitions = tournamentClosePartitionRepository.findByTournamentIdOrderByPartitionIndex(tournamentId);
+            if (!partitions.isEmpty()) {
+                return partitions;
+            }
+            GroupIdRange range = tournamentGroupsRepository.findGroupIdRange(tournamentId, GROUP_SIZE);
+            if (range == null || range.getFirstGroupId() == null) {
+                return List.<TournamentClosePartition>of();
+            }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid user ID"));
+            long firstGroupId = range.getFirstGroupId();
+            long span = range.getLastGroupId() - firstGroupId + 1;
+            int count = (int) Math.min(Math.max(1, closePartitionCount), span);
+            List<TournamentClosePartition> planned = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                planned.add(TournamentClosePartition.builder()
+                        .tournamentId(tournamentId)
+                        .partitionIndex(index)
+                        .firstGroupId(firstGroupId + span * index / count)
+                        .lastGroupId(firstGroupId + span * (index + 1) / count - 1)
+                        .completed(false)
+                        .build());
+            }
+            return tournamentClosePartitionRepository.saveAll(planned);
+        });
+    }
 
-        TournamentRewards reward = new TournamentRewards();
-        reward.setUser(user);
-        reward.setTournament(tournament);
-        reward.setCoinsWon(coinsWon);
-        reward.setClaimed(false);
-        reward.setCreatedAt(LocalDateTime.now());
-        reward.setUpdatedAt(LocalDateTime.now());
+    /**
+     * Rewards the top two players of every started group in one partition and marks the partition completed, all in
+     * one transaction. The partition row stays locked meanwhile, so concurrent reruns process it only once. The winners'
+     * bits in the unclaimed-reward bitmap are set after the commit, so a claim never re-checks before the rewards exist.
+     */
+    private CloseProgress closePartition(Long tournamentId, Long partitionId) {
+        List<Long> winnerIds = new ArrayList<>();
+        CloseProgress progress = transactionTemplate.execute(status -> {
+            TournamentClosePartition partition = tournamentClosePartitionRepository.findByIdForUpdate(partitionId)
+                    .orElseThrow(() -> new IllegalStateException("Reward partition not found: " + partitionId));
+            if (partition.getCompleted()) {
+                return CloseProgress.NONE;
+            }
 
-        tournamentRewardsRepository.save(reward);
-        log.info("Reward of {} coins created for user {} in tournament {}", coinsWon, userId, tournamentId);
+            int groupCount = 0;
+            int rewardCount = 0;
+            Long afterGroupId = partition.getFirstGroupId() - 1;
+            List<Long> groupIds;
+            do {
+                groupIds = tournamentGroupsRepository.findGroupIdsPage(tournamentId, GROUP_SIZE, afterGroupId,
+                        partition.getLastGroupId(), PageRequest.of(0, REWARD_PAGE_SIZE));
+                if (groupIds.isEmpty()) {
+                    break;
+                }
+                List<RewardWinner> winners = new ArrayList<>(groupIds.size() * REWARD_COINS.length);
+                redisService.getGroupLeaders(groupIds, REWARD_COINS.length).values().forEach(leaders -> {
+                    for (int rank = 0; rank < leaders.size(); rank++) {
+                        winners.add(new RewardWinner(leaders.get(rank), REWARD_COINS[rank]));
+                    }
+                });
+                tournamentRewardsBatchRepository.insertAll(tournamentId, winners);
+                winners.forEach(winner -> winnerIds.add(winner.getUserId()));
+
+                groupCount += groupIds.size();
+                rewardCount += winners.size();
+                afterGroupId = groupIds.get(groupIds.size() - 1);
+            } while (groupIds.size() == REWARD_PAGE_SIZE);
+
+            partition.setCompleted(true);
+            partition.setRewardCount(rewardCount);
+            partition.setCompletedAt(LocalDateTime.now());
+            tournamentClosePartitionRepository.save(partition);
+            return new CloseProgress(1, groupCount, rewardCount);
+        });
+        try {
+            redisService.markUnclaimedRewards(winnerIds);
+        } catch (RuntimeException exception) {
+            // The partition is completed already; the close sets the bits of all winners again before it ends
+            log.warn("[TOURNAMENT SERVICE] Could not flag the {} winners of reward partition {}", winnerIds.size(), partitionId, exception);
+        }
+        return progress;
     }
 
+    private CloseProgress processRewardPartitions(Long tournamentId, List<TournamentClosePartition> pending) {
+        if (pending.isEmpty()) {
+            return CloseProgress.NONE;
+        }
+        int threads = Math.min(pending.size(), closeParallelism > 0 ? closeParallelism : Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, "tournament-close-" + threadCount.incrementAndGet()));
+        CloseProgress progress = CloseProgress.NONE;
+        try {
+            List<Future<CloseProgress>> results = pending.stream()
+                    .map(partition -> executor.submit(() -> claimAndClosePartition(tournamentId, partition)))
+                    .toList();
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    progress = progress.plus(results.get(i).get());
+                } catch (ExecutionException exception) {
+                    log.error("[TOURNAMENT SERVICE] Reward partition {} of tournament {} failed",
+                            pending.get(i).getPartitionIndex(), tournamentId, exception.getCause());
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rewarding tournament " + tournamentId, exception);
+        } finally {
+            executor.shutdownNow();
+        }
+        return progress;
+    }
 
-    /**
-     * Helper method to create a tournament group when a user enters a tournament.
-     * This method initializes the group in the database and Redis, sets up the group's leaderboard and country mappings.
-     *
-     * @param userId the ID of the user entering the tournament
-     * @param activeTournament the active tournament in which the group is being created
-     * @param user the User entity of the user entering the tournament
-     * @return the newly created TournamentGroups entity
-     */
-    private TournamentGroups createTournamentGroup(Long userId, Tournament activeTournament, User user) {
-        TournamentGroups newGroup = TournamentGroups.builder()
-                .tournament(activeTournament)
-                .groupSize(1)
-                .build();
-        newGroup = tournamentGroupsRepository.save(newGroup);
-
-        GroupInfo groupInfo = GroupInfo.builder()
-                .group(newGroup)
-                .user(user)
-                .score(0)
-                .hasGroupBegan(false)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-        groupInfoRepository.save(groupInfo);
+    private CloseProgress claimAndClosePartition(Long tournamentId, TournamentClosePartition partition) {
+        String lease = "tournamentClose:" + tournamentId + ":" + partition.getPartitionIndex();
+        if (!leaseService.tryAcquireRenewable(lease)) {
+            return CloseProgress.NONE;
+        }
+        try {
+            return closePartition(tournamentId, partition.getPartitionId());
+        } finally {
+            leaseService.release(lease);
+        }
+    }
 
-        // Initialize Group and LeaderBoard and Group country mapping in Redis.
-        redisService.initializeGroup(newGroup.getGroupId());
-        redisService.updateGroupLeaderBoard(newGroup.getGroupId(), userId, 0);
+    private record CloseProgress(int partitionCount, long groupCount, long rewardCount) {
+        static final CloseProgress NONE = new CloseProgress(0, 0, 0);
 
-        String groupCountryKey = "groupCountryMapping:" + newGroup.getGroupId();
-        redisService.addCountryToGroup(groupCountryKey, user.getCountry());
-        return newGroup;
+        CloseProgress plus(CloseProgress other) {
+            return new CloseProgress(partitionCount + other.partitionCount, groupCount + other.groupCount,
+                    rewardCount + other.rewardCount);
+        }
     }
 }
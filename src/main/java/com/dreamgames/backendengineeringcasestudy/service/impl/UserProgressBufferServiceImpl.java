@@ -0,0 +1,193 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.domain.User;
+import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupScore;
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressDelta;
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressResponse;
+import com.dreamgames.backendengineeringcasestudy.repository.ProgressBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import com.dreamgames.backendengineeringcasestudy.service.UserProgressBufferService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for level-up progress.
+ * <p>
+ * Level and coin deltas are accumulated per user, and score deltas per group member, in memory. They are written to
+ * MySQL with batched multi-row UPDATEs every user.progress.write-behind.flush-interval-ms, as soon as
+ * user.progress.write-behind.max-pending-entries entries are pending, and once more on shutdown. A buffered user keeps
+ * its last known progress, so level-up responses are computed without reading the database again.
+ * Buffered progress is only visible to the node that holds it until it has been flushed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserProgressBufferServiceImpl implements UserProgressBufferService {
+
+    private final UserRepository userRepository;
+    private final ProgressBatchRepository progressBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, BufferedProgress> bufferedUsers = new ConcurrentHashMap<>();
+    private final Map<GroupMember, Integer> scoreDeltas = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${user.progress.write-behind.enabled:false}")
+    private boolean enabled;
+    @Value("${user.progress.write-behind.max-pending-entries:1000}")
+    private int maxPendingEntries;
+
+    /**
+     * Tells whether level-up progress should be buffered instead of written immediately.
+     *
+     * @return true if the write-behind mode is enabled.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers a level-up of one level and the given coins for the user.
+     * The user is read from the database only if it is not buffered yet.
+     *
+     * @param userId The ID of the user leveling up.
+     * @param coins The coins earned with the level-up.
+     * @return The progress of the user including all buffered level-ups.
+     * @throws UserNotFoundException If no user is found with the provided ID.
+     */
+    @Override
+    public UserProgressResponse levelUp(Long userId, int coins) {
+        BufferedProgress progress;
+        while ((progress = bufferedUsers.computeIfPresent(userId, (id, buffered) -> buffered.add(1, coins))) == null) {
+            User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("No user found with id: " + userId));
+            bufferedUsers.putIfAbsent(userId, new BufferedProgress(user.getCountry(), user.getLevel(), user.getCoins(), 0, 0));
+        }
+        flushIfFull();
+        return UserProgressResponse.builder()
+                .id(userId)
+                .level(progress.level())
+                .coins(progress.coins())
+                .country(progress.country())
+                .build();
+    }
+
+    /**
+     * Buffers a score increment of a group membership.
+     *
+     * @param groupId The ID of the group the user is a member of.
+     * @param userId The ID of the user whose score is incremented.
+     * @param score The score to add.
+     */
+    @Override
+    public void addGroupScore(Long groupId, Long userId, int score) {
+        scoreDeltas.merge(new GroupMember(groupId, userId), score, Integer::sum);
+        flushIfFull();
+    }
+
+    /**
+     * Writes all pending deltas to the database in one transaction.
+     * If the write fails, the deltas are put back into the buffer and retried with the next flush.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${user.progress.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("[USER PROGRESS BUFFER] Flushing {} buffered users and {} group scores before shutdown",
+                bufferedUsers.size(), scoreDeltas.size());
+        flush();
+    }
+
+    private void flushIfFull() {
+        if (bufferedUsers.size() + scoreDeltas.size() >= maxPendingEntries && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void flushPending() {
+        Map<Long, UserProgressDelta> userDeltas = new HashMap<>();
+        Map<Long, BufferedProgress> flushedUsers = new HashMap<>();
+        for (Long userId : bufferedUsers.keySet()) {
+            bufferedUsers.computeIfPresent(userId, (id, buffered) -> {
+                if (buffered.levelDelta() != 0 || buffered.coinsDelta() != 0) {
+                    userDeltas.put(id, new UserProgressDelta(id, buffered.levelDelta(), buffered.coinsDelta()));
+                }
+                BufferedProgress flushed = buffered.withoutDeltas();
+                flushedUsers.put(id, flushed);
+                return flushed;
+            });
+        }
+        Map<GroupMember, Integer> groupScores = new HashMap<>();
+        for (GroupMember member : scoreDeltas.keySet()) {
+            Integer delta = scoreDeltas.remove(member);
+            if (delta != null) {
+                groupScores.put(member, delta);
+            }
+        }
+        if (userDeltas.isEmpty() && groupScores.isEmpty()) {
+            flushedUsers.forEach(bufferedUsers::remove);
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                progressBatchRepository.addUserProgress(userDeltas.values());
+                progressBatchRepository.addGroupScores(groupScores.entrySet().stream()
+                        .map(delta -> new GroupScore(delta.getKey().groupId(), delta.getKey().userId(), delta.getValue()))
+                        .toList());
+            });
+        } catch (RuntimeException exception) {
+            log.error("[USER PROGRESS BUFFER] Flush of {} users and {} group scores failed, keeping them buffered",
+                    userDeltas.size(), groupScores.size(), exception);
+            userDeltas.forEach((id, delta) -> bufferedUsers.computeIfPresent(id,
+                    (key, buffered) -> buffered.withPendingDeltas(delta.getLevelDelta(), delta.getCoinsDelta())));
+            groupScores.forEach((member, delta) -> scoreDeltas.merge(member, delta, Integer::sum));
+            return;
+        }
+        // Users that leveled up again during the flush are kept, as they no longer equal their flushed state
+        flushedUsers.forEach(bufferedUsers::remove);
+        log.info("[USER PROGRESS BUFFER] Flushed {} users and {} group scores", userDeltas.size(), groupScores.size());
+    }
+
+    private record GroupMember(Long groupId, Long userId) {
+    }
+
+    private record BufferedProgress(String country, int level, int coins, int levelDelta, int coinsDelta) {
+
+        BufferedProgress add(int levels, int earnedCoins) {
+            return new BufferedProgress(country, level + levels, coins + earnedCoins, levelDelta + levels, coinsDelta + earnedCoins);
+        }
+
+        BufferedProgress withoutDeltas() {
+            return new BufferedProgress(country, level, coins, 0, 0);
+        }
+
+        BufferedProgress withPendingDeltas(int levels, int earnedCoins) {
+            return new BufferedProgress(country, level, coins, levelDelta + levels, coinsDelta + earnedCoins);
+        }
+    }
+}
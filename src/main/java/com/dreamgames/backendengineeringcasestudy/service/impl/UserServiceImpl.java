@@ -1,25 +1,26 @@
 package com.dreamgames.backendengineeringcasestudy.service.impl;
 
-import com.dreamgames.backendengineeringcasestudy.domain.GroupInfo;
 import com.dreamgames.backendengineeringcasestudy.domain.User;
 import com.dreamgames.backendengineeringcasestudy.exception.NoActiveTournamentException;
 import com.dreamgames.backendengineeringcasestudy.exception.UserExistsException;
 import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
 import com.dreamgames.backendengineeringcasestudy.mapper.UserMapper;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.TournamentMembership;
 import com.dreamgames.backendengineeringcasestudy.model.user.CreateUserRequest;
 import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressResponse;
 import com.dreamgames.backendengineeringcasestudy.repository.GroupInfoRepository;
 import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.UserProgress;
+import com.dreamgames.backendengineeringcasestudy.service.CountryScoreBufferService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.ScoreSnapshotService;
+import com.dreamgames.backendengineeringcasestudy.service.UserProgressBufferService;
 import com.dreamgames.backendengineeringcasestudy.service.UserService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
-
 
 /**
  * Service implementation for managing users.
@@ -32,10 +33,15 @@ import java.util.Optional;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final int LEVEL_UP_COINS = 25;
+
     private final UserRepository userRepository;
     private final GroupInfoRepository groupInfoRepository;
     private final UserMapper userMapper;
     private final RedisService redisService;
+    private final UserProgressBufferService userProgressBufferService;
+    private final ScoreSnapshotService scoreSnapshotService;
+    private final CountryScoreBufferService countryScoreBufferService;
 
     /**
      * Creates a new user based on the provided request data.
@@ -72,6 +78,15 @@ public class UserServiceImpl implements UserService {
      * This method increments the user's level by 1, increases their coins by 25, and updates the timestamp of their last update.
      * It also checks if there's an active tournament and, if the user is part of an active group that has begun,
      * increments their score in the tournament and updates the group and country leaderboards accordingly.
+     * Level, coins and score are incremented with single atomic UPDATE statements, so concurrent level-ups of the same
+     * user cannot overwrite each other, and the new values are read back in the same transaction.
+     * The user's group is looked up in the tournament's membership hash in Redis, so a user who is not in a started
+     * group costs no SQL beyond the user update.
+     * In write-behind mode the level, coin and score changes are buffered by {@link UserProgressBufferService} and
+     * written to the database in batches, while the leaderboards are still updated right away.
+     * When Redis is authoritative for scores, the group score is only written to Redis and reaches the database
+     * through {@link ScoreSnapshotService}. Country score increments are summed in process by
+     * {@link CountryScoreBufferService} and written to the country leaderboard on a short interval.
      *
      * @param id The ID of the user to update.
      * @return UserProgressResponse containing the updated user data.
@@ -81,31 +96,51 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserProgressResponse updateLevelAndCoins(Long id) {
-        User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("No user found with id: " + id));
+        UserProgressResponse progress;
+        if (userProgressBufferService.isEnabled()) {
+            progress = userProgressBufferService.levelUp(id, LEVEL_UP_COINS);
+            log.info("[USER SERVICE] User level-up buffered with given id: {}", id);
+        } else {
+            if (userRepository.incrementLevelAndCoins(id, LEVEL_UP_COINS) == 0) {
+                throw new UserNotFoundException("No user found with id: " + id);
+            }
+            log.info("[USER SERVICE] User updated with given id: {}", id);
+            UserProgress userProgress = userRepository.findProgressByUserId(id)
+                    .orElseThrow(() -> new UserNotFoundException("No user found with id: " + id));
+            progress = UserProgressResponse.builder()
+                    .id(id)
+                    .level(userProgress.getLevel())
+                    .coins(userProgress.getCoins())
+                    .country(userProgress.getCountry())
+                    .build();
+        }
 
-        user.setLevel(user.getLevel() + 1);
-        user.setCoins(user.getCoins() + 25);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
-        log.info("[USER SERVICE] User updated with given id: {}", id);
+        Long tournamentId = getActiveTournamentId();
+        TournamentMembership membership = redisService.getTournamentMembership(tournamentId, id);
+        if (membership != null && membership.getHasGroupBegan()) {
+            if (scoreSnapshotService.isRedisAuthoritative()) {
+                log.debug("[USER SERVICE] Score of user {} is kept in Redis until the next snapshot", id);
+            } else if (userProgressBufferService.isEnabled()) {
+                userProgressBufferService.addGroupScore(membership.getGroupId(), id, 1);
+            } else {
+                groupInfoRepository.incrementScore(membership.getGroupId(), id, 1);
+            }
+            redisService.incrementGroupLeaderBoardScore(tournamentId, membership.getGroupId(), id, 1);
+            if (countryScoreBufferService.isEnabled()) {
+                countryScoreBufferService.addScore(tournamentId, progress.getCountry(), 1);
+            } else {
+                redisService.incrementCountryLeaderBoardScore(progress.getCountry(), 1, tournamentId);
+            }
+        }
+        return progress;
+    }
 
+    private Long getActiveTournamentId() {
         try {
             redisService.checkActiveTournament();
         } catch (NoActiveTournamentException exception) {
             log.info("No active tournament available: {}", exception.getMessage());
         }
-        Long tournamentId = redisService.getActiveTournamentId();
-        Optional<GroupInfo> optionalGroupInfo = groupInfoRepository.findByTournamentIdAndUserId(tournamentId, id);
-        if (optionalGroupInfo.isPresent()) {
-            GroupInfo groupInfo = optionalGroupInfo.get();
-            if (groupInfo.getHasGroupBegan()) {
-                groupInfo.setScore(groupInfo.getScore() + 1);
-                groupInfo.setUpdatedAt(LocalDateTime.now());
-                groupInfoRepository.save(groupInfo);
-                redisService.incrementGroupLeaderBoardScore(groupInfo.getGroup().getGroupId(), id, 1);
-                redisService.incrementCountryLeaderBoardScore(user.getCountry(), 1, tournamentId);
-            }
-        }
-        return userMapper.UserToUserProgressResponse(user);
+        return redisService.getActiveTournamentId();
     }
 }
@@ -0,0 +1,21 @@
+-- Looks up the group, rank, score and group size of users in a tournament without leaving Redis.
+-- KEYS[1] membership hash of the tournament
+-- ARGV[1..n] user ids
+-- Returns one entry per user id: {groupId, 0-based rank, score, group size}, or nil when the user has not entered
+-- the tournament.
+local results = {}
+for i = 1, #ARGV do
+    local entry = false
+    local membership = redis.call('HGET', KEYS[1], ARGV[i])
+    if membership then
+        local groupId = string.match(membership, '^(%d+):')
+        local leaderBoardKey = 'groupLeaderBoard:' .. groupId
+        local member = 'User:' .. ARGV[i]
+        local rank = redis.call('ZREVRANK', leaderBoardKey, member)
+        if rank then
+            entry = {tonumber(groupId), rank, redis.call('ZSCORE', leaderBoardKey, member), redis.call('ZCARD', leaderBoardKey)}
+        end
+    end
+    results[i] = entry
+end
+return results
@@ -0,0 +1,29 @@
+-- Increments a user's score in a group leaderboard and in the tournament leaderboard, and marks the group for the next
+-- score snapshot. Scores are stored as score * scale + tie-breaker, and the tie-breaker is replaced with the given one.
+-- KEYS[1] group leaderboard, KEYS[2] dirty-group set of the tournament, KEYS[3] version counter of the group leaderboard,
+-- KEYS[4] tournament leaderboard
+-- ARGV[1] leaderboard member, ARGV[2] score increment, ARGV[3] group id, ARGV[4] leaderboard invalidation channel,
+-- ARGV[5] scale of the score bits, ARGV[6] tie-breaker of this increment, ARGV[7] unix time at which the tournament's
+-- keys expire
+-- Returns the new score of the member.
+local scale = tonumber(ARGV[5])
+
+local function increment(key)
+    local current = tonumber(redis.call('ZSCORE', key, ARGV[1]) or '0')
+    local score = math.floor(current / scale) + tonumber(ARGV[2])
+    -- Format explicitly: the default conversion keeps only 14 significant digits
+    redis.call('ZADD', key, string.format('%.0f', score * scale + tonumber(ARGV[6])), ARGV[1])
+    return score
+end
+
+local score = increment(KEYS[1])
+increment(KEYS[4])
+-- The leaderboards keep the expiry set when the group was registered, but the dirty-group set is recreated after
+-- every snapshot empties it
+if redis.call('SADD', KEYS[2], ARGV[3]) == 1 then
+    redis.call('EXPIREAT', KEYS[2], ARGV[7])
+end
+
+local version = redis.call('INCR', KEYS[3])
+redis.call('PUBLISH', ARGV[4], ARGV[3] .. ':' .. version)
+return score
@@ -0,0 +1,39 @@
+-- Places a user into a tournament group that is still missing the user's country.
+-- KEYS[1] open-slot index of the tournament for the user's country
+-- KEYS[2] membership hash of the tournament
+-- KEYS[3] tournament leaderboard
+-- ARGV[1] country, ARGV[2] user id, ARGV[3] size of a full group, ARGV[4] leaderboard invalidation channel,
+-- ARGV[5] unix time at which the tournament's keys expire
+-- Returns {groupId, groupSize}, or nil when no group is waiting for this country.
+-- The group is only known once it has been popped, so the script derives the group's country set, leaderboard and
+-- version keys from its id instead of receiving them in KEYS. This is fine on a single Redis node, which is what the
+-- service runs against; on Redis Cluster those keys would have to share a hash slot with KEYS[1].
+local groupId = redis.call('SPOP', KEYS[1])
+if not groupId then
+    return nil
+end
+
+local countryKey = 'groupCountryMapping:' .. groupId
+local leaderBoardKey = 'groupLeaderBoard:' .. groupId
+redis.call('SADD', countryKey, ARGV[1])
+redis.call('ZADD', leaderBoardKey, 0, 'User:' .. ARGV[2])
+redis.call('ZADD', KEYS[3], 'NX', 0, 'User:' .. ARGV[2])
+
+local groupSize = redis.call('SCARD', countryKey)
+if groupSize >= tonumber(ARGV[3]) then
+    -- The group is complete: every member's membership is flagged as begun
+    for _, member in ipairs(redis.call('ZRANGE', leaderBoardKey, 0, -1)) do
+        redis.call('HSET', KEYS[2], string.sub(member, 6), groupId .. ':1')
+    end
+else
+    redis.call('HSET', KEYS[2], ARGV[2], groupId .. ':0')
+end
+
+local version = redis.call('INCR', 'groupLeaderBoardVersion:' .. groupId)
+redis.call('PUBLISH', ARGV[4], groupId .. ':' .. version)
+
+-- The group keys already expire since the group was registered; the tournament keys may have been created just now
+redis.call('EXPIREAT', KEYS[2], ARGV[5])
+redis.call('EXPIREAT', KEYS[3], ARGV[5])
+
+return {tonumber(groupId), groupSize}
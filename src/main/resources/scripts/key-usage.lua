@@ -0,0 +1,10 @@
+-- Reads the memory usage and time to live of several keys.
+-- KEYS[1..n] keys to inspect
+-- ARGV[1] number of nested values MEMORY USAGE samples per key
+-- Returns the memory usage in bytes and the time to live in seconds of every key, in pairs.
+local result = {}
+for _, key in ipairs(KEYS) do
+    result[#result + 1] = redis.call('MEMORY', 'USAGE', key, 'SAMPLES', ARGV[1]) or 0
+    result[#result + 1] = redis.call('TTL', key)
+end
+return result
@@ -0,0 +1,14 @@
+-- Samples the scores of a leaderboard at evenly spaced ranks, from the highest score to the lowest.
+-- KEYS[1] leaderboard
+-- ARGV[1] number of buckets; buckets + 1 scores are sampled
+-- Returns {size of the leaderboard, {score, ...}}.
+local total = redis.call('ZCARD', KEYS[1])
+local buckets = tonumber(ARGV[1])
+local scores = {}
+if total > 0 then
+    for i = 0, buckets do
+        local rank = math.floor(i * (total - 1) / buckets)
+        scores[#scores + 1] = redis.call('ZREVRANGE', KEYS[1], rank, rank, 'WITHSCORES')[2]
+    end
+end
+return {total, scores}
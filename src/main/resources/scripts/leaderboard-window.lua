@@ -0,0 +1,25 @@
+-- Reads a bounded window of a leaderboard, ordered from the highest to the lowest score.
+-- KEYS[1] leaderboard
+-- ARGV[1] anchor member, or an empty string to window by rank only
+-- ARGV[2] rank offset of the window, relative to the anchor's rank when an anchor is given
+-- ARGV[3] number of entries in the window
+-- Returns {rank offset of the first entry, size of the leaderboard, {member, score, ...}},
+-- or nil when the anchor is not in the leaderboard.
+local start = tonumber(ARGV[2])
+if ARGV[1] ~= '' then
+    local rank = redis.call('ZREVRANK', KEYS[1], ARGV[1])
+    if not rank then
+        return nil
+    end
+    start = rank + start
+end
+
+local stop = start + tonumber(ARGV[3]) - 1
+if start < 0 then
+    start = 0
+end
+local entries = {}
+if stop >= start then
+    entries = redis.call('ZREVRANGE', KEYS[1], start, stop, 'WITHSCORES')
+end
+return {start, redis.call('ZCARD', KEYS[1]), entries}
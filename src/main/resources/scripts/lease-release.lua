@@ -0,0 +1,8 @@
+-- Releases a lease, but only if it is still held by the calling node.
+-- KEYS[1] lease key
+-- ARGV[1] owner node id
+-- Returns 1 if the lease was released, 0 if it expired or was taken over.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
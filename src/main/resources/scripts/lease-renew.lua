@@ -0,0 +1,8 @@
+-- Extends a lease, but only if it is still held by the calling node.
+-- KEYS[1] lease key
+-- ARGV[1] owner node id, ARGV[2] time to live in milliseconds
+-- Returns 1 if the lease was extended, 0 if it expired or was taken over.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,27 @@
+-- Takes a user back out of a group it joined through the open-slot index, e.g. when the join could not be persisted.
+-- The user's country slot is offered again and, since the group is no longer complete, the remaining members are
+-- flagged as waiting again.
+-- KEYS[1] open-slot index of the tournament for the user's country
+-- KEYS[2] membership hash of the tournament
+-- KEYS[3] tournament leaderboard
+-- KEYS[4] country set of the group, KEYS[5] group leaderboard, KEYS[6] version counter of the group leaderboard
+-- ARGV[1] country, ARGV[2] user id, ARGV[3] group id, ARGV[4] leaderboard invalidation channel,
+-- ARGV[5] unix time at which the tournament's keys expire
+-- Returns 1 if the user was removed, 0 if the user was not in the group.
+local member = 'User:' .. ARGV[2]
+if redis.call('ZREM', KEYS[5], member) == 0 then
+    return 0
+end
+redis.call('SREM', KEYS[4], ARGV[1])
+redis.call('ZREM', KEYS[3], member)
+redis.call('HDEL', KEYS[2], ARGV[2])
+
+for _, other in ipairs(redis.call('ZRANGE', KEYS[5], 0, -1)) do
+    redis.call('HSET', KEYS[2], string.sub(other, 6), ARGV[3] .. ':0')
+end
+redis.call('SADD', KEYS[1], ARGV[3])
+redis.call('EXPIREAT', KEYS[1], ARGV[5])
+
+local version = redis.call('INCR', KEYS[6])
+redis.call('PUBLISH', ARGV[4], ARGV[3] .. ':' .. version)
+return 1
@@ -0,0 +1,29 @@
+-- Registers a freshly created group and advertises its free slots.
+-- KEYS[1] membership hash of the tournament
+-- KEYS[2] tournament leaderboard
+-- KEYS[3] country set of the group
+-- KEYS[4] group leaderboard
+-- KEYS[5] leaderboard version of the group
+-- KEYS[6..n] open-slot indexes of the tournament for every country the group is still missing
+-- ARGV[1] group id, ARGV[2] 1 if the group is already complete and 0 otherwise, ARGV[3] leaderboard invalidation channel,
+-- ARGV[4] unix time at which the tournament's keys expire, ARGV[5..] pairs of user id and country of the founding members
+local groupId = ARGV[1]
+local membership = groupId .. ':' .. ARGV[2]
+for i = 5, #ARGV, 2 do
+    redis.call('SADD', KEYS[3], ARGV[i + 1])
+    redis.call('ZADD', KEYS[4], 0, 'User:' .. ARGV[i])
+    redis.call('ZADD', KEYS[2], 'NX', 0, 'User:' .. ARGV[i])
+    redis.call('HSET', KEYS[1], ARGV[i], membership)
+end
+
+local version = redis.call('INCR', KEYS[5])
+redis.call('PUBLISH', ARGV[3], groupId .. ':' .. version)
+
+for i = 6, #KEYS do
+    redis.call('SADD', KEYS[i], groupId)
+end
+
+for _, key in ipairs(KEYS) do
+    redis.call('EXPIREAT', key, ARGV[4])
+end
+return #KEYS - 5
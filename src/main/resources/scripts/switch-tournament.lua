@@ -0,0 +1,20 @@
+-- Atomically switches the active tournament epoch and notifies every node.
+-- KEYS[1] epoch counter, KEYS[2] active tournament hash, KEYS[3] hasActiveTournament, KEYS[4] activeTournamentId
+-- ARGV[1] invalidation channel, ARGV[2] tournament id, ARGV[3] start time, ARGV[4] end time, ARGV[5] status
+-- Returns the new epoch.
+local epoch = redis.call('INCR', KEYS[1])
+redis.call('DEL', KEYS[2])
+redis.call('HSET', KEYS[2], 'epoch', epoch, 'tournamentId', ARGV[2],
+        'startTime', ARGV[3], 'endTime', ARGV[4], 'status', ARGV[5])
+
+-- The legacy keys are kept in sync for tools that still read them
+if ARGV[5] == 'Active' then
+    redis.call('SET', KEYS[3], 'true')
+    redis.call('SET', KEYS[4], ARGV[2])
+else
+    redis.call('SET', KEYS[3], 'false')
+    redis.call('DEL', KEYS[4])
+end
+
+redis.call('PUBLISH', ARGV[1], epoch)
+return epoch
@@ -0,0 +1,18 @@
+-- Removes a freshly registered group whose creation could not be completed: its founding members are taken out of the
+-- tournament and the group is no longer advertised.
+-- KEYS[1] membership hash of the tournament
+-- KEYS[2] tournament leaderboard
+-- KEYS[3] country set of the group, KEYS[4] group leaderboard, KEYS[5] version counter of the group leaderboard
+-- KEYS[6..n] open-slot indexes of the tournament for every country
+-- ARGV[1] group id, ARGV[2] leaderboard invalidation channel, ARGV[3..] user ids of the founding members
+for i = 3, #ARGV do
+    redis.call('HDEL', KEYS[1], ARGV[i])
+    redis.call('ZREM', KEYS[2], 'User:' .. ARGV[i])
+end
+for i = 6, #KEYS do
+    redis.call('SREM', KEYS[i], ARGV[1])
+end
+redis.call('DEL', KEYS[3], KEYS[4], KEYS[5])
+
+redis.call('PUBLISH', ARGV[2], ARGV[1] .. ':0')
+return #ARGV - 2
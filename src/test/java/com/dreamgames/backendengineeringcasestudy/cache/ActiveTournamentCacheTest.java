@@ -0,0 +1,82 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActiveTournamentCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @InjectMocks
+    private ActiveTournamentCache activeTournamentCache;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    @Test
+    void refresh_whenRecordExists_thenCachesEpochRecord() {
+        when(hashOperations.entries("activeTournament")).thenReturn(Map.of(
+                "epoch", "3", "tournamentId", "1", "startTime", "2024-01-01T00:00",
+                "endTime", "2024-01-01T20:00", "status", "Active"));
+
+        activeTournamentCache.refresh();
+
+        ActiveTournament activeTournament = activeTournamentCache.get();
+        assertTrue(activeTournament.isActive());
+        assertEquals(3L, activeTournament.getEpoch());
+        assertEquals(1L, activeTournament.getActiveTournamentId());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 20, 0), activeTournament.getEndTime());
+    }
+
+    @Test
+    void refresh_whenOnlyLegacyKeysExist_thenFallsBackToThem() {
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(hashOperations.entries("activeTournament")).thenReturn(Map.of());
+        when(valueOperations.multiGet(List.of("hasActiveTournament", "activeTournamentId"))).thenReturn(Arrays.asList("true", "5"));
+
+        activeTournamentCache.refresh();
+
+        assertEquals(5L, activeTournamentCache.get().getActiveTournamentId());
+    }
+
+    @Test
+    void onMessage_whenNewEpochIsPublished_thenReloadsRecord() {
+        when(hashOperations.entries("activeTournament")).thenReturn(Map.of(
+                "epoch", "4", "tournamentId", "1", "startTime", "", "endTime", "", "status", "Completed"));
+
+        activeTournamentCache.onMessage(new DefaultMessage(
+                "activeTournamentChanged".getBytes(StandardCharsets.UTF_8), "4".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertFalse(activeTournamentCache.get().isActive());
+        assertNull(activeTournamentCache.get().getActiveTournamentId());
+        assertEquals(4L, activeTournamentCache.get().getEpoch());
+    }
+}
@@ -0,0 +1,82 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoardSnapshot;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CountryLeaderBoardCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+    @Mock
+    private ActiveTournamentCache activeTournamentCache;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private CountryLeaderBoardCache countryLeaderBoardCache;
+
+    @BeforeEach
+    void setUp() {
+        countryLeaderBoardCache = new CountryLeaderBoardCache(redisTemplate, listenerContainer, activeTournamentCache, new ObjectMapper());
+        ReflectionTestUtils.setField(countryLeaderBoardCache, "broadcastIntervalMs", 1000L);
+        when(activeTournamentCache.get()).thenReturn(new ActiveTournament(1L, 3L, null, null, ActiveTournament.ACTIVE));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void broadcast_whenLockAcquired_thenPublishesSnapshotThatEveryNodeServes() {
+        Set<ZSetOperations.TypedTuple<String>> scores = new LinkedHashSet<>();
+        scores.add(new DefaultTypedTuple<>("TURKEY", 12.0));
+        when(valueOperations.setIfAbsent(eq(CountryLeaderBoardCache.LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.reverseRangeWithScores("countryLeaderBoard:3", 0, -1)).thenReturn(scores);
+
+        countryLeaderBoardCache.broadcast();
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CountryLeaderBoardCache.CHANNEL), message.capture());
+        countryLeaderBoardCache.onMessage(new DefaultMessage(CountryLeaderBoardCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                message.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+        CountryLeaderBoardSnapshot snapshot = countryLeaderBoardCache.get();
+        assertEquals(3L, snapshot.getTournamentId());
+        assertEquals("[{\"countryName\":\"TURKEY\",\"score\":12}]", new String(snapshot.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void broadcast_whenAnotherNodeHoldsLock_thenDoesNotReadLeaderBoard() {
+        when(valueOperations.setIfAbsent(eq(CountryLeaderBoardCache.LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        countryLeaderBoardCache.broadcast();
+
+        verify(redisTemplate, never()).opsForZSet();
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+}
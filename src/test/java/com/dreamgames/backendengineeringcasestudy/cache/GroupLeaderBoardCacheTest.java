@@ -0,0 +1,83 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupLeaderBoardCacheTest {
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GroupLeaderBoardCache groupLeaderBoardCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        groupLeaderBoardCache = new GroupLeaderBoardCache(listenerContainer, meterRegistry);
+        ReflectionTestUtils.setField(groupLeaderBoardCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(groupLeaderBoardCache, "maxAgeMs", 60000L);
+        groupLeaderBoardCache.start();
+    }
+
+    @Test
+    void getLeaderBoard_whenReadTwice_thenLoadsOnce() {
+        groupLeaderBoardCache.getLeaderBoard(1L, this::load);
+        List<GroupLeaderBoard> leaderBoard = groupLeaderBoardCache.getLeaderBoard(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, leaderBoard.get(0).getTournamentScore());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "groupLeaderBoard").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void onMessage_whenGroupChanged_thenReloadsLeaderBoard() {
+        groupLeaderBoardCache.getLeaderBoard(1L, this::load);
+
+        groupLeaderBoardCache.onMessage(new DefaultMessage(
+                GroupLeaderBoardCache.CHANNEL.getBytes(StandardCharsets.UTF_8), "1:7".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(2, groupLeaderBoardCache.getLeaderBoard(1L, this::load).get(0).getTournamentScore());
+    }
+
+    @Test
+    void getLeaderBoard_whenGroupChangesDuringLoad_thenDoesNotCacheResult() {
+        groupLeaderBoardCache.getLeaderBoard(1L, groupId -> {
+            groupLeaderBoardCache.invalidate(groupId);
+            return load(groupId);
+        });
+
+        groupLeaderBoardCache.getLeaderBoard(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getMemberGroupId_whenUserHasNotEntered_thenDoesNotCacheMiss() {
+        assertNull(groupLeaderBoardCache.getMemberGroupId(1L, 2L, () -> null));
+        assertEquals(5L, groupLeaderBoardCache.getMemberGroupId(1L, 2L, () -> 5L));
+        assertEquals(5L, groupLeaderBoardCache.getMemberGroupId(1L, 2L, () -> null));
+    }
+
+    private List<GroupLeaderBoard> load(Long groupId) {
+        return List.of(new GroupLeaderBoard(10L, "testUser", "TURKEY", loads.incrementAndGet()));
+    }
+}
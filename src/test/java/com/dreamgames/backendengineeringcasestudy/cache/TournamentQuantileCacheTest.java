@@ -0,0 +1,72 @@
+package com.dreamgames.backendengineeringcasestudy.cache;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.ScoreQuantiles;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TournamentQuantileCacheTest {
+
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private ActiveTournamentCache activeTournamentCache;
+
+    @InjectMocks
+    private TournamentQuantileCache tournamentQuantileCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tournamentQuantileCache, "buckets", 4);
+    }
+
+    @Test
+    void refresh_whenTournamentIsActive_thenSamplesItsLeaderBoard() {
+        ScoreQuantiles quantiles = new ScoreQuantiles(101L, new double[]{50, 30, 20, 10, 0});
+        when(activeTournamentCache.get()).thenReturn(activeTournament(1L, ActiveTournament.ACTIVE));
+        when(redisService.getLeaderBoardQuantiles("tournamentLeaderBoard:1", 4)).thenReturn(quantiles);
+
+        tournamentQuantileCache.refresh();
+
+        assertSame(quantiles, tournamentQuantileCache.get(1L));
+        assertNull(tournamentQuantileCache.get(2L));
+    }
+
+    @Test
+    void refresh_whenNoTournamentIsActive_thenSkipsRedis() {
+        when(activeTournamentCache.get()).thenReturn(ActiveTournament.NONE);
+
+        tournamentQuantileCache.refresh();
+
+        verify(redisService, never()).getLeaderBoardQuantiles(any(), anyInt());
+        assertNull(tournamentQuantileCache.get(1L));
+    }
+
+    @Test
+    void estimateRank_thenReturnsRankOfFirstSampleNotBeatingTheScore() {
+        ScoreQuantiles quantiles = new ScoreQuantiles(101L, new double[]{50, 30, 20, 10, 0});
+
+        assertEquals(1L, quantiles.estimateRank(60));
+        assertEquals(1L, quantiles.estimateRank(50));
+        assertEquals(51L, quantiles.estimateRank(25));
+        assertEquals(101L, quantiles.estimateRank(0));
+        assertEquals(101L, quantiles.estimateRank(-1));
+        assertNull(ScoreQuantiles.EMPTY.estimateRank(10));
+    }
+
+    private ActiveTournament activeTournament(Long tournamentId, String status) {
+        return ActiveTournament.builder().epoch(1L).tournamentId(tournamentId).status(status).build();
+    }
+}
@@ -1,10 +1,14 @@
 package com.dreamgames.backendengineeringcasestudy.controller;
 
 
-import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoardSnapshot;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.service.AdmissionService;
 import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
+import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardStreamService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.ScoreSnapshotService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentArchiveService;
 import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
 import org.junit.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +20,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,6 +48,18 @@ public class TournamentControllerTest {
     @MockBean
     private LeaderBoardService leaderBoardService;
 
+    @MockBean
+    private LeaderBoardStreamService leaderBoardStreamService;
+
+    @MockBean
+    private AdmissionService admissionService;
+
+    @MockBean
+    private ScoreSnapshotService scoreSnapshotService;
+
+    @MockBean
+    private TournamentArchiveService tournamentArchiveService;
+
     @Test
     public void testEnterTournament() throws Exception {
         Long userId = 1L;
@@ -82,18 +100,19 @@ public class TournamentControllerTest {
 
     @Test
     public void testGetCountryLeaderBoard() throws Exception {
-        List<CountryLeaderBoard> mockLeaderBoard = new ArrayList<>();
-        mockLeaderBoard.add(new CountryLeaderBoard("USA", 150));
+        CountryLeaderBoardSnapshot snapshot = new CountryLeaderBoardSnapshot(1L, Instant.now(), 1000,
+                "[{\"countryName\":\"USA\",\"score\":150}]".getBytes(StandardCharsets.UTF_8));
 
-        when(leaderBoardService.getCountryLeaderBoardCurrentTournament()).thenReturn(mockLeaderBoard);
+        when(leaderBoardService.getCountryLeaderBoardSnapshot()).thenReturn(snapshot);
 
         mockMvc.perform(get("/country-leaderboard/")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].country").value("USA"))
-                .andExpect(jsonPath("$[0].score").value(150));
+                .andExpect(jsonPath("$[0].score").value(150))
+                .andExpect(header().exists("X-Leaderboard-Generated-At"));
 
-        verify(leaderBoardService).getCountryLeaderBoardCurrentTournament();
+        verify(leaderBoardService).getCountryLeaderBoardSnapshot();
     }
 
     @Test
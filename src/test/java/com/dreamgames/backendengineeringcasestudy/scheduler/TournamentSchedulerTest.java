@@ -1,14 +1,24 @@
 package com.dreamgames.backendengineeringcasestudy.scheduler;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
+import com.dreamgames.backendengineeringcasestudy.domain.Tournament;
+import com.dreamgames.backendengineeringcasestudy.service.LeaseService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.ScoreSnapshotService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentArchiveService;
 import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 
 @ExtendWith(MockitoExtension.class)
 public class TournamentSchedulerTest {
@@ -22,32 +32,135 @@ public class TournamentSchedulerTest {
     @Mock
     private RedisService redisService;
 
+    @Mock
+    private ScoreSnapshotService scoreSnapshotService;
+
+    @Mock
+    private TournamentArchiveService tournamentArchiveService;
+
+    @Mock
+    private LeaseService leaseService;
+
 
     @Test
     public void testCreateTournamentScheduler() {
         // Arrange
         Long expectedTournamentId = 1L;
-        when(tournamentService.createTournament()).thenReturn(expectedTournamentId);
+        LocalDateTime startTime = LocalDateTime.now();
+        Tournament tournament = Tournament.builder()
+                .tournamentId(expectedTournamentId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(20))
+                .status("Active")
+                .build();
+        when(leaseService.tryAcquire(startsWith("createTournament:"), any(Duration.class))).thenReturn(true);
+        when(tournamentService.createTournament()).thenReturn(tournament);
 
         // Act
         scheduler.createTournament();
 
         // Assert
         verify(tournamentService, times(1)).createTournament();
-        verify(redisService, times(1)).createTournament(expectedTournamentId);
+        verify(redisService, times(1)).createTournament(expectedTournamentId, startTime, startTime.plusHours(20));
         verify(redisService, times(1)).createCountryLeaderBoard(expectedTournamentId);
         verifyNoMoreInteractions(tournamentService, redisService);
     }
 
     @Test
     public void testCloseTournamentScheduler() {
+        // Arrange
+        when(leaseService.tryAcquire(startsWith("closeTournament:"), any(Duration.class))).thenReturn(true);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+
         // Act
         scheduler.closeTournament();
 
         // Assert
         verify(tournamentService, times(1)).specifyRewardWinners();
         verify(tournamentService, times(1)).closeTournament();
+        verify(scoreSnapshotService, times(1)).snapshotTournament(1L);
+        verify(redisService, times(1)).getActiveTournamentId();
         verify(redisService, times(1)).closeTournament();
-        verifyNoMoreInteractions(tournamentService, redisService);
+        verify(tournamentArchiveService, times(1)).archiveTournament(1L);
+        InOrder inOrder = inOrder(tournamentArchiveService, redisService);
+        inOrder.verify(tournamentArchiveService).archiveTournament(1L);
+        inOrder.verify(redisService).closeTournament();
+        verifyNoMoreInteractions(tournamentService, redisService, scoreSnapshotService, tournamentArchiveService);
+    }
+
+    @Test
+    public void testCloseTournamentScheduler_whenAnotherNodeHoldsLease_thenSkips() {
+        // Arrange
+        when(leaseService.tryAcquire(startsWith("closeTournament:"), any(Duration.class))).thenReturn(false);
+
+        // Act
+        scheduler.closeTournament();
+
+        // Assert
+        verifyNoInteractions(tournamentService, redisService, scoreSnapshotService, tournamentArchiveService);
+    }
+
+    @Test
+    public void testCloseTournamentScheduler_whenRewardStepFails_thenReleasesLease() {
+        // Arrange
+        when(leaseService.tryAcquire(startsWith("closeTournament:"), any(Duration.class))).thenReturn(true);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        doThrow(new IllegalStateException("3 of 64 reward partitions of tournament 1 are unfinished"))
+                .when(tournamentService).specifyRewardWinners();
+
+        // Act
+        scheduler.closeTournament();
+
+        // Assert
+        verify(leaseService).release(startsWith("closeTournament:"));
+        verify(tournamentService, never()).closeTournament();
+        verify(redisService, never()).closeTournament();
+        verifyNoInteractions(scoreSnapshotService, tournamentArchiveService);
+    }
+
+    @Test
+    public void testCloseTournamentScheduler_whenArchiveFails_thenKeepsTournamentActiveAndReleasesLease() {
+        // Arrange
+        when(leaseService.tryAcquire(startsWith("closeTournament:"), any(Duration.class))).thenReturn(true);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        doThrow(new IllegalStateException("down")).when(tournamentArchiveService).archiveTournament(1L);
+
+        // Act
+        scheduler.closeTournament();
+
+        // Assert
+        verify(scoreSnapshotService).snapshotTournament(1L);
+        verify(leaseService).release(startsWith("closeTournament:"));
+        verify(redisService, never()).closeTournament();
+    }
+
+    @Test
+    public void testRetryCloseTournament_whenActiveTournamentHasEnded_thenRerunsClose() {
+        // Arrange
+        LocalDateTime endTime = LocalDateTime.now().minusMinutes(10);
+        when(redisService.getActiveTournamentEndTime()).thenReturn(endTime);
+        when(leaseService.tryAcquire(eq("closeTournament:" + endTime.toLocalDate()), any(Duration.class))).thenReturn(true);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+
+        // Act
+        scheduler.retryCloseTournament();
+
+        // Assert
+        verify(tournamentService).specifyRewardWinners();
+        verify(redisService).closeTournament();
+        verify(tournamentArchiveService).archiveTournament(1L);
+        verify(leaseService, never()).release(any());
+    }
+
+    @Test
+    public void testRetryCloseTournament_whenActiveTournamentIsRunning_thenSkips() {
+        // Arrange
+        when(redisService.getActiveTournamentEndTime()).thenReturn(LocalDateTime.now().plusHours(1));
+
+        // Act
+        scheduler.retryCloseTournament();
+
+        // Assert
+        verifyNoInteractions(tournamentService, leaseService);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.enums.AdmissionStatus;
+import com.dreamgames.backendengineeringcasestudy.exception.AdmissionQueueFullException;
+import com.dreamgames.backendengineeringcasestudy.exception.AdmissionTicketNotFoundException;
+import com.dreamgames.backendengineeringcasestudy.exception.UserEnteredTournamentBeforeException;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.AdmissionTicket;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdmissionServiceImplTest {
+
+    @Mock
+    private TournamentService tournamentService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionServiceImpl admissionService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        admissionService.stop();
+    }
+
+    @Test
+    void submit_whenUserIsAdmitted_thenTicketCompletesWithLeaderBoard() throws Exception {
+        startService(1, 10);
+        List<GroupLeaderBoard> leaderBoard = List.of(new GroupLeaderBoard(1L, "testUser", "TURKEY", 0));
+        when(tournamentService.enterTournamentAsync(eq(1L), any())).thenReturn(CompletableFuture.completedFuture(leaderBoard));
+
+        AdmissionTicket pendingTicket = admissionService.submit(1L);
+        AdmissionTicket ticket = admissionService.awaitTicket(pendingTicket.getTicketId(), 5000).get();
+
+        assertEquals(AdmissionStatus.PENDING, pendingTicket.getStatus());
+        assertEquals(AdmissionStatus.ADMITTED, ticket.getStatus());
+        assertEquals(leaderBoard, ticket.getLeaderBoard());
+    }
+
+    @Test
+    void submit_whenUserIsNotEligible_thenTicketIsRejectedWithReason() throws Exception {
+        startService(1, 10);
+        when(tournamentService.enterTournamentAsync(eq(1L), any()))
+                .thenThrow(new UserEnteredTournamentBeforeException("User is already registered in the current active tournament."));
+
+        AdmissionTicket pendingTicket = admissionService.submit(1L);
+        AdmissionTicket ticket = admissionService.awaitTicket(pendingTicket.getTicketId(), 5000).get();
+
+        assertEquals(AdmissionStatus.REJECTED, ticket.getStatus());
+        assertEquals("User is already registered in the current active tournament.", ticket.getMessage());
+    }
+
+    @Test
+    void submit_whenMatchmakingFails_thenTicketFails() throws Exception {
+        startService(1, 10);
+        when(tournamentService.enterTournamentAsync(eq(1L), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Group assignment timed out for user: 1")));
+
+        AdmissionTicket pendingTicket = admissionService.submit(1L);
+        AdmissionTicket ticket = admissionService.awaitTicket(pendingTicket.getTicketId(), 5000).get();
+
+        assertEquals(AdmissionStatus.FAILED, ticket.getStatus());
+        assertEquals(0.0, meterRegistry.get("tournament.admission.in-flight").gauge().value());
+    }
+
+    @Test
+    void submit_whenTicketsAreWaitingForMatchmaking_thenWorkersStayFreeAndCapacityAppliesBackpressure() {
+        startService(1, 2);
+        when(tournamentService.enterTournamentAsync(any(), any())).thenReturn(new CompletableFuture<>());
+
+        admissionService.submit(1L);
+        admissionService.submit(2L);
+
+        assertThrows(AdmissionQueueFullException.class, () -> admissionService.submit(3L));
+        assertEquals(2.0, meterRegistry.get("tournament.admission.in-flight").gauge().value());
+        verify(tournamentService, timeout(5000)).enterTournamentAsync(eq(2L), any());
+    }
+
+    @Test
+    void submit_whenUserHasUnfinishedTicket_thenReturnsSameTicket() throws Exception {
+        startService(1, 10);
+        CompletableFuture<List<GroupLeaderBoard>> admission = new CompletableFuture<>();
+        when(tournamentService.enterTournamentAsync(eq(1L), any())).thenReturn(admission);
+
+        AdmissionTicket firstTicket = admissionService.submit(1L);
+        AdmissionTicket secondTicket = admissionService.submit(1L);
+        verify(tournamentService, timeout(5000)).enterTournamentAsync(eq(1L), any());
+        admission.complete(List.of());
+        admissionService.awaitTicket(firstTicket.getTicketId(), 5000).get();
+        AdmissionTicket thirdTicket = admissionService.submit(1L);
+
+        assertEquals(firstTicket.getTicketId(), secondTicket.getTicketId());
+        assertNotEquals(firstTicket.getTicketId(), thirdTicket.getTicketId());
+    }
+
+    @Test
+    void awaitTicket_whenTicketIsUnknown_thenThrowException() {
+        startService(1, 1);
+
+        assertThrows(AdmissionTicketNotFoundException.class, () -> admissionService.awaitTicket("unknown", 0));
+    }
+
+    private void startService(int workers, int queueCapacity) {
+        admissionService = new AdmissionServiceImpl(tournamentService, meterRegistry);
+        ReflectionTestUtils.setField(admissionService, "workers", workers);
+        ReflectionTestUtils.setField(admissionService, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(admissionService, "maxWaitMs", 10000L);
+        admissionService.start();
+    }
+}
@@ -0,0 +1,74 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CountryScoreBufferServiceImplTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CountryScoreBufferServiceImpl countryScoreBufferService;
+
+    @BeforeEach
+    void setUp() {
+        countryScoreBufferService = new CountryScoreBufferServiceImpl(redisService, meterRegistry);
+        countryScoreBufferService.registerMetrics();
+    }
+
+    @Test
+    void flush_whenManyLevelUpsArePending_thenSendsOneIncrementPerCountry() throws InterruptedException {
+        ExecutorService levelUps = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10000; i++) {
+            String country = i % 2 == 0 ? "TURKEY" : "FRANCE";
+            levelUps.execute(() -> countryScoreBufferService.addScore(1L, country, 1));
+        }
+        levelUps.shutdown();
+        assertTrue(levelUps.awaitTermination(10, TimeUnit.SECONDS));
+
+        countryScoreBufferService.flush();
+
+        verify(redisService).incrementCountryLeaderBoardScores(1L, Map.of("TURKEY", 5000L, "FRANCE", 5000L));
+        assertEquals(10000.0, meterRegistry.get("tournament.country-scores.increments").counter().count());
+        assertEquals(2.0, meterRegistry.get("tournament.country-scores.redis-commands").counter().count());
+        assertTrue(countryScoreBufferService.getPendingScores(1L).isEmpty());
+    }
+
+    @Test
+    void getPendingScores_whenNotFlushed_thenReturnsScoresOfTournament() {
+        countryScoreBufferService.addScore(1L, "TURKEY", 1);
+        countryScoreBufferService.addScore(1L, "TURKEY", 1);
+        countryScoreBufferService.addScore(2L, "FRANCE", 1);
+
+        assertEquals(Map.of("TURKEY", 2L), countryScoreBufferService.getPendingScores(1L));
+    }
+
+    @Test
+    void flush_whenRedisFails_thenKeepsScoresPending() {
+        countryScoreBufferService.addScore(1L, "TURKEY", 3);
+        doThrow(new IllegalStateException("Redis is down"))
+                .when(redisService).incrementCountryLeaderBoardScores(eq(1L), anyMap());
+
+        countryScoreBufferService.flush();
+
+        assertEquals(Map.of("TURKEY", 3L), countryScoreBufferService.getPendingScores(1L));
+    }
+}
@@ -1,30 +1,50 @@
 package com.dreamgames.backendengineeringcasestudy.service.impl;
 
+import com.dreamgames.backendengineeringcasestudy.cache.CountryLeaderBoardCache;
+import com.dreamgames.backendengineeringcasestudy.cache.GroupLeaderBoardCache;
+import com.dreamgames.backendengineeringcasestudy.cache.TournamentQuantileCache;
 import com.dreamgames.backendengineeringcasestudy.domain.GroupInfo;
 import com.dreamgames.backendengineeringcasestudy.domain.TournamentGroups;
-import com.dreamgames.backendengineeringcasestudy.domain.User;
+import com.dreamgames.backendengineeringcasestudy.exception.NoActiveTournamentException;
+import com.dreamgames.backendengineeringcasestudy.exception.RankBatchTooLargeException;
 import com.dreamgames.backendengineeringcasestudy.exception.UserDidNotEnteredTournamentException;
 import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoardSnapshot;
 import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardPage;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.ScoreQuantiles;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentHistoryEntry;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentPercentile;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.UserGroupRank;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.TournamentMembership;
 import com.dreamgames.backendengineeringcasestudy.repository.GroupInfoRepository;
 import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.UserDisplayName;
+import com.dreamgames.backendengineeringcasestudy.service.CountryScoreBufferService;
 import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.TournamentArchiveService;
 import com.dreamgames.backendengineeringcasestudy.service.TournamentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.DefaultTypedTuple;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class LeaderBoardServiceTest {
@@ -38,9 +58,34 @@ public class LeaderBoardServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private CountryScoreBufferService countryScoreBufferService;
+
+    @Mock
+    private CountryLeaderBoardCache countryLeaderBoardCache;
+
+    @Mock
+    private TournamentQuantileCache tournamentQuantileCache;
+
+    @Mock
+    private TournamentArchiveService tournamentArchiveService;
+
     private LeaderBoardServiceImpl leaderBoardService;
 
+    @BeforeEach
+    void setUp() {
+        GroupLeaderBoardCache groupLeaderBoardCache = new GroupLeaderBoardCache(listenerContainer, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(groupLeaderBoardCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(groupLeaderBoardCache, "maxAgeMs", 60000L);
+        groupLeaderBoardCache.start();
+        leaderBoardService = new LeaderBoardServiceImpl(groupInfoRepository, redisService, userRepository, groupLeaderBoardCache,
+                countryScoreBufferService, countryLeaderBoardCache, tournamentQuantileCache,
+                tournamentArchiveService);
+    }
+
 
     @Test
     void whenGetGroupLeaderBoardWithGroupId_thenReturnSortedLeaderBoard() {
@@ -49,20 +94,13 @@ public class LeaderBoardServiceTest {
         Long userId = 100L;
         String redisKey = "groupLeaderBoard:" + groupId;
         Set<ZSetOperations.TypedTuple<String>> redisData = new HashSet<>();
-        ZSetOperations.TypedTuple<String> typedTuple = new DefaultTypedTuple<>("user:" + userId, 10.0);
+        ZSetOperations.TypedTuple<String> typedTuple = new DefaultTypedTuple<>("user:" + userId, LeaderBoardScoreCodec.encode(10, 0));
         redisData.add(typedTuple);
 
         when(redisService.getGroupLeaderBoard(groupId)).thenReturn(redisData);
 
-        User mockUser = new User();
-        mockUser.setUserId(userId);
-        mockUser.setUsername("testUser");
-        mockUser.setCountry("USA");
-
-        GroupInfo mockGroupInfo = new GroupInfo();
-        mockGroupInfo.setUser(mockUser);
-
-        when(groupInfoRepository.findByUserId(userId)).thenReturn(Optional.of(mockGroupInfo));
+        when(userRepository.findDisplayNamesByUserIdIn(List.of(userId)))
+                .thenReturn(List.of(new DisplayName(userId, "testUser", "USA")));
 
         // Act
         List<GroupLeaderBoard> result = leaderBoardService.getGroupLeaderBoardWithGroupId(groupId);
@@ -76,11 +114,48 @@ public class LeaderBoardServiceTest {
         assertEquals(10, leaderBoardEntry.getTournamentScore());
     }
 
+    @Test
+    void getGroupLeaderBoardWithUserId_whenReadRepeatedly_thenServedFromCache() {
+        // Arrange
+        Long tournamentId = 2L;
+        Long userId = 100L;
+        Long groupId = 1L;
+        Set<ZSetOperations.TypedTuple<String>> redisData = new LinkedHashSet<>();
+        redisData.add(new DefaultTypedTuple<>("User:" + userId, LeaderBoardScoreCodec.encode(10, 0)));
+
+        when(redisService.getActiveTournamentId()).thenReturn(tournamentId);
+        when(redisService.getTournamentMembership(tournamentId, userId)).thenReturn(new TournamentMembership(groupId, true));
+        when(redisService.getGroupLeaderBoard(groupId)).thenReturn(redisData);
+        when(userRepository.findDisplayNamesByUserIdIn(List.of(userId)))
+                .thenReturn(List.of(new DisplayName(userId, "testUser", "USA")));
+
+        // Act
+        leaderBoardService.getGroupLeaderBoardWithUserId(userId);
+        List<GroupLeaderBoard> result = leaderBoardService.getGroupLeaderBoardWithUserId(userId);
+
+        // Assert
+        assertEquals(10, result.get(0).getTournamentScore());
+        verify(redisService, times(1)).getTournamentMembership(tournamentId, userId);
+        verify(redisService, times(1)).getGroupLeaderBoard(groupId);
+        verify(userRepository, times(1)).findDisplayNamesByUserIdIn(List.of(userId));
+    }
+
+    @Test
+    void getGroupLeaderBoardWithGroupId_whenGroupIsEmpty_thenSkipsDatabase() {
+        // Arrange
+        when(redisService.getGroupLeaderBoard(1L)).thenReturn(new LinkedHashSet<>());
+
+        // Act & Assert
+        assertTrue(leaderBoardService.getGroupLeaderBoardWithGroupId(1L).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getGroupLeaderBoardWithUserId_whenInvalidUserId_thenThrowUserNotFoundException() {
         // Arrange
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(redisService.getActiveTournamentId()).thenReturn(2L);
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(UserNotFoundException.class, () -> {
@@ -93,9 +168,9 @@ public class LeaderBoardServiceTest {
         // Arrange
         Long userId = 1L;
         Long tournamentId = 2L;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(redisService.getActiveTournamentId()).thenReturn(tournamentId);
-        when(groupInfoRepository.findByTournamentIdAndUserId(tournamentId, userId)).thenReturn(Optional.empty());
+        when(redisService.getTournamentMembership(tournamentId, userId)).thenReturn(null);
 
         // Act & Assert
         assertThrows(UserDidNotEnteredTournamentException.class, () -> {
@@ -129,6 +204,53 @@ public class LeaderBoardServiceTest {
         assertEquals(100, result.get(1).getScore());
     }
 
+    @Test
+    void getCountryLeaderBoardCurrentTournament_whenScoresArePending_thenMergesAndSorts() {
+        // Arrange
+        Long tournamentId = 1L;
+        Set<ZSetOperations.TypedTuple<String>> mockLeaderBoard = new LinkedHashSet<>();
+        mockLeaderBoard.add(new DefaultTypedTuple<>("TURKEY", 100.0));
+        mockLeaderBoard.add(new DefaultTypedTuple<>("FRANCE", 80.0));
+
+        when(redisService.getActiveTournamentId()).thenReturn(tournamentId);
+        when(redisService.getCountryLeaderBoard("countryLeaderBoard:" + tournamentId)).thenReturn(mockLeaderBoard);
+        when(countryScoreBufferService.getPendingScores(tournamentId)).thenReturn(Map.of("FRANCE", 30L));
+
+        // Act
+        List<CountryLeaderBoard> result = leaderBoardService.getCountryLeaderBoardCurrentTournament();
+
+        // Assert
+        assertEquals("FRANCE", result.get(0).getCountryName());
+        assertEquals(110, result.get(0).getScore());
+        assertEquals("TURKEY", result.get(1).getCountryName());
+        assertEquals(100, result.get(1).getScore());
+    }
+
+    @Test
+    void getCountryLeaderBoardSnapshot_whenBroadcastIsCurrent_thenServesItWithoutRedis() {
+        // Arrange
+        CountryLeaderBoardSnapshot snapshot = new CountryLeaderBoardSnapshot(1L, Instant.now(), 1000, new byte[0]);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(countryLeaderBoardCache.get()).thenReturn(snapshot);
+
+        // Act & Assert
+        assertSame(snapshot, leaderBoardService.getCountryLeaderBoardSnapshot());
+        verify(redisService, never()).getCountryLeaderBoard(any());
+    }
+
+    @Test
+    void getCountryLeaderBoardSnapshot_whenBroadcastIsOfAnotherTournament_thenRendersFromRedis() {
+        // Arrange
+        CountryLeaderBoardSnapshot rendered = new CountryLeaderBoardSnapshot(2L, Instant.now(), 1000, new byte[0]);
+        when(redisService.getActiveTournamentId()).thenReturn(2L);
+        when(countryLeaderBoardCache.get()).thenReturn(new CountryLeaderBoardSnapshot(1L, Instant.now(), 1000, new byte[0]));
+        when(redisService.getCountryLeaderBoard("countryLeaderBoard:2")).thenReturn(new LinkedHashSet<>());
+        when(countryLeaderBoardCache.render(2L, List.of())).thenReturn(rendered);
+
+        // Act & Assert
+        assertSame(rendered, leaderBoardService.getCountryLeaderBoardSnapshot());
+    }
+
     @Test
     void getCountryLeaderBoardCurrentTournament_EmptyLeaderboard() {
         // Arrange
@@ -152,18 +274,198 @@ public class LeaderBoardServiceTest {
         Long groupId = 10L;
         Integer expectedRank = 1;
 
-        GroupInfo mockGroupInfo = new GroupInfo();
+        when(redisService.getUserGroupRanks(tournamentId, List.of(userId)))
+                .thenReturn(List.of(new UserGroupRank(userId, groupId, expectedRank, 40, 5)));
+
+        // Act
+        Integer actualRank = leaderBoardService.getUserTournamentGroupRank(tournamentId, userId);
 
+        // Assert
+        assertEquals(expectedRank, actualRank);
+        verifyNoInteractions(groupInfoRepository);
+    }
+
+    @Test
+    void getUserTournamentGroupRank_whenPastTournament_thenFallsBackToDatabase() {
+        // Arrange
+        Long tournamentId = 1L;
+        Long userId = 1L;
+        Long groupId = 10L;
+
+        GroupInfo mockGroupInfo = new GroupInfo();
         mockGroupInfo.setGroup(TournamentGroups.builder().groupId(groupId).build());
 
-        when(groupInfoRepository.findByTournamentIdAndUserId(tournamentId, userId))
-                .thenReturn(Optional.of(mockGroupInfo));
-        when(redisService.getRankOfUserInGroupLeaderBoard(groupId, userId)).thenReturn(expectedRank);
+        when(redisService.getUserGroupRanks(tournamentId, List.of(userId))).thenReturn(Collections.singletonList(null));
+        when(redisService.getActiveTournamentId()).thenReturn(2L);
+        when(groupInfoRepository.findByTournamentIdAndUserId(tournamentId, userId)).thenReturn(Optional.of(mockGroupInfo));
+        when(redisService.getRankOfUserInGroupLeaderBoard(groupId, userId)).thenReturn(3);
+
+        // Act & Assert
+        assertEquals(3, leaderBoardService.getUserTournamentGroupRank(tournamentId, userId));
+    }
+
+    @Test
+    void getUserTournamentGroupRank_whenTournamentIsArchived_thenReadsArchive() {
+        // Arrange
+        when(redisService.getUserGroupRanks(1L, List.of(5L))).thenReturn(Collections.singletonList(null));
+        when(redisService.getActiveTournamentId()).thenReturn(2L);
+        when(tournamentArchiveService.findArchivedStanding(1L, 5L)).thenReturn(new TournamentHistoryEntry(1L, 10L, 2, 30, 5));
+
+        // Act & Assert
+        assertEquals(2, leaderBoardService.getUserTournamentGroupRank(1L, 5L));
+        verifyNoInteractions(groupInfoRepository);
+    }
+
+    @Test
+    void getUserTournamentGroupRanks_whenSomeUsersDidNotEnter_thenLeavesThemOut() {
+        // Arrange
+        UserGroupRank ranked = new UserGroupRank(1L, 10L, 2, 40, 5);
+        when(redisService.getActiveTournamentId()).thenReturn(3L);
+        when(redisService.getUserGroupRanks(3L, List.of(1L, 2L))).thenReturn(Arrays.asList(ranked, null));
 
         // Act
-        Integer actualRank = leaderBoardService.getUserTournamentGroupRank(tournamentId, userId);
+        List<UserGroupRank> ranks = leaderBoardService.getUserTournamentGroupRanks(null, List.of(1L, 2L));
 
         // Assert
-        assertEquals(expectedRank, actualRank);
+        assertEquals(List.of(ranked), ranks);
+        verifyNoInteractions(groupInfoRepository);
+    }
+
+    @Test
+    void getUserTournamentGroupRanks_whenBatchIsTooLarge_thenThrowException() {
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 0; userId <= 500; userId++) {
+            userIds.add(userId);
+        }
+
+        assertThrows(RankBatchTooLargeException.class, () -> leaderBoardService.getUserTournamentGroupRanks(1L, userIds));
+        verifyNoInteractions(redisService);
+    }
+
+    @Test
+    void getGroupLeaderBoardAroundUser_thenReadsOnlyTheWindow() {
+        // Arrange
+        Long tournamentId = 2L;
+        Long userId = 100L;
+        List<ZSetOperations.TypedTuple<String>> entries = List.of(
+                new DefaultTypedTuple<>("User:99", LeaderBoardScoreCodec.encode(12, 0)), new DefaultTypedTuple<>("User:100", LeaderBoardScoreCodec.encode(10, 0)));
+
+        when(redisService.getActiveTournamentId()).thenReturn(tournamentId);
+        when(redisService.getTournamentMembership(tournamentId, userId)).thenReturn(new TournamentMembership(7L, true));
+        when(redisService.getLeaderBoardWindow("groupLeaderBoard:7", "User:100", -1, 2))
+                .thenReturn(new LeaderBoardPage<>(41, 1000L, entries));
+        when(userRepository.findDisplayNamesByUserIdIn(List.of(99L, 100L))).thenReturn(List.of(
+                new DisplayName(100L, "me", "TURKEY"), new DisplayName(99L, "rival", "FRANCE")));
+
+        // Act
+        LeaderBoardPage<GroupLeaderBoard> page = leaderBoardService.getGroupLeaderBoardAroundUser(userId, 1, 0);
+
+        // Assert
+        assertEquals(41, page.getFirstRank());
+        assertEquals(1000L, page.getTotalEntries());
+        assertEquals("rival", page.getEntries().get(0).getUsername());
+        assertEquals("me", page.getEntries().get(1).getUsername());
+        verify(redisService, never()).getGroupLeaderBoard(any());
+    }
+
+    @Test
+    void getCountryLeaderBoardPage_whenLimitIsTooLarge_thenCapsWindow() {
+        // Arrange
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.getLeaderBoardWindow("countryLeaderBoard:1", null, 0, 100))
+                .thenReturn(new LeaderBoardPage<>(1, 1L, List.of(new DefaultTypedTuple<>("TURKEY", 5.0))));
+
+        // Act
+        LeaderBoardPage<CountryLeaderBoard> page = leaderBoardService.getCountryLeaderBoardPage(-3, 5000);
+
+        // Assert
+        assertEquals("TURKEY", page.getEntries().get(0).getCountryName());
+        assertEquals(5, page.getEntries().get(0).getScore());
+    }
+
+    @Test
+    void getTournamentPercentile_whenExact_thenReadsRankFromTournamentLeaderBoard() {
+        // Arrange
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.getLeaderBoardWindow("tournamentLeaderBoard:1", "User:100", 0, 1))
+                .thenReturn(new LeaderBoardPage<>(25, 1000L, List.of(new DefaultTypedTuple<>("User:100", LeaderBoardScoreCodec.encode(30, 0)))));
+
+        // Act
+        TournamentPercentile percentile = leaderBoardService.getTournamentPercentile(100L, false);
+
+        // Assert
+        assertEquals(25L, percentile.getRank());
+        assertEquals(30, percentile.getTournamentScore());
+        assertEquals(2.5, percentile.getTopPercent());
+        assertFalse(percentile.getApproximate());
+        verify(tournamentQuantileCache, never()).get(any());
+    }
+
+    @Test
+    void getTournamentPercentile_whenApproximate_thenRanksCachedScoreAgainstSample() {
+        // Arrange
+        Long userId = 100L;
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(tournamentQuantileCache.get(1L)).thenReturn(new ScoreQuantiles(101L, new double[]{
+                LeaderBoardScoreCodec.encode(50, 0), LeaderBoardScoreCodec.encode(30, 0), LeaderBoardScoreCodec.encode(20, 0),
+                LeaderBoardScoreCodec.encode(10, 0), 0}));
+        when(redisService.getTournamentMembership(1L, userId)).thenReturn(new TournamentMembership(7L, true));
+        when(redisService.getGroupLeaderBoard(7L)).thenReturn(new LinkedHashSet<>(List.of(new DefaultTypedTuple<>("User:100", LeaderBoardScoreCodec.encode(25, 3)))));
+        when(userRepository.findDisplayNamesByUserIdIn(List.of(userId))).thenReturn(List.of(new DisplayName(userId, "me", "TURKEY")));
+        leaderBoardService.getGroupLeaderBoardWithUserId(userId);
+
+        // Act
+        TournamentPercentile percentile = leaderBoardService.getTournamentPercentile(userId, true);
+
+        // Assert
+        assertEquals(51L, percentile.getRank());
+        assertEquals(25, percentile.getTournamentScore());
+        assertEquals(101L, percentile.getTotalPlayers());
+        assertTrue(percentile.getApproximate());
+        verify(redisService, never()).getLeaderBoardWindow(any(), any(), anyInt(), anyInt());
+        verify(redisService, times(1)).getTournamentMembership(1L, userId);
+        verify(redisService, times(1)).getGroupLeaderBoard(7L);
+    }
+
+    @Test
+    void getTournamentPercentile_whenApproximateButGroupIsNotCached_thenReadsExactRank() {
+        // Arrange
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(tournamentQuantileCache.get(1L)).thenReturn(new ScoreQuantiles(101L, new double[]{LeaderBoardScoreCodec.encode(50, 0), 0}));
+        when(redisService.getLeaderBoardWindow("tournamentLeaderBoard:1", "User:100", 0, 1))
+                .thenReturn(new LeaderBoardPage<>(25, 1000L, List.of(new DefaultTypedTuple<>("User:100", LeaderBoardScoreCodec.encode(30, 0)))));
+
+        // Act
+        TournamentPercentile percentile = leaderBoardService.getTournamentPercentile(100L, true);
+
+        // Assert
+        assertEquals(25L, percentile.getRank());
+        assertFalse(percentile.getApproximate());
+        verify(redisService, never()).getTournamentMembership(any(), any());
+        verify(redisService, never()).getGroupLeaderBoard(any());
+    }
+
+    @Test
+    void getTournamentPercentile_whenNoActiveTournament_thenThrowException() {
+        // Arrange
+        doThrow(new NoActiveTournamentException("There is no active tournament")).when(redisService).checkActiveTournament();
+
+        // Act & Assert
+        assertThrows(NoActiveTournamentException.class, () -> leaderBoardService.getTournamentPercentile(100L, true));
+        verifyNoInteractions(tournamentQuantileCache);
+    }
+
+    @Test
+    void getTournamentPercentile_whenUserIsNotRanked_thenThrowException() {
+        // Arrange
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.getLeaderBoardWindow("tournamentLeaderBoard:1", "User:100", 0, 1)).thenReturn(null);
+        when(userRepository.existsById(100L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(UserDidNotEnteredTournamentException.class, () -> leaderBoardService.getTournamentPercentile(100L, false));
+    }
+
+    private record DisplayName(Long getUserId, String getUsername, String getCountry) implements UserDisplayName {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaderBoardStreamServiceImplTest {
+
+    @Mock
+    private LeaderBoardService leaderBoardService;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LeaderBoardStreamServiceImpl leaderBoardStreamService;
+
+    @BeforeEach
+    void setUp() {
+        leaderBoardStreamService = new LeaderBoardStreamServiceImpl(leaderBoardService, listenerContainer, meterRegistry);
+        ReflectionTestUtils.setField(leaderBoardStreamService, "timeoutMs", 60000L);
+        leaderBoardStreamService.start();
+    }
+
+    @Test
+    void publishChanges_whenGroupChangedRepeatedly_thenSendsOneCoalescedFrame() {
+        when(leaderBoardService.getActiveGroupId(1L)).thenReturn(7L);
+        when(leaderBoardService.getGroupLeaderBoardWithGroupId(7L))
+                .thenReturn(List.of(new GroupLeaderBoard(1L, "me", "TURKEY", 0), new GroupLeaderBoard(2L, "rival", "FRANCE", 0)))
+                .thenReturn(List.of(new GroupLeaderBoard(1L, "me", "TURKEY", 25), new GroupLeaderBoard(2L, "rival", "FRANCE", 0)));
+        leaderBoardStreamService.subscribe(1L);
+
+        leaderBoardStreamService.onMessage(change("7:2"), null);
+        leaderBoardStreamService.onMessage(change("7:3"), null);
+        leaderBoardStreamService.publishChanges();
+        leaderBoardStreamService.publishChanges();
+
+        verify(leaderBoardService, times(2)).getGroupLeaderBoardWithGroupId(7L);
+        assertEquals(1.0, meterRegistry.get("tournament.leaderboard-stream.frames").counter().count());
+        assertEquals(1.0, meterRegistry.get("tournament.leaderboard-stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void publishChanges_whenChangedGroupIsNotWatched_thenRendersNothing() {
+        leaderBoardStreamService.onMessage(change("8:1"), null);
+        leaderBoardStreamService.publishChanges();
+
+        verifyNoInteractions(leaderBoardService);
+    }
+
+    private DefaultMessage change(String body) {
+        return new DefaultMessage("groupLeaderBoardChanged".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaseServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private LeaseServiceImpl leaseService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(leaseService, "leaseTtlMs", 30000L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void tryAcquireRenewable_whenLeaseIsFree_thenRenewsItUntilLost() {
+        when(valueOperations.setIfAbsent("lease:shard", leaseService.getNodeId(), Duration.ofMillis(30000))).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("lease:shard")), eq(leaseService.getNodeId()), eq("30000")))
+                .thenReturn(1L, 0L);
+
+        assertTrue(leaseService.tryAcquireRenewable("shard"));
+        leaseService.renewLeases();
+        assertEquals(Set.of("shard"), ReflectionTestUtils.getField(leaseService, "renewedLeases"));
+        leaseService.renewLeases();
+
+        assertEquals(Set.of(), ReflectionTestUtils.getField(leaseService, "renewedLeases"));
+    }
+
+    @Test
+    void tryAcquireRenewable_whenAnotherNodeHoldsLease_thenFails() {
+        when(valueOperations.setIfAbsent(eq("lease:shard"), any(), any(Duration.class))).thenReturn(false);
+
+        assertFalse(leaseService.tryAcquireRenewable("shard"));
+        assertEquals(Set.of(), ReflectionTestUtils.getField(leaseService, "renewedLeases"));
+    }
+}
@@ -0,0 +1,189 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.domain.GroupInfo;
+import com.dreamgames.backendengineeringcasestudy.domain.TournamentGroups;
+import com.dreamgames.backendengineeringcasestudy.exception.UserEnteredTournamentBeforeException;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupAssignment;
+import com.dreamgames.backendengineeringcasestudy.repository.*;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class MatchmakingServiceImplTest {
+
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TournamentRepository tournamentRepository;
+    @Mock
+    private TournamentGroupsRepository tournamentGroupsRepository;
+    @Mock
+    private GroupInfoRepository groupInfoRepository;
+    @Mock
+    private GroupInfoBatchRepository groupInfoBatchRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private MatchmakingServiceImpl matchmakingService;
+
+    private final AtomicLong groupIds = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(tournamentGroupsRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TournamentGroups> groups = invocation.getArgument(0);
+            groups.forEach(group -> group.setGroupId(groupIds.incrementAndGet()));
+            return groups;
+        });
+    }
+
+    @Test
+    void processBatch_whenFiveCountriesQueued_thenPacksOneFullGroup() throws Exception {
+        List<MatchmakingServiceImpl.PendingEntry> batch = List.of(
+                entry(1L, "TURKEY"), entry(2L, "UNITED_STATES"), entry(3L, "UNITED_KINGDOM"),
+                entry(4L, "FRANCE"), entry(5L, "GERMANY"));
+
+        matchmakingService.processBatch(batch);
+
+        for (MatchmakingServiceImpl.PendingEntry entry : batch) {
+            assertEquals(101L, entry.groupId().get());
+        }
+        ArgumentCaptor<List<GroupInfo>> groupInfos = ArgumentCaptor.forClass(List.class);
+        verify(groupInfoBatchRepository).insertAll(groupInfos.capture());
+        assertEquals(5, groupInfos.getValue().size());
+        assertTrue(groupInfos.getValue().stream().allMatch(GroupInfo::getHasGroupBegan));
+        verify(redisService).registerGroup(eq(1L), eq(101L), argThat((Map<Long, String> members) -> members.size() == 5));
+        verify(redisService, never()).joinOpenGroup(any(), any(), any());
+    }
+
+    @Test
+    void processBatch_whenLeftoversRemain_thenFillsOpenSlotsBeforeCreatingGroups() throws Exception {
+        MatchmakingServiceImpl.PendingEntry joining = entry(1L, "TURKEY");
+        MatchmakingServiceImpl.PendingEntry founding = entry(2L, "FRANCE");
+        when(redisService.joinOpenGroup(1L, 1L, "TURKEY")).thenReturn(new GroupAssignment(7L, 5));
+        when(redisService.joinOpenGroup(1L, 2L, "FRANCE")).thenReturn(null);
+
+        matchmakingService.processBatch(List.of(joining, founding));
+
+        assertEquals(7L, joining.groupId().get());
+        assertEquals(101L, founding.groupId().get());
+        verify(tournamentGroupsRepository).updateGroupSize(7L, 5);
+        verify(groupInfoRepository).updateHasGroupBegunForAllOccurrences(7L);
+        verify(redisService).registerGroup(1L, 101L, Map.of(2L, "FRANCE"));
+    }
+
+    @Test
+    void processBatch_whenUserQueuedTwice_thenRejectsDuplicate() {
+        MatchmakingServiceImpl.PendingEntry first = entry(1L, "TURKEY");
+        MatchmakingServiceImpl.PendingEntry duplicate = entry(1L, "TURKEY");
+
+        matchmakingService.processBatch(List.of(first, duplicate));
+
+        assertDoesNotThrow(() -> first.groupId().get());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> duplicate.groupId().get());
+        assertInstanceOf(UserEnteredTournamentBeforeException.class, exception.getCause());
+    }
+
+    @Test
+    void processBatch_whenPersistingFails_thenTakesJoinedUsersOutOfTheirGroups() {
+        MatchmakingServiceImpl.PendingEntry joining = entry(1L, "TURKEY");
+        when(redisService.joinOpenGroup(1L, 1L, "TURKEY")).thenReturn(new GroupAssignment(7L, 5));
+        doThrow(new IllegalStateException("Deadlock")).when(transactionTemplate).execute(any());
+
+        matchmakingService.processBatch(List.of(joining));
+
+        verify(redisService).leaveGroup(1L, 7L, 1L, "TURKEY");
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> joining.groupId().get());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void processBatch_whenGroupCannotBeRegistered_thenDiscardsOnlyThatGroup() throws Exception {
+        List<MatchmakingServiceImpl.PendingEntry> batch = List.of(
+                entry(1L, "TURKEY"), entry(2L, "UNITED_STATES"), entry(3L, "UNITED_KINGDOM"),
+                entry(4L, "FRANCE"), entry(5L, "GERMANY"), entry(6L, "TURKEY"));
+        when(redisService.joinOpenGroup(any(), any(), any())).thenReturn(null);
+        doThrow(new IllegalStateException("Redis is down")).when(redisService).registerGroup(eq(1L), eq(101L), any());
+
+        matchmakingService.processBatch(batch);
+
+        verify(redisService).unregisterGroup(eq(1L), eq(101L), argThat((Collection<Long> members) -> members.size() == 5));
+        verify(groupInfoRepository).deleteByGroupId(101L);
+        verify(tournamentGroupsRepository).deleteById(101L);
+        assertThrows(ExecutionException.class, () -> batch.get(0).groupId().get());
+        assertEquals(102L, batch.get(5).groupId().get());
+    }
+
+    @Test
+    void processBatch_whenCallerHasGivenUp_thenSkipsEntry() {
+        MatchmakingServiceImpl.PendingEntry abandoned = entry(1L, "TURKEY");
+        abandoned.groupId().completeExceptionally(new IllegalStateException("Group assignment timed out for user: 1"));
+
+        matchmakingService.processBatch(List.of(abandoned));
+
+        verify(redisService, never()).joinOpenGroup(any(), any(), any());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void assignGroup_whenAssignmentTimesOut_thenWithdrawsEntry() {
+        ReflectionTestUtils.setField(matchmakingService, "waitTimeoutMs", 10L);
+
+        assertThrows(IllegalStateException.class, () -> matchmakingService.assignGroup(1L, "TURKEY", 1L));
+
+        Collection<?> pendingEntries = (Collection<?>) ReflectionTestUtils.getField(matchmakingService, "pendingEntries");
+        assertTrue(pendingEntries.isEmpty());
+    }
+
+    @Test
+    void submit_whenTimeoutPassesWhileEntryIsInBatch_thenCompletesWithPlacement() throws Exception {
+        ReflectionTestUtils.setField(matchmakingService, "waitTimeoutMs", 10L);
+        CompletableFuture<Long> groupId = matchmakingService.submit(1L, "TURKEY", 1L);
+        BlockingQueue<MatchmakingServiceImpl.PendingEntry> pendingEntries =
+                (BlockingQueue<MatchmakingServiceImpl.PendingEntry>) ReflectionTestUtils.getField(matchmakingService, "pendingEntries");
+        MatchmakingServiceImpl.PendingEntry taken = pendingEntries.poll();
+        when(redisService.joinOpenGroup(1L, 1L, "TURKEY")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return new GroupAssignment(7L, 3);
+        });
+
+        matchmakingService.processBatch(List.of(taken));
+
+        assertEquals(7L, groupId.get());
+        verify(redisService, never()).leaveGroup(any(), any(), any(), any());
+    }
+
+    private MatchmakingServiceImpl.PendingEntry entry(Long userId, String country) {
+        return new MatchmakingServiceImpl.PendingEntry(userId, country, 1L, new CompletableFuture<>());
+    }
+}
@@ -0,0 +1,162 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.enums.RedisKeyFamily;
+import com.dreamgames.backendengineeringcasestudy.model.redis.KeyFamilyUsage;
+import com.dreamgames.backendengineeringcasestudy.model.redis.KeyspaceReport;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentGroupsRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.GroupTournamentEnd;
+import com.dreamgames.backendengineeringcasestudy.service.LeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class RedisKeyspaceServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private TournamentRepository tournamentRepository;
+    @Mock
+    private TournamentGroupsRepository tournamentGroupsRepository;
+    @Mock
+    private LeaseService leaseService;
+    @Mock
+    private StringRedisConnection connection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RedisKeyspaceServiceImpl redisKeyspaceService;
+
+    @BeforeEach
+    void setUp() {
+        redisKeyspaceService = new RedisKeyspaceServiceImpl(redisTemplate, tournamentRepository, tournamentGroupsRepository,
+                leaseService, meterRegistry);
+        ReflectionTestUtils.setField(redisKeyspaceService, "keyGraceHours", 48L);
+        ReflectionTestUtils.setField(redisKeyspaceService, "reaperEnabled", true);
+        ReflectionTestUtils.setField(redisKeyspaceService, "batchSize", 500);
+        ReflectionTestUtils.setField(redisKeyspaceService, "samplesPerFamily", 1);
+        ReflectionTestUtils.setField(redisKeyspaceService, "memoryUsageSamples", 5);
+        redisKeyspaceService.start();
+    }
+
+    @Test
+    void reapBatch_whenKeysHaveNoExpiry_thenExpiresOrUnlinksThemByTournamentEnd() {
+        LocalDateTime currentEnd = LocalDateTime.now().plusHours(10);
+        when(tournamentGroupsRepository.findTournamentEndTimes(any())).thenReturn(List.of(
+                groupEnd(1L, LocalDateTime.now().minusDays(5)), groupEnd(2L, currentEnd)));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(-1L, -1L, 3600L))
+                .thenAnswer(invocation -> {
+                    invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+                    return List.of();
+                });
+
+        int reaped = redisKeyspaceService.reapBatch(RedisKeyFamily.GROUP_LEADERBOARD,
+                List.of("groupLeaderBoard:1", "groupLeaderBoard:2", "groupLeaderBoard:3"));
+
+        assertEquals(2, reaped);
+        verify(redisTemplate).unlink(List.of("groupLeaderBoard:1"));
+        verify(connection).expireAt("groupLeaderBoard:2", currentEnd.plusHours(48).atZone(ZoneId.systemDefault()).toEpochSecond());
+        verify(connection, never()).expireAt(eq("groupLeaderBoard:3"), anyLong());
+        assertEquals(1.0, meterRegistry.get("tournament.redis.keys.reaped").tag("action", "unlink").counter().count());
+    }
+
+    @Test
+    void reapBatch_whenTournamentIsUnknown_thenExpiresAfterGracePeriodFromNow() {
+        when(tournamentRepository.findAllById(any())).thenReturn(List.of());
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(-1L))
+                .thenAnswer(invocation -> {
+                    invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+                    return List.of();
+                });
+        long expectedExpiry = LocalDateTime.now().plusHours(48).atZone(ZoneId.systemDefault()).toEpochSecond();
+
+        redisKeyspaceService.reapBatch(RedisKeyFamily.OPEN_GROUP_SLOTS, List.of("openGroupSlots:9:TURKEY"));
+
+        verify(tournamentRepository).findAllById(argThat(ids -> ids.iterator().next().equals(9L)));
+        verify(connection).expireAt(eq("openGroupSlots:9:TURKEY"), longThat(expiry -> Math.abs(expiry - expectedExpiry) < 60));
+        verify(redisTemplate, never()).unlink(anyList());
+    }
+
+    @Test
+    void reapLegacyKeys_whenLeaseIsHeldByAnotherNode_thenSkips() {
+        when(leaseService.tryAcquireRenewable("redisKeyReaper")).thenReturn(false);
+
+        assertEquals(0, redisKeyspaceService.reapLegacyKeys());
+
+        verify(redisTemplate, never()).scan(any());
+        verify(leaseService, never()).release(any());
+    }
+
+    @Test
+    void describeKeyspace_countsKeysPerFamilyAndEstimatesMemoryFromSamples() {
+        Cursor<String> cursor = cursor(List.of("groupLeaderBoard:1", "groupLeaderBoard:2", "countryLeaderBoardBroadcastLock"));
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("groupLeaderBoard:1", "countryLeaderBoardBroadcastLock")), eq("5")))
+                .thenReturn(List.of(100L, -1L, 40L, 2L));
+        Properties info = new Properties();
+        info.setProperty("used_memory", "1000");
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(info);
+
+        KeyspaceReport report = redisKeyspaceService.describeKeyspace();
+
+        assertEquals(1000L, report.getUsedMemoryBytes());
+        assertEquals(3, report.getScannedKeys());
+        KeyFamilyUsage groupLeaderBoards = report.getFamilies().get("GROUP_LEADERBOARD");
+        assertEquals(2, groupLeaderBoards.getKeyCount());
+        assertEquals(200, groupLeaderBoards.getEstimatedMemoryBytes());
+        assertEquals(1, groupLeaderBoards.getSampledKeysWithoutExpiry());
+        assertEquals(1, report.getFamilies().get("OTHER").getKeyCount());
+        assertEquals(0, report.getFamilies().get("COUNTRY_LEADERBOARD").getKeyCount());
+        verify(cursor).close();
+    }
+
+    private GroupTournamentEnd groupEnd(Long groupId, LocalDateTime endTime) {
+        return new GroupTournamentEnd() {
+            @Override
+            public Long getGroupId() {
+                return groupId;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return endTime;
+            }
+        };
+    }
+
+    private Cursor<String> cursor(List<String> keys) {
+        Iterator<String> iterator = keys.iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
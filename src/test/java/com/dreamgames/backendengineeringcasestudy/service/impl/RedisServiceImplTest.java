@@ -1,17 +1,35 @@
 package com.dreamgames.backendengineeringcasestudy.service.impl;
 
+import com.dreamgames.backendengineeringcasestudy.cache.ActiveTournamentCache;
+import com.dreamgames.backendengineeringcasestudy.cache.GroupLeaderBoardCache;
 import com.dreamgames.backendengineeringcasestudy.exception.NoActiveTournamentException;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.ActiveTournament;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardPage;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.ScoreQuantiles;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.UserGroupRank;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupAssignment;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.TournamentMembership;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.exceptions.misusing.PotentialStubbingProblem;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.core.ZSetOperations;
-
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,13 +38,17 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class RedisServiceImplTest {
 
+    private static final LocalDateTime END_TIME = LocalDateTime.of(2024, 1, 1, 20, 0);
+
     @Mock
     private StringRedisTemplate redisTemplate;
     @Mock
-    private ValueOperations<String, String> valueOperations;
+    private ZSetOperations<String, String> zSetOperations;
 
     @Mock
-    private ZSetOperations<String, String> zSetOperations;
+    private ActiveTournamentCache activeTournamentCache;
+    @Mock
+    private GroupLeaderBoardCache groupLeaderBoardCache;
 
     @InjectMocks
     private RedisServiceImpl redisService;
@@ -35,14 +57,16 @@ public class RedisServiceImplTest {
     void testCreateTournament() {
         // Setup
         Long tournamentId = 1L;
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<String> keys = List.of("activeTournamentEpoch", "activeTournament", "hasActiveTournament", "activeTournamentId");
 
         // Act
-        redisService.createTournament(tournamentId);
+        redisService.createTournament(tournamentId, startTime, startTime.plusHours(20));
 
         // Assert
-
-        assertNotNull(valueOperations);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(keys), eq("activeTournamentChanged"), eq("1"),
+                eq("2024-01-01T00:00"), eq("2024-01-01T20:00"), eq("Active"));
+        verify(activeTournamentCache).refresh();
     }
 
     @Test
@@ -70,58 +94,61 @@ public class RedisServiceImplTest {
         String key = "groupLeaderBoard:" + groupId;
         String member = "User:" + userId;
         when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(activeTournamentCache.get()).thenReturn(ActiveTournament.NONE);
 
         redisService.updateGroupLeaderBoard(groupId, userId, score);
 
         verify(redisTemplate).opsForZSet();
-        verify(zSetOperations).add(key, member, score.doubleValue());
+        verify(zSetOperations).add(key, member, LeaderBoardScoreCodec.encode(score, LeaderBoardScoreCodec.SCALE));
     }
 
     @Test
     public void testCloseTournament() {
-        // Mocking the necessary ValueOperations
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        doNothing().when(valueOperations).set(anyString(), anyString());
+        // Arrange
+        when(activeTournamentCache.refresh()).thenReturn(new ActiveTournament(3L, 1L, null, null, "Active"));
 
-        // Call the method under test
+        // Act
         redisService.closeTournament();
 
-        assertNotNull(valueOperations);
-
+        // Assert
+        verify(redisTemplate).delete(List.of(
+                "openGroupSlots:1:TURKEY", "openGroupSlots:1:UNITED_STATES", "openGroupSlots:1:UNITED_KINGDOM",
+                "openGroupSlots:1:FRANCE", "openGroupSlots:1:GERMANY"));
+        verify(redisTemplate).delete("dirtyScoreGroups:1");
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq("activeTournamentChanged"), eq("1"),
+                eq(""), eq(""), eq("Completed"));
     }
 
     @Test
     public void testCheckActiveTournament() {
         // Arrange
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("tournamentActive")).thenReturn("false");
+        when(activeTournamentCache.get()).thenReturn(ActiveTournament.NONE);
 
         // Act & Assert
-        Exception exception = assertThrows(PotentialStubbingProblem.class, () -> redisService.checkActiveTournament());
+        assertThrows(NoActiveTournamentException.class, () -> redisService.checkActiveTournament());
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
     public void testGetActiveTournamentId() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(activeTournamentCache.get()).thenReturn(new ActiveTournament(3L, 1L, null, null, "Active"));
 
         Long result = redisService.getActiveTournamentId();
 
-        assertNull(result);
-        verify(valueOperations).get("activeTournamentId");
+        assertEquals(1L, result);
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
-    public void testGetActiveTournamentIdReturnsNullWhenNotSet() {
+    public void testGetActiveTournamentIdReturnsNullWhenNotActive() {
         // Arrange
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("activeTournamentId")).thenReturn(null);
+        when(activeTournamentCache.get()).thenReturn(new ActiveTournament(4L, 1L, null, null, "Completed"));
 
         // Act
         Long result = redisService.getActiveTournamentId();
 
         // Assert
         assertNull(result);
-        verify(redisTemplate.opsForValue()).get("activeTournamentId");
     }
 
     @Test
@@ -146,9 +173,12 @@ public class RedisServiceImplTest {
         SetOperations<String, String> setOperations = mock(SetOperations.class);
         when(redisTemplate.opsForSet()).thenReturn(setOperations);
 
+        givenActiveTournament(1L);
+
         redisService.addCountryToGroup(groupCountryKey, country);
 
         verify(setOperations).add(groupCountryKey, country);
+        verify(redisTemplate).expireAt(groupCountryKey, expectedKeyExpiry());
     }
 
     @Test
@@ -168,17 +198,29 @@ public class RedisServiceImplTest {
 
     @Test
     void testIncrementGroupLeaderBoardScore() {
+        Long tournamentId = 3L;
         Long groupId = 1L;
         Long userId = 1L;
-        int scoreIncrement = 5;
-        String groupLeaderBoardKey = "groupLeaderBoard:" + groupId;
-        String member = "User:" + userId;
+        LocalDateTime endTime = LocalDateTime.now().plusHours(19);
+        when(activeTournamentCache.get()).thenReturn(new ActiveTournament(1L, tournamentId, LocalDateTime.now().minusHours(1), endTime, "Active"));
 
-        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        redisService.incrementGroupLeaderBoardScore(tournamentId, groupId, userId, 5);
 
-        redisService.incrementGroupLeaderBoardScore(groupId, userId, scoreIncrement);
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("groupLeaderBoard:1", "dirtyScoreGroups:3", "groupLeaderBoardVersion:1", "tournamentLeaderBoard:3")),
+                eq("User:1"), eq("5"), eq("1"), eq("groupLeaderBoardChanged"), eq("134217728"),
+                argThat((String tieBreaker) -> Math.abs(Long.parseLong(tieBreaker) - LeaderBoardScoreCodec.tieBreaker(3_600_000)) < 60_000),
+                eq(String.valueOf(endTime.atZone(ZoneId.systemDefault()).toEpochSecond())));
+        verify(groupLeaderBoardCache).invalidate(groupId);
+    }
 
-        verify(zSetOperations).incrementScore(groupLeaderBoardKey, member, scoreIncrement);
+    @Test
+    void testPopDirtyScoreGroups() {
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.pop("dirtyScoreGroups:3", 2)).thenReturn(List.of("7", "8"));
+
+        assertEquals(List.of(7L, 8L), redisService.popDirtyScoreGroups(3L, 2));
     }
 
     @Test
@@ -217,6 +259,7 @@ public class RedisServiceImplTest {
         String key = "countryLeaderBoard:" + tournamentId;
 
         when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        givenActiveTournament(tournamentId);
 
         redisService.createCountryLeaderBoard(tournamentId);
 
@@ -227,6 +270,7 @@ public class RedisServiceImplTest {
         verify(zSetOperations).add(key, "GERMANY", 0);
         verifyNoMoreInteractions(zSetOperations);
         verify(redisTemplate).opsForZSet();
+        verify(redisTemplate).expireAt(key, expectedKeyExpiry());
     }
 
     @Test
@@ -246,4 +290,181 @@ public class RedisServiceImplTest {
         verify(redisTemplate).opsForZSet();
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGetLeaderBoardWindowAroundMember() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("groupLeaderBoard:7")), eq("User:2"), eq("-1"), eq("3")))
+                .thenReturn(List.of(0L, 5L, List.of("User:1", "12", "User:2", "9", "User:3", "4")));
+
+        LeaderBoardPage<ZSetOperations.TypedTuple<String>> window =
+                redisService.getLeaderBoardWindow("groupLeaderBoard:7", "User:2", -1, 3);
+
+        assertEquals(1, window.getFirstRank());
+        assertEquals(5L, window.getTotalEntries());
+        assertEquals(3, window.getEntries().size());
+        assertEquals("User:2", window.getEntries().get(1).getValue());
+        assertEquals(9.0, window.getEntries().get(1).getScore());
+    }
+
+    @Test
+    void testGetLeaderBoardWindowReturnsNullWhenAnchorIsMissing() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenReturn(null);
+
+        assertNull(redisService.getLeaderBoardWindow("groupLeaderBoard:7", "User:9", -1, 3));
+    }
+
+    @Test
+    void testGetUserGroupRanks() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("tournamentMembership:1")), eq("100"), eq("101")))
+                .thenReturn(Arrays.asList(List.of(7L, 1L, String.format("%.0f", LeaderBoardScoreCodec.encode(25, 1000)), 5L), null));
+
+        List<UserGroupRank> ranks = redisService.getUserGroupRanks(1L, List.of(100L, 101L));
+
+        assertEquals(2, ranks.size());
+        assertEquals(7L, ranks.get(0).getGroupId());
+        assertEquals(2, ranks.get(0).getRank());
+        assertEquals(25, ranks.get(0).getScore());
+        assertEquals(5, ranks.get(0).getGroupSize());
+        assertNull(ranks.get(1));
+    }
+
+    @Test
+    void testGetLeaderBoardQuantiles() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("tournamentLeaderBoard:1")), eq("2")))
+                .thenReturn(List.of(5L, List.of("40", "12.5", "0")));
+
+        ScoreQuantiles quantiles = redisService.getLeaderBoardQuantiles("tournamentLeaderBoard:1", 2);
+
+        assertEquals(5L, quantiles.getTotalEntries());
+        assertArrayEquals(new double[]{40, 12.5, 0}, quantiles.getScores());
+    }
+
+    @Test
+    void testJoinOpenGroup() {
+        Long tournamentId = 1L;
+        Long userId = 100L;
+        String openSlotKey = "openGroupSlots:" + tournamentId + ":GERMANY";
+        givenActiveTournament(tournamentId);
+
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(openSlotKey, "tournamentMembership:1", "tournamentLeaderBoard:1")), eq("GERMANY"), eq("100"), eq("5"),
+                eq("groupLeaderBoardChanged"), eq(String.valueOf(expectedKeyExpiry().getEpochSecond()))))
+                .thenReturn(List.of(7L, 3L));
+
+        GroupAssignment assignment = redisService.joinOpenGroup(tournamentId, userId, "GERMANY");
+
+        assertEquals(7L, assignment.getGroupId());
+        assertEquals(3, assignment.getGroupSize());
+        verify(groupLeaderBoardCache).invalidate(7L);
+    }
+
+    @Test
+    void testJoinOpenGroupReturnsNullWhenNoSlotIsOpen() {
+        givenActiveTournament(1L);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any())).thenReturn(null);
+
+        assertNull(redisService.joinOpenGroup(1L, 100L, "GERMANY"));
+    }
+
+    @Test
+    void testRegisterGroup() {
+        Long tournamentId = 1L;
+        Map<Long, String> memberCountries = new LinkedHashMap<>();
+        memberCountries.put(100L, "TURKEY");
+        memberCountries.put(101L, "FRANCE");
+        List<String> expectedKeys = List.of(
+                "tournamentMembership:1",
+                "tournamentLeaderBoard:1",
+                "groupCountryMapping:7",
+                "groupLeaderBoard:7",
+                "groupLeaderBoardVersion:7",
+                "openGroupSlots:1:UNITED_STATES",
+                "openGroupSlots:1:UNITED_KINGDOM",
+                "openGroupSlots:1:GERMANY");
+
+        givenActiveTournament(tournamentId);
+
+        redisService.registerGroup(tournamentId, 7L, memberCountries);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(expectedKeys), eq("7"), eq("0"), eq("groupLeaderBoardChanged"),
+                eq(String.valueOf(expectedKeyExpiry().getEpochSecond())), eq("100"), eq("TURKEY"), eq("101"), eq("FRANCE"));
+    }
+
+    @Test
+    void testGetTournamentMembership() {
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.get("tournamentMembership:1", "100")).thenReturn("7:1");
+
+        TournamentMembership membership = redisService.getTournamentMembership(1L, 100L);
+
+        assertEquals(7L, membership.getGroupId());
+        assertTrue(membership.getHasGroupBegan());
+        assertNull(redisService.getTournamentMembership(1L, 101L));
+    }
+
+    @Test
+    void testDeleteTournamentLeaderBoards() {
+        redisService.deleteTournamentLeaderBoards(1L, List.of(7L, 8L));
+
+        verify(redisTemplate).unlink(List.of("countryLeaderBoard:1", "tournamentLeaderBoard:1",
+                "tournamentMembership:1", "dirtyScoreGroups:1"));
+        verify(redisTemplate).unlink(List.of("groupLeaderBoard:7", "groupLeaderBoardVersion:7", "groupCountryMapping:7",
+                "groupLeaderBoard:8", "groupLeaderBoardVersion:8", "groupCountryMapping:8"));
+    }
+
+    @Test
+    void testHasUnclaimedRewards() {
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.getBit("unclaimedRewards", 42L)).thenReturn(true);
+
+        assertTrue(redisService.hasUnclaimedRewards(42L));
+        assertFalse(redisService.hasUnclaimedRewards(43L));
+    }
+
+    @Test
+    void testLeaveGroup() {
+        givenActiveTournament(1L);
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of("openGroupSlots:1:GERMANY", "tournamentMembership:1", "tournamentLeaderBoard:1",
+                        "groupCountryMapping:7", "groupLeaderBoard:7", "groupLeaderBoardVersion:7")),
+                eq("GERMANY"), eq("100"), eq("7"), eq("groupLeaderBoardChanged"), eq(String.valueOf(expectedKeyExpiry().getEpochSecond()))))
+                .thenReturn(1L);
+
+        assertTrue(redisService.leaveGroup(1L, 7L, 100L, "GERMANY"));
+        verify(groupLeaderBoardCache).invalidate(7L);
+    }
+
+    @Test
+    void testUnregisterGroup() {
+        List<String> expectedKeys = List.of(
+                "tournamentMembership:1", "tournamentLeaderBoard:1",
+                "groupCountryMapping:7", "groupLeaderBoard:7", "groupLeaderBoardVersion:7",
+                "openGroupSlots:1:TURKEY", "openGroupSlots:1:UNITED_STATES", "openGroupSlots:1:UNITED_KINGDOM",
+                "openGroupSlots:1:FRANCE", "openGroupSlots:1:GERMANY");
+
+        redisService.unregisterGroup(1L, 7L, List.of(100L, 101L));
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(expectedKeys), eq("7"), eq("groupLeaderBoardChanged"), eq("100"), eq("101"));
+        verify(groupLeaderBoardCache).invalidate(7L);
+    }
+
+    @Test
+    void testRegisterGroupOfInactiveTournamentExpiresAfterGracePeriodFromNow() {
+        givenActiveTournament(2L);
+        long expectedExpiry = Instant.now().plusSeconds(48 * 3600).getEpochSecond();
+
+        redisService.registerGroup(1L, 7L, Map.of(100L, "TURKEY"));
+
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq("7"), eq("0"), eq("groupLeaderBoardChanged"),
+                argThat((String expiry) -> Math.abs(Long.parseLong(expiry) - expectedExpiry) < 60), eq("100"), eq("TURKEY"));
+    }
+
+    private void givenActiveTournament(Long tournamentId) {
+        ReflectionTestUtils.setField(redisService, "keyGraceHours", 48L);
+        when(activeTournamentCache.get()).thenReturn(new ActiveTournament(1L, tournamentId, END_TIME.minusHours(20), END_TIME, "Active"));
+    }
+
+    private Instant expectedKeyExpiry() {
+        return END_TIME.plusHours(48).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,101 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.model.tournament.UnclaimedReward;
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressDelta;
+import com.dreamgames.backendengineeringcasestudy.repository.ProgressBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentRewardsBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class RewardAutoCreditServiceImplTest {
+
+    @Mock
+    private TournamentRewardsBatchRepository tournamentRewardsBatchRepository;
+    @Mock
+    private ProgressBatchRepository progressBatchRepository;
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RewardAutoCreditServiceImpl rewardAutoCreditService;
+
+    @BeforeEach
+    void setUp() {
+        rewardAutoCreditService = new RewardAutoCreditServiceImpl(tournamentRewardsBatchRepository, progressBatchRepository,
+                redisService, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(rewardAutoCreditService, "enabled", true);
+        ReflectionTestUtils.setField(rewardAutoCreditService, "minAgeHours", 72L);
+        ReflectionTestUtils.setField(rewardAutoCreditService, "batchSize", 3);
+        rewardAutoCreditService.start();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void creditExpiredRewards_whenRewardsExpired_thenCreditsCoinsPerUserAndMarksClaimed() {
+        when(tournamentRewardsBatchRepository.lockUnclaimedCreatedBefore(any(), eq(0L), eq(3))).thenReturn(List.of(
+                new UnclaimedReward(1L, 7L, 10000), new UnclaimedReward(2L, 5L, 5000), new UnclaimedReward(3L, 7L, 5000)));
+        when(tournamentRewardsBatchRepository.findUserIdsWithUnclaimedRewards(any())).thenReturn(List.of(5L));
+
+        assertEquals(3, rewardAutoCreditService.creditExpiredRewards());
+
+        ArgumentCaptor<Collection<UserProgressDelta>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(progressBatchRepository).addUserProgress(deltas.capture());
+        assertEquals(List.of(5L, 7L), deltas.getValue().stream().map(UserProgressDelta::getUserId).toList());
+        assertEquals(List.of(5000, 15000), deltas.getValue().stream().map(UserProgressDelta::getCoinsDelta).toList());
+        verify(tournamentRewardsBatchRepository).markClaimed(List.of(1L, 2L, 3L));
+        InOrder bitmap = inOrder(redisService, tournamentRewardsBatchRepository);
+        bitmap.verify(redisService).clearUnclaimedRewards(7L);
+        bitmap.verify(redisService).clearUnclaimedRewards(5L);
+        bitmap.verify(tournamentRewardsBatchRepository).findUserIdsWithUnclaimedRewards(any());
+        bitmap.verify(redisService).markUnclaimedRewards(List.of(5L));
+        assertEquals(3.0, meterRegistry.get("tournament.rewards.auto-credited").counter().count());
+        assertEquals(3L, ReflectionTestUtils.getField(rewardAutoCreditService, "lastRewardId"));
+    }
+
+    @Test
+    void creditExpiredRewards_whenPageIsShort_thenRestartsCursor() {
+        ReflectionTestUtils.setField(rewardAutoCreditService, "lastRewardId", 3L);
+        when(tournamentRewardsBatchRepository.lockUnclaimedCreatedBefore(any(), eq(3L), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, rewardAutoCreditService.creditExpiredRewards());
+
+        verifyNoInteractions(progressBatchRepository, redisService);
+        assertEquals(0L, ReflectionTestUtils.getField(rewardAutoCreditService, "lastRewardId"));
+    }
+
+    @Test
+    void creditExpiredRewards_whenDisabled_thenDoesNothing() {
+        ReflectionTestUtils.setField(rewardAutoCreditService, "enabled", false);
+
+        assertEquals(0, rewardAutoCreditService.creditExpiredRewards());
+
+        verifyNoInteractions(tournamentRewardsBatchRepository, progressBatchRepository, redisService);
+    }
+}
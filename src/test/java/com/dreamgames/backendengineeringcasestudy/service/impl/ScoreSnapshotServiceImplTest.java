@@ -0,0 +1,94 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupScore;
+import com.dreamgames.backendengineeringcasestudy.repository.ProgressBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentGroupsRepository;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ScoreSnapshotServiceImplTest {
+
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private TournamentGroupsRepository tournamentGroupsRepository;
+    @Mock
+    private ProgressBatchRepository progressBatchRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ScoreSnapshotServiceImpl scoreSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scoreSnapshotService, "redisAuthoritative", true);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        Set<ZSetOperations.TypedTuple<String>> leaderBoard = new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("User:1", LeaderBoardScoreCodec.encode(12, 0)), new DefaultTypedTuple<>("User:2", LeaderBoardScoreCodec.encode(4, 0))));
+        when(redisService.getGroupLeaderBoards(List.of(7L))).thenReturn(Map.of(7L, leaderBoard));
+    }
+
+    @Test
+    void snapshotDirtyGroups_whenGroupsChanged_thenWritesTheirAbsoluteScores() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.popDirtyScoreGroups(1L, 500)).thenReturn(List.of(7L), List.of());
+
+        scoreSnapshotService.snapshotDirtyGroups();
+
+        ArgumentCaptor<Collection<GroupScore>> scores = ArgumentCaptor.forClass(Collection.class);
+        verify(progressBatchRepository).setGroupScores(scores.capture());
+        List<GroupScore> written = new ArrayList<>(scores.getValue());
+        assertEquals(2, written.size());
+        assertEquals(1L, written.get(0).getUserId());
+        assertEquals(12, written.get(0).getScore());
+    }
+
+    @Test
+    void snapshotDirtyGroups_whenWriteFails_thenMarksGroupsDirtyAgain() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.popDirtyScoreGroups(1L, 500)).thenReturn(List.of(7L));
+        doThrow(new QueryTimeoutException("timeout")).when(progressBatchRepository).setGroupScores(any());
+
+        scoreSnapshotService.snapshotDirtyGroups();
+
+        verify(redisService).markScoreGroupsDirty(1L, List.of(7L));
+    }
+
+    @Test
+    void snapshotTournament_whenClosing_thenWritesEveryStartedGroup() {
+        when(tournamentGroupsRepository.findGroupIdsByTournamentIdAndGroupSize(1L, 5)).thenReturn(List.of(7L));
+
+        scoreSnapshotService.snapshotTournament(1L);
+
+        verify(progressBatchRepository).setGroupScores(any());
+        verify(redisService, never()).popDirtyScoreGroups(any(), anyInt());
+    }
+}
@@ -0,0 +1,149 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.domain.TournamentArchive;
+import com.dreamgames.backendengineeringcasestudy.exception.TournamentArchiveNotFoundException;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.CountryLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.LeaderBoardScoreCodec;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.TournamentHistoryEntry;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentArchiveRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.TournamentGroupsRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import com.dreamgames.backendengineeringcasestudy.service.CountryScoreBufferService;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TournamentArchiveServiceImplTest {
+
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private CountryScoreBufferService countryScoreBufferService;
+    @Mock
+    private TournamentGroupsRepository tournamentGroupsRepository;
+    @Mock
+    private TournamentArchiveRepository tournamentArchiveRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TournamentArchiveServiceImpl tournamentArchiveService;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tournamentArchiveService, "enabled", true);
+        ReflectionTestUtils.setField(tournamentArchiveService, "directory", directory.toString());
+        ReflectionTestUtils.setField(tournamentArchiveService, "maxOpenFiles", 4L);
+        tournamentArchiveService.start();
+    }
+
+    @Test
+    void archiveTournament_whenTournamentClosed_thenStoresStandingsAndDropsLeaderBoards() {
+        // Arrange
+        TournamentArchive archive = archiveTournament();
+
+        // Act & Assert
+        assertEquals(2, archive.getGroupCount());
+        assertEquals(4, archive.getPlayerCount());
+        verify(countryScoreBufferService).flush();
+        verify(redisService).deleteTournamentLeaderBoards(1L, List.of(10L, 20L));
+    }
+
+    @Test
+    void findArchivedStanding_whenUserTookPart_thenReturnsFinalRank() {
+        // Arrange
+        archiveTournament();
+
+        // Act
+        TournamentHistoryEntry standing = tournamentArchiveService.findArchivedStanding(1L, 2L);
+
+        // Assert
+        assertEquals(10L, standing.getGroupId());
+        assertEquals(2, standing.getRank());
+        assertEquals(5, standing.getScore());
+        assertEquals(2, standing.getGroupSize());
+        assertEquals(1, tournamentArchiveService.findArchivedStanding(1L, 4L).getRank());
+        assertNull(tournamentArchiveService.findArchivedStanding(1L, 99L));
+    }
+
+    @Test
+    void getArchivedCountryLeaderBoard_whenArchived_thenKeepsOrder() {
+        // Arrange
+        archiveTournament();
+
+        // Act
+        List<CountryLeaderBoard> leaderBoard = tournamentArchiveService.getArchivedCountryLeaderBoard(1L);
+
+        // Assert
+        assertEquals(List.of("TURKEY", "FRANCE"), leaderBoard.stream().map(CountryLeaderBoard::getCountryName).toList());
+        assertEquals(List.of(12, 5), leaderBoard.stream().map(CountryLeaderBoard::getScore).toList());
+    }
+
+    @Test
+    void getArchivedCountryLeaderBoard_whenNotArchived_thenThrowException() {
+        // Arrange
+        when(tournamentArchiveRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(TournamentArchiveNotFoundException.class, () -> tournamentArchiveService.getArchivedCountryLeaderBoard(2L));
+    }
+
+    @Test
+    void archiveTournament_whenRedisFails_thenKeepsLeaderBoardsAndThrows() {
+        // Arrange
+        when(tournamentGroupsRepository.findGroupIdsByTournamentId(1L)).thenReturn(List.of(10L));
+        when(redisService.getGroupLeaderBoards(any())).thenThrow(new IllegalStateException("down"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> tournamentArchiveService.archiveTournament(1L));
+        verify(tournamentArchiveRepository, never()).save(any());
+        verify(redisService, never()).deleteTournamentLeaderBoards(any(), any());
+    }
+
+    private TournamentArchive archiveTournament() {
+        when(tournamentGroupsRepository.findGroupIdsByTournamentId(1L)).thenReturn(List.of(10L, 20L));
+        Map<Long, Set<ZSetOperations.TypedTuple<String>>> leaderBoards = new LinkedHashMap<>();
+        leaderBoards.put(10L, new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("User:1", LeaderBoardScoreCodec.encode(7, 0)),
+                new DefaultTypedTuple<>("User:2", LeaderBoardScoreCodec.encode(5, 0)))));
+        leaderBoards.put(20L, new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("User:4", LeaderBoardScoreCodec.encode(9, 0)),
+                new DefaultTypedTuple<>("User:3", LeaderBoardScoreCodec.encode(0, 0)))));
+        when(redisService.getGroupLeaderBoards(List.of(10L, 20L))).thenReturn(leaderBoards);
+        when(redisService.getCountryLeaderBoard("countryLeaderBoard:1")).thenReturn(new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("TURKEY", 12.0), new DefaultTypedTuple<>("FRANCE", 5.0))));
+
+        tournamentArchiveService.archiveTournament(1L);
+
+        ArgumentCaptor<TournamentArchive> archive = ArgumentCaptor.forClass(TournamentArchive.class);
+        verify(tournamentArchiveRepository).save(archive.capture());
+        when(tournamentArchiveRepository.findById(1L)).thenReturn(Optional.of(archive.getValue()));
+        return archive.getValue();
+    }
+}
@@ -0,0 +1,324 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.domain.TournamentClosePartition;
+import com.dreamgames.backendengineeringcasestudy.exception.UnClaimedRewardFoundException;
+import com.dreamgames.backendengineeringcasestudy.exception.UserCanNotEnterTournamentException;
+import com.dreamgames.backendengineeringcasestudy.exception.UserEnteredTournamentBeforeException;
+import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
+import com.dreamgames.backendengineeringcasestudy.model.leaderboard.GroupLeaderBoard;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.RewardWinner;
+import com.dreamgames.backendengineeringcasestudy.repository.*;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.GroupIdRange;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.TournamentEligibility;
+import com.dreamgames.backendengineeringcasestudy.service.LeaderBoardService;
+import com.dreamgames.backendengineeringcasestudy.service.LeaseService;
+import com.dreamgames.backendengineeringcasestudy.service.MatchmakingService;
+import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TournamentServiceTest {
+
+    @Mock
+    private LeaderBoardService leaderBoardService;
+    @Mock
+    private MatchmakingService matchmakingService;
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TournamentRepository tournamentRepository;
+    @Mock
+    private TournamentGroupsRepository tournamentGroupsRepository;
+    @Mock
+    private TournamentRewardsRepository tournamentRewardsRepository;
+    @Mock
+    private TournamentRewardsBatchRepository tournamentRewardsBatchRepository;
+    @Mock
+    private TournamentClosePartitionRepository tournamentClosePartitionRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private LeaseService leaseService;
+
+    @InjectMocks
+    private TournamentServiceImpl tournamentService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(leaseService.tryAcquireRenewable(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void enterTournament_whenUserIsEligible_thenAssignsGroupWithSingleQuery() {
+        List<GroupLeaderBoard> leaderBoard = List.of(new GroupLeaderBoard(1L, "testUser", "TURKEY", 0));
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findTournamentEligibility(1L, 1L, 20, 1000))
+                .thenReturn(Optional.of(new Eligibility(1L, "TURKEY", 1L, 1L, 0L)));
+        when(matchmakingService.assignGroup(1L, "TURKEY", 1L)).thenReturn(5L);
+        when(leaderBoardService.getGroupLeaderBoardWithGroupId(5L)).thenReturn(leaderBoard);
+
+        assertEquals(leaderBoard, tournamentService.enterTournament(1L));
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(tournamentRepository, tournamentGroupsRepository, tournamentRewardsRepository);
+    }
+
+    @Test
+    void enterTournamentAsync_whenUserIsEligible_thenQueuesUserWithoutWaitingForGroup() {
+        List<GroupLeaderBoard> leaderBoard = List.of(new GroupLeaderBoard(1L, "testUser", "TURKEY", 0));
+        CompletableFuture<Long> groupId = new CompletableFuture<>();
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findTournamentEligibility(1L, 1L, 20, 1000))
+                .thenReturn(Optional.of(new Eligibility(1L, "TURKEY", 1L, 1L, 0L)));
+        when(matchmakingService.submit(1L, "TURKEY", 1L)).thenReturn(groupId);
+        when(leaderBoardService.getGroupLeaderBoardWithGroupId(5L)).thenReturn(leaderBoard);
+
+        CompletableFuture<List<GroupLeaderBoard>> admission = tournamentService.enterTournamentAsync(1L, Runnable::run);
+
+        assertFalse(admission.isDone());
+        groupId.complete(5L);
+        assertEquals(leaderBoard, admission.join());
+        verify(matchmakingService, never()).assignGroup(any(), any(), any());
+    }
+
+    @Test
+    void enterTournament_whenUserDoesNotExist_thenThrowUserNotFoundException() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findTournamentEligibility(1L, 1L, 20, 1000)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> tournamentService.enterTournament(1L));
+        verifyNoInteractions(matchmakingService);
+    }
+
+    @Test
+    void enterTournament_whenRequirementsNotMet_thenThrowUserCanNotEnterTournamentException() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findTournamentEligibility(1L, 1L, 20, 1000))
+                .thenReturn(Optional.of(new Eligibility(1L, "TURKEY", 1L, 0L, 1L)));
+
+        UserCanNotEnterTournamentException exception = assertThrows(UserCanNotEnterTournamentException.class,
+                () -> tournamentService.enterTournament(1L));
+        assertEquals("User does not meet the requirements or does not exist.", exception.getMessage());
+    }
+
+    @Test
+    void enterTournament_whenAlreadyEntered_thenThrowUserEnteredTournamentBeforeException() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findTournamentEligibility(1L, 1L, 20, 1000))
+                .thenReturn(Optional.of(new Eligibility(1L, "TURKEY", 1L, 1L, 1L)));
+
+        assertThrows(UserEnteredTournamentBeforeException.class, () -> tournamentService.enterTournament(1L));
+    }
+
+    @Test
+    void enterTournament_whenRewardsUnclaimed_thenThrowUserCanNotEnterTournamentException() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findTournamentEligibility(1L, 1L, 20, 1000))
+                .thenReturn(Optional.of(new Eligibility(1L, "TURKEY", 1L, 1L, 0L)));
+        when(redisService.hasUnclaimedRewards(1L)).thenReturn(true);
+        when(tournamentRewardsBatchRepository.findUserIdsWithUnclaimedRewards(List.of(1L))).thenReturn(List.of(1L));
+
+        UserCanNotEnterTournamentException exception = assertThrows(UserCanNotEnterTournamentException.class,
+                () -> tournamentService.enterTournament(1L));
+        verifyNoInteractions(matchmakingService, tournamentRewardsRepository);
+        assertEquals("User has unclaimed rewards and cannot enter a new tournament.", exception.getMessage());
+    }
+
+    @Test
+    void enterTournament_whenUnclaimedBitIsStale_thenAssignsGroup() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findTournamentEligibility(1L, 1L, 20, 1000))
+                .thenReturn(Optional.of(new Eligibility(1L, "TURKEY", 1L, 1L, 0L)));
+        when(redisService.hasUnclaimedRewards(1L)).thenReturn(true);
+        when(tournamentRewardsBatchRepository.findUserIdsWithUnclaimedRewards(List.of(1L))).thenReturn(List.of());
+        when(matchmakingService.assignGroup(1L, "TURKEY", 1L)).thenReturn(5L);
+
+        tournamentService.enterTournament(1L);
+
+        verify(matchmakingService).assignGroup(1L, "TURKEY", 1L);
+    }
+
+    @Test
+    void claimTournamentsReward_whenRewardsUnclaimed_thenClaimsInOneStatementAndClearsBit() {
+        when(tournamentRewardsRepository.claimAllForUser(1L)).thenReturn(3);
+
+        tournamentService.claimTournamentsReward(1L);
+
+        verify(redisService).clearUnclaimedRewards(1L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void claimTournamentsReward_whenRewardIsCommittedMeanwhile_thenSetsBitAgainAfterClearing() {
+        when(tournamentRewardsRepository.claimAllForUser(1L)).thenReturn(3);
+        when(tournamentRewardsBatchRepository.findUserIdsWithUnclaimedRewards(List.of(1L))).thenReturn(List.of(1L));
+
+        tournamentService.claimTournamentsReward(1L);
+
+        InOrder bitmap = inOrder(redisService);
+        bitmap.verify(redisService).clearUnclaimedRewards(1L);
+        bitmap.verify(redisService).markUnclaimedRewards(List.of(1L));
+    }
+
+    @Test
+    void claimTournamentsReward_whenNothingToClaim_thenThrowUnClaimedRewardFoundException() {
+        when(tournamentRewardsRepository.claimAllForUser(1L)).thenReturn(0);
+
+        assertThrows(UnClaimedRewardFoundException.class, () -> tournamentService.claimTournamentsReward(1L));
+        verify(redisService, never()).clearUnclaimedRewards(any());
+    }
+
+    @Test
+    void rebuildUnclaimedRewardIndex_whenBitmapMissing_thenFlagsUsersFromDatabase() {
+        when(redisService.hasUnclaimedRewardIndex()).thenReturn(false);
+        when(tournamentRewardsRepository.findUserIdsWithUnclaimedRewards(eq(0L), any(Pageable.class))).thenReturn(List.of(3L, 9L));
+
+        tournamentService.rebuildUnclaimedRewardIndex();
+
+        verify(redisService).markUnclaimedRewards(List.of(3L, 9L));
+    }
+
+    @Test
+    void specifyRewardWinners_whenGroupsStarted_thenRewardsTopTwoPerPartition() {
+        ReflectionTestUtils.setField(tournamentService, "closePartitionCount", 2);
+        ReflectionTestUtils.setField(tournamentService, "closeParallelism", 2);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(tournamentGroupsRepository.findGroupIdRange(1L, 5)).thenReturn(new Range(7L, 8L));
+        when(tournamentClosePartitionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TournamentClosePartition> partitions = invocation.getArgument(0);
+            partitions.forEach(partition -> {
+                partition.setPartitionId(100L + partition.getPartitionIndex());
+                when(tournamentClosePartitionRepository.findByIdForUpdate(partition.getPartitionId())).thenReturn(Optional.of(partition));
+            });
+            return partitions;
+        });
+        when(tournamentGroupsRepository.findGroupIdsPage(eq(1L), eq(5), eq(6L), eq(7L), any(Pageable.class))).thenReturn(List.of(7L));
+        when(tournamentGroupsRepository.findGroupIdsPage(eq(1L), eq(5), eq(7L), eq(8L), any(Pageable.class))).thenReturn(List.of(8L));
+        when(redisService.getGroupLeaders(List.of(7L), 2)).thenReturn(Map.of(7L, List.of(11L, 12L)));
+        when(redisService.getGroupLeaders(List.of(8L), 2)).thenReturn(Map.of(8L, List.of(21L)));
+
+        tournamentService.specifyRewardWinners();
+
+        ArgumentCaptor<List<RewardWinner>> winners = ArgumentCaptor.forClass(List.class);
+        verify(tournamentRewardsBatchRepository, times(2)).insertAll(eq(1L), winners.capture());
+        Map<Long, Integer> coins = winners.getAllValues().stream().flatMap(List::stream)
+                .collect(Collectors.toMap(RewardWinner::getUserId, RewardWinner::getCoinsWon));
+        assertEquals(Map.of(11L, 10000, 12L, 5000, 21L, 10000), coins);
+        verify(redisService).markUnclaimedRewards(List.of(11L, 12L));
+        verify(redisService).markUnclaimedRewards(List.of(21L));
+        ArgumentCaptor<TournamentClosePartition> completed = ArgumentCaptor.forClass(TournamentClosePartition.class);
+        verify(tournamentClosePartitionRepository, times(2)).save(completed.capture());
+        assertTrue(completed.getAllValues().stream().allMatch(TournamentClosePartition::getCompleted));
+        verify(redisService).announceTournamentClose(eq(1L), any());
+        verify(redisService).endTournamentClose(1L);
+        verify(leaseService).release("tournamentClose:1:0");
+        verify(leaseService).release("tournamentClose:1:1");
+        verifyNoInteractions(userRepository, tournamentRepository);
+    }
+
+    @Test
+    void specifyRewardWinners_whenFlaggingPartitionWinnersFailed_thenFlagsAllUnclaimedWinnersOnRerun() {
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        TournamentClosePartition done = partition(100L, 0, 7L, 7L, true);
+        when(tournamentClosePartitionRepository.findByTournamentIdOrderByPartitionIndex(1L)).thenReturn(List.of(done));
+        when(tournamentRewardsBatchRepository.findUnclaimedWinnerIds(1L, 0L, 1000)).thenReturn(List.of(11L, 12L));
+
+        tournamentService.specifyRewardWinners();
+
+        verify(redisService).markUnclaimedRewards(List.of(11L, 12L));
+        verify(tournamentRewardsBatchRepository, never()).insertAll(any(), anyList());
+    }
+
+    @Test
+    void processRewardPartitions_whenPartitionLeasedByAnotherNode_thenSkipsIt() {
+        TournamentClosePartition leased = partition(100L, 0, 7L, 7L, false);
+        when(tournamentClosePartitionRepository.findByTournamentIdOrderByPartitionIndex(1L)).thenReturn(List.of(leased));
+        when(leaseService.tryAcquireRenewable("tournamentClose:1:0")).thenReturn(false);
+
+        assertEquals(0, tournamentService.processRewardPartitions(1L));
+
+        verify(tournamentClosePartitionRepository, never()).findByIdForUpdate(any());
+        verify(leaseService, never()).release(any());
+        verifyNoInteractions(tournamentRewardsBatchRepository);
+    }
+
+    @Test
+    void specifyRewardWinners_whenRerun_thenSkipsCompletedPartitions() {
+        ReflectionTestUtils.setField(tournamentService, "closePartitionCount", 2);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        TournamentClosePartition done = partition(100L, 0, 7L, 7L, true);
+        TournamentClosePartition failed = partition(101L, 1, 8L, 8L, false);
+        when(tournamentClosePartitionRepository.findByTournamentIdOrderByPartitionIndex(1L)).thenReturn(List.of(done, failed));
+        when(tournamentClosePartitionRepository.findByIdForUpdate(101L)).thenReturn(Optional.of(failed));
+        when(tournamentGroupsRepository.findGroupIdsPage(eq(1L), eq(5), eq(7L), eq(8L), any(Pageable.class))).thenReturn(List.of(8L));
+        when(redisService.getGroupLeaders(List.of(8L), 2)).thenReturn(Map.of(8L, List.of(21L, 22L)));
+
+        tournamentService.specifyRewardWinners();
+
+        verify(tournamentClosePartitionRepository, never()).findByIdForUpdate(100L);
+        verify(tournamentGroupsRepository, never()).findGroupIdRange(any(), any());
+        verify(tournamentRewardsBatchRepository, times(1)).insertAll(eq(1L), anyList());
+        assertTrue(failed.getCompleted());
+        assertEquals(2, failed.getRewardCount());
+    }
+
+    @Test
+    void specifyRewardWinners_whenPartitionFails_thenLeavesItForRerun() {
+        ReflectionTestUtils.setField(tournamentService, "closePartitionCount", 1);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        TournamentClosePartition partition = partition(100L, 0, 7L, 7L, false);
+        when(tournamentClosePartitionRepository.findByTournamentIdOrderByPartitionIndex(1L)).thenReturn(List.of(partition));
+        when(tournamentClosePartitionRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(partition));
+        when(tournamentGroupsRepository.findGroupIdsPage(eq(1L), eq(5), eq(6L), eq(7L), any(Pageable.class))).thenReturn(List.of(7L));
+        when(redisService.getGroupLeaders(List.of(7L), 2)).thenThrow(new IllegalStateException("Redis is down"));
+
+        assertThrows(IllegalStateException.class, () -> tournamentService.specifyRewardWinners());
+        assertFalse(partition.getCompleted());
+        verify(tournamentClosePartitionRepository, never()).save(any());
+    }
+
+    private TournamentClosePartition partition(Long partitionId, int index, Long firstGroupId, Long lastGroupId, boolean completed) {
+        return TournamentClosePartition.builder()
+                .partitionId(partitionId)
+                .tournamentId(1L)
+                .partitionIndex(index)
+                .firstGroupId(firstGroupId)
+                .lastGroupId(lastGroupId)
+                .completed(completed)
+                .build();
+    }
+
+    private record Range(Long getFirstGroupId, Long getLastGroupId) implements GroupIdRange {
+    }
+
+    private record Eligibility(Long getUserId, String getCountry, Long getTournamentFound, Long getMeetsRequirements,
+                               Long getEnteredTournament) implements TournamentEligibility {
+    }
+}
@@ -0,0 +1,106 @@
+package com.dreamgames.backendengineeringcasestudy.service.impl;
+
+import com.dreamgames.backendengineeringcasestudy.domain.User;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.GroupScore;
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressDelta;
+import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressResponse;
+import com.dreamgames.backendengineeringcasestudy.repository.ProgressBatchRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class UserProgressBufferServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ProgressBatchRepository progressBatchRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserProgressBufferServiceImpl userProgressBufferService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userProgressBufferService, "maxPendingEntries", 1000);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        User user = new User(1L, "TestUser", "test@example.com", "pass", "TURKEY", 1, 5000, LocalDateTime.now(), LocalDateTime.now());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void levelUp_whenCalledRepeatedly_thenReadsUserOnceAndComputesFromBuffer() {
+        userProgressBufferService.levelUp(1L, 25);
+        UserProgressResponse progress = userProgressBufferService.levelUp(1L, 25);
+
+        assertEquals(3, progress.getLevel());
+        assertEquals(5050, progress.getCoins());
+        assertEquals("TURKEY", progress.getCountry());
+        verify(userRepository, times(1)).findById(1L);
+        verifyNoInteractions(progressBatchRepository);
+    }
+
+    @Test
+    void flush_whenDeltasArePending_thenWritesThemInOneBatch() {
+        userProgressBufferService.levelUp(1L, 25);
+        userProgressBufferService.levelUp(1L, 25);
+        userProgressBufferService.addGroupScore(7L, 1L, 1);
+        userProgressBufferService.addGroupScore(7L, 1L, 1);
+
+        userProgressBufferService.flush();
+
+        ArgumentCaptor<Collection<UserProgressDelta>> userDeltas = ArgumentCaptor.forClass(Collection.class);
+        verify(progressBatchRepository).addUserProgress(userDeltas.capture());
+        UserProgressDelta delta = userDeltas.getValue().iterator().next();
+        assertEquals(2, delta.getLevelDelta());
+        assertEquals(50, delta.getCoinsDelta());
+        ArgumentCaptor<Collection<GroupScore>> scoreDeltas = ArgumentCaptor.forClass(Collection.class);
+        verify(progressBatchRepository).addGroupScores(scoreDeltas.capture());
+        GroupScore scoreDelta = scoreDeltas.getValue().iterator().next();
+        assertEquals(7L, scoreDelta.getGroupId());
+        assertEquals(2, scoreDelta.getScore());
+
+        userProgressBufferService.flush();
+        verifyNoMoreInteractions(progressBatchRepository);
+    }
+
+    @Test
+    void flush_whenWriteFails_thenKeepsDeltasForNextFlush() {
+        userProgressBufferService.levelUp(1L, 25);
+        doThrow(new QueryTimeoutException("timeout")).doNothing().when(progressBatchRepository).addUserProgress(any());
+
+        userProgressBufferService.flush();
+        userProgressBufferService.flush();
+
+        ArgumentCaptor<Collection<UserProgressDelta>> userDeltas = ArgumentCaptor.forClass(Collection.class);
+        verify(progressBatchRepository, times(2)).addUserProgress(userDeltas.capture());
+        List<Collection<UserProgressDelta>> attempts = userDeltas.getAllValues();
+        assertEquals(1, attempts.get(1).iterator().next().getLevelDelta());
+    }
+}
@@ -5,24 +5,26 @@ import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 
-import com.dreamgames.backendengineeringcasestudy.domain.GroupInfo;
-import com.dreamgames.backendengineeringcasestudy.domain.TournamentGroups;
 import com.dreamgames.backendengineeringcasestudy.domain.User;
 import com.dreamgames.backendengineeringcasestudy.exception.UserExistsException;
 import com.dreamgames.backendengineeringcasestudy.exception.UserNotFoundException;
 import com.dreamgames.backendengineeringcasestudy.mapper.UserMapper;
+import com.dreamgames.backendengineeringcasestudy.model.tournament.TournamentMembership;
 import com.dreamgames.backendengineeringcasestudy.model.user.CreateUserRequest;
 import com.dreamgames.backendengineeringcasestudy.model.user.UserProgressResponse;
 import com.dreamgames.backendengineeringcasestudy.repository.GroupInfoRepository;
 import com.dreamgames.backendengineeringcasestudy.repository.UserRepository;
+import com.dreamgames.backendengineeringcasestudy.repository.projection.UserProgress;
+import com.dreamgames.backendengineeringcasestudy.service.CountryScoreBufferService;
 import com.dreamgames.backendengineeringcasestudy.service.RedisService;
+import com.dreamgames.backendengineeringcasestudy.service.ScoreSnapshotService;
+import com.dreamgames.backendengineeringcasestudy.service.UserProgressBufferService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +42,15 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserProgressBufferService userProgressBufferService;
+
+    @Mock
+    private ScoreSnapshotService scoreSnapshotService;
+
+    @Mock
+    private CountryScoreBufferService countryScoreBufferService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -90,51 +101,127 @@ public class UserServiceTest {
     @Test
     void shouldThrowUserNotFoundExceptionWhenUserDoesNotExist() {
         Long userId = 1L;
-        given(userRepository.findById(userId)).willReturn(Optional.empty());
+        given(userRepository.incrementLevelAndCoins(userId, 25)).willReturn(0);
 
         // When & Then
         Exception exception = assertThrows(UserNotFoundException.class, () -> userService.updateLevelAndCoins(userId));
 
         assertEquals("No user found with id: " + userId, exception.getMessage());
+        verifyNoInteractions(groupInfoRepository);
     }
 
     @Test
     void testUpdateLevelAndCoinsWithoutActiveTournament() {
         // Arrange
-        User user = new User(1L, "TestUser", "test@example.com", "pass", "TestCountry", 1, 5000, LocalDateTime.now(), LocalDateTime.now());
-        when(userRepository.findById(any())).thenReturn(Optional.of(user));
+        when(userRepository.incrementLevelAndCoins(1L, 25)).thenReturn(1);
         when(redisService.getActiveTournamentId()).thenReturn(null);
+        when(userRepository.findProgressByUserId(1L)).thenReturn(Optional.of(new Progress(1L, 2, 5025, "TURKEY")));
 
         // Act
-        userService.updateLevelAndCoins(user.getUserId());
+        UserProgressResponse response = userService.updateLevelAndCoins(1L);
 
         // Assert
-        assertEquals(2, user.getLevel());
-        assertEquals(5025, user.getCoins());
-        verify(userRepository, times(1)).save(user);
+        assertEquals(2, response.getLevel());
+        assertEquals(5025, response.getCoins());
+        verify(userRepository, never()).save(any(User.class));
         verify(redisService, times(1)).checkActiveTournament();
+        verify(redisService, times(1)).getActiveTournamentId();
+        verify(redisService, times(1)).getTournamentMembership(null, 1L);
         verifyNoMoreInteractions(redisService);
+        verifyNoInteractions(groupInfoRepository);
     }
 
     @Test
     void testUpdateLevelAndCoinsWithActiveTournament() {
         // Arrange
-        User user = new User(1L, "TestUser", "test@example.com", "pass", "TestCountry", 1, 5000, LocalDateTime.now(), LocalDateTime.now());
-        GroupInfo groupInfo = new GroupInfo(1L, TournamentGroups.builder().build(), user, 0, true, LocalDateTime.now(), LocalDateTime.now());
-        when(userRepository.findById(any())).thenReturn(Optional.of(user));
+        when(userRepository.incrementLevelAndCoins(1L, 25)).thenReturn(1);
         when(redisService.getActiveTournamentId()).thenReturn(1L);
-        when(groupInfoRepository.findByTournamentIdAndUserId(any(), any())).thenReturn(Optional.of(groupInfo));
-        when(userMapper.UserToUserProgressResponse(any())).thenReturn(new UserProgressResponse());
+        when(userRepository.findProgressByUserId(1L)).thenReturn(Optional.of(new Progress(1L, 2, 5025, "TURKEY")));
+        when(redisService.getTournamentMembership(1L, 1L)).thenReturn(new TournamentMembership(7L, true));
 
         // Act
-        userService.updateLevelAndCoins(user.getUserId());
+        UserProgressResponse response = userService.updateLevelAndCoins(1L);
 
         // Assert
-        assertEquals(2, user.getLevel());
-        assertEquals(5025, user.getCoins());
-        assertEquals(1, groupInfo.getScore());
-        verify(groupInfoRepository, times(1)).save(groupInfo);
-        verify(redisService, times(1)).incrementGroupLeaderBoardScore(any(), any(), anyInt());
-        verify(redisService, times(1)).incrementCountryLeaderBoardScore(any(), anyInt(), any());
+        assertEquals(2, response.getLevel());
+        assertEquals(5025, response.getCoins());
+        verify(groupInfoRepository, times(1)).incrementScore(7L, 1L, 1);
+        verify(redisService, times(1)).incrementGroupLeaderBoardScore(1L, 7L, 1L, 1);
+        verify(redisService, times(1)).incrementCountryLeaderBoardScore("TURKEY", 1, 1L);
+    }
+
+    @Test
+    void testUpdateLevelAndCoinsWhenGroupHasNotBegun() {
+        // Arrange
+        when(userRepository.incrementLevelAndCoins(1L, 25)).thenReturn(1);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(userRepository.findProgressByUserId(1L)).thenReturn(Optional.of(new Progress(1L, 2, 5025, "TURKEY")));
+        when(redisService.getTournamentMembership(1L, 1L)).thenReturn(new TournamentMembership(7L, false));
+
+        // Act
+        userService.updateLevelAndCoins(1L);
+
+        // Assert
+        verify(groupInfoRepository, never()).incrementScore(any(), any(), anyInt());
+        verify(redisService, never()).incrementGroupLeaderBoardScore(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testUpdateLevelAndCoinsWithWriteBehindBuffer() {
+        // Arrange
+        UserProgressResponse bufferedProgress = new UserProgressResponse(1L, 2, 5025, "TURKEY");
+        when(userProgressBufferService.isEnabled()).thenReturn(true);
+        when(userProgressBufferService.levelUp(1L, 25)).thenReturn(bufferedProgress);
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.getTournamentMembership(1L, 1L)).thenReturn(new TournamentMembership(7L, true));
+
+        // Act
+        UserProgressResponse response = userService.updateLevelAndCoins(1L);
+
+        // Assert
+        assertEquals(bufferedProgress, response);
+        verify(userProgressBufferService).addGroupScore(7L, 1L, 1);
+        verify(userRepository, never()).incrementLevelAndCoins(any(), anyInt());
+        verifyNoInteractions(groupInfoRepository);
+        verify(redisService).incrementGroupLeaderBoardScore(1L, 7L, 1L, 1);
+        verify(redisService).incrementCountryLeaderBoardScore("TURKEY", 1, 1L);
+    }
+
+    @Test
+    void testUpdateLevelAndCoinsWithRedisAuthoritativeScores() {
+        // Arrange
+        when(userRepository.incrementLevelAndCoins(1L, 25)).thenReturn(1);
+        when(userRepository.findProgressByUserId(1L)).thenReturn(Optional.of(new Progress(1L, 2, 5025, "TURKEY")));
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.getTournamentMembership(1L, 1L)).thenReturn(new TournamentMembership(7L, true));
+        when(scoreSnapshotService.isRedisAuthoritative()).thenReturn(true);
+
+        // Act
+        userService.updateLevelAndCoins(1L);
+
+        // Assert
+        verifyNoInteractions(groupInfoRepository);
+        verify(redisService, times(1)).incrementGroupLeaderBoardScore(1L, 7L, 1L, 1);
+        verify(redisService, times(1)).incrementCountryLeaderBoardScore("TURKEY", 1, 1L);
+    }
+
+    @Test
+    void testUpdateLevelAndCoinsWithAggregatedCountryScores() {
+        // Arrange
+        when(userRepository.incrementLevelAndCoins(1L, 25)).thenReturn(1);
+        when(userRepository.findProgressByUserId(1L)).thenReturn(Optional.of(new Progress(1L, 2, 5025, "TURKEY")));
+        when(redisService.getActiveTournamentId()).thenReturn(1L);
+        when(redisService.getTournamentMembership(1L, 1L)).thenReturn(new TournamentMembership(7L, true));
+        when(countryScoreBufferService.isEnabled()).thenReturn(true);
+
+        // Act
+        userService.updateLevelAndCoins(1L);
+
+        // Assert
+        verify(countryScoreBufferService).addScore(1L, "TURKEY", 1);
+        verify(redisService, never()).incrementCountryLeaderBoardScore(any(), anyInt(), any());
+    }
+
+    private record Progress(Long getUserId, Integer getLevel, Integer getCoins, String getCountry) implements UserProgress {
     }
 }